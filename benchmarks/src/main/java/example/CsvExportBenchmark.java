@@ -0,0 +1,68 @@
+package example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// geração do CSV da exportação (sem S3), do tamanho de uma lista pequena até 100 mil itens
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvExportBenchmark {
+
+    @Param({"10", "1000", "10000", "100000"})
+    public int rows;
+
+    private List<Map<String, AttributeValue>> items;
+
+    @Setup
+    public void setUp() {
+        items = StubDynamoDbClient.items("list456", rows);
+    }
+
+    @Benchmark
+    public void csvWriter() throws IOException {
+        CsvWriter csv = new CsvWriter(OutputStream.nullOutputStream());
+        ProcessExportHandler.writeCsvRows(items, csv);
+        csv.flush();
+    }
+
+    // referência: o laço com Writer usado antes do CsvWriter (sem escape de campos)
+    @Benchmark
+    public void legacyWriter() throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(OutputStream.nullOutputStream(), StandardCharsets.UTF_8));
+        for (Map<String, AttributeValue> item : items) {
+            writer.write(item.get("itemId").s());
+            writer.write(",\"");
+            writer.write(item.get("text").s());
+            writer.write("\",");
+            writer.write(item.get("createdAt").s());
+            writer.write(',');
+            writer.write(String.valueOf(item.get("completed").bool()));
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+}
@@ -0,0 +1,118 @@
+package example;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// gerador de carga simples para o LocalServer: N conexões em loop fechado por alguns segundos,
+// imprimindo vazão e percentis de latência. cria as listas e itens antes de medir.
+//
+//   java -cp target/benchmarks.jar example.HttpLoadGenerator [url] [conexões] [segundos]
+public final class HttpLoadGenerator {
+
+    private static final int LISTS = 32;
+    private static final int ITEMS_PER_LIST = 100;
+
+    private HttpLoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        // HTTP/1.1 direto: o padrão (HTTP/2) tentaria upgrade h2c em toda conexão nova
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        String[][] itemIds = seed(client, baseUrl);
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<long[]> latencies = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int w = 0; w < connections; w++) {
+            long[] samples = new long[4_000_000 / connections];
+            latencies.add(samples);
+            Thread worker = new Thread(() -> run(client, baseUrl, itemIds, deadline, samples, errors), "load-" + w);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).filter(nanos -> nanos > 0).sorted().toArray();
+        System.out.printf("requisições: %d em %ds (%.0f req/s), erros: %d%n", all.length, seconds, all.length / (double) seconds, errors.get());
+        System.out.printf("latência p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, máx %.2f ms%n",
+                percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99), percentile(all, 0.999),
+                all.length == 0 ? 0 : all[all.length - 1] / 1e6);
+    }
+
+    // mistura de leitura e escrita: 60% GET item, 20% GET página, 20% PUT item
+    private static void run(HttpClient client, String baseUrl, String[][] itemIds, long deadline, long[] samples, AtomicLong errors) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int count = 0;
+        while (System.nanoTime() < deadline && count < samples.length) {
+            int list = random.nextInt(LISTS);
+            String itemId = itemIds[list][random.nextInt(ITEMS_PER_LIST)];
+            int roll = random.nextInt(10);
+            HttpRequest request;
+            if (roll < 6) {
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/lists/list" + list + "/items/" + itemId)).GET().build();
+            } else if (roll < 8) {
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/lists/list" + list + "/items?limit=50")).GET().build();
+            } else {
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/lists/list" + list + "/items/" + itemId))
+                        .PUT(HttpRequest.BodyPublishers.ofString("{\"completed\": " + random.nextBoolean() + "}")).build();
+            }
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 500) {
+                    errors.incrementAndGet();
+                }
+            } catch (Exception e) {
+                errors.incrementAndGet();
+                continue;
+            }
+            samples[count++] = System.nanoTime() - start;
+        }
+    }
+
+    private static String[][] seed(HttpClient client, String baseUrl) throws Exception {
+        String[][] itemIds = new String[LISTS][];
+        StringBuilder body = new StringBuilder("{\"items\": [");
+        for (int i = 0; i < ITEMS_PER_LIST; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"text\": \"Tarefa ").append(i).append("\"}");
+        }
+        body.append("]}");
+        for (int list = 0; list < LISTS; list++) {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/lists/list" + list + "/items/batch"))
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString())).build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Falha ao criar itens: " + response.statusCode() + " " + response.body());
+            }
+            // {"message": "...", "itemIds": ["...", ...]}
+            String ids = response.body().substring(response.body().indexOf('[') + 1, response.body().lastIndexOf(']'));
+            itemIds[list] = ids.replace("\"", "").split(",");
+        }
+        return itemIds;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
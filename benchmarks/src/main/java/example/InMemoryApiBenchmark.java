@@ -0,0 +1,112 @@
+package example;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// a API inteira (roteador + handlers) sobre o InMemoryTodoRepository, com várias threads
+// batendo no mesmo repositório: mede a vazão da lógica de negócio sem AWS nem rede
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class InMemoryApiBenchmark {
+
+    private static final int LISTS = 64;
+    private static final int ITEMS_PER_LIST = 200;
+
+    // montados uma vez para o custo de formatar os IDs não entrar na medição
+    private static final String[] ITEM_IDS = new String[ITEMS_PER_LIST];
+
+    static {
+        for (int i = 0; i < ITEMS_PER_LIST; i++) {
+            ITEM_IDS[i] = String.format("0f8fad5b-d9cb-469f-a165-%012d", i);
+        }
+    }
+
+    private final Context context = new StubContext();
+    private RouterHandler router;
+
+    @Setup
+    public void setUp() {
+        InMemoryTodoRepository repository = new InMemoryTodoRepository();
+        for (int list = 0; list < LISTS; list++) {
+            Map<String, String> textsById = new LinkedHashMap<>();
+            for (int i = 0; i < ITEMS_PER_LIST; i++) {
+                textsById.put(itemId(i), "Comprar pão, leite e café número " + i);
+            }
+            repository.putItems(listId(list), textsById, "2024-01-01T12:00:00.123456Z");
+            repository.putList("user123", listId(list), "Lista " + list, "2024-01-01T12:00:00.123456Z");
+        }
+
+        UpdateDeleteListHandler updateDeleteListHandler = new UpdateDeleteListHandler(repository, null, null);
+        Map<String, RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>> routes = new LinkedHashMap<>();
+        routes.put("POST /users/{userId}/lists", new CreateListHandler(repository));
+        routes.put("GET /users/{userId}/lists/{listId}", new GetListHandler(repository));
+        routes.put("PUT /users/{userId}/lists/{listId}", updateDeleteListHandler);
+        routes.put("POST /lists/{listId}/items", new CreateItemHandler(repository));
+        routes.put("GET /lists/{listId}/items", new ListItemsHandler(repository));
+        routes.put("GET /lists/{listId}/items/{itemId}", new GetItemHandler(repository));
+        routes.put("PUT /lists/{listId}/items/{itemId}", new UpdateItemHandler(repository));
+        router = new RouterHandler(routes);
+    }
+
+    private static String listId(int i) {
+        return "list" + i;
+    }
+
+    private static String itemId(int i) {
+        return ITEM_IDS[i];
+    }
+
+    private static APIGatewayProxyRequestEvent request(String method, String path, String body) {
+        return new APIGatewayProxyRequestEvent().withHttpMethod(method).withPath(path).withBody(body);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent getItem() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return router.handleRequest(request("GET",
+                "/lists/" + listId(random.nextInt(LISTS)) + "/items/" + itemId(random.nextInt(ITEMS_PER_LIST)), null), context);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent updateItem() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return router.handleRequest(request("PUT",
+                "/lists/" + listId(random.nextInt(LISTS)) + "/items/" + itemId(random.nextInt(ITEMS_PER_LIST)),
+                random.nextBoolean() ? "{\"completed\": true}" : "{\"completed\": false}"), context);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent listItems() {
+        return router.handleRequest(request("GET",
+                "/lists/" + listId(ThreadLocalRandom.current().nextInt(LISTS)) + "/items", null), context);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent getList() {
+        return router.handleRequest(request("GET",
+                "/users/user123/lists/" + listId(ThreadLocalRandom.current().nextInt(LISTS)), null), context);
+    }
+}
@@ -0,0 +1,121 @@
+package example;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// custo de CPU do que roda em toda requisição HTTP, com o DynamoDB substituído por um stub local.
+// rodar com -prof gc para ver também a alocação por operação
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestPathBenchmark {
+
+    // mesmo formato do InputData dos handlers de item (as classes deles são privadas)
+    static class ItemInput {
+        private String text;
+        private Boolean completed;
+    }
+
+    @Param({"10", "100", "1000"})
+    public int pageSize;
+
+    private final Gson gson = new Gson();
+    private final Context context = new StubContext();
+    private final String itemBody = "{\"text\": \"Comprar pão, leite e café\", \"completed\": true}";
+
+    private CreateItemHandler createItemHandler;
+    private UpdateItemHandler updateItemHandler;
+    private GetItemHandler getItemHandler;
+    private GetListHandler getListHandler;
+    private ListItemsHandler listItemsHandler;
+
+    private APIGatewayProxyRequestEvent createEvent;
+    private APIGatewayProxyRequestEvent updateEvent;
+    private APIGatewayProxyRequestEvent getEvent;
+    private APIGatewayProxyRequestEvent getListEvent;
+    private APIGatewayProxyRequestEvent listEvent;
+
+    @Setup
+    public void setUp() {
+        StubDynamoDbClient dynamoDbClient = new StubDynamoDbClient(pageSize);
+        createItemHandler = new CreateItemHandler(dynamoDbClient, "BenchTable");
+        updateItemHandler = new UpdateItemHandler(dynamoDbClient, "BenchTable");
+        getItemHandler = new GetItemHandler(dynamoDbClient, "BenchTable");
+        getListHandler = new GetListHandler(dynamoDbClient, "BenchTable");
+        listItemsHandler = new ListItemsHandler(dynamoDbClient, "BenchTable");
+
+        createEvent = new APIGatewayProxyRequestEvent()
+                .withPathParameters(Map.of("listId", "list456"))
+                .withBody(itemBody);
+        updateEvent = new APIGatewayProxyRequestEvent()
+                .withPathParameters(Map.of("listId", "list456", "itemId", "item1"))
+                .withBody(itemBody);
+        getEvent = new APIGatewayProxyRequestEvent()
+                .withPathParameters(Map.of("listId", "list456", "itemId", "item1"));
+        getListEvent = new APIGatewayProxyRequestEvent()
+                .withPathParameters(Map.of("userId", "user123", "listId", "list456"));
+        listEvent = new APIGatewayProxyRequestEvent()
+                .withPathParameters(Map.of("listId", "list456"))
+                .withQueryStringParameters(Map.of("limit", String.valueOf(pageSize)));
+    }
+
+    @Benchmark
+    public ItemInput gsonItemInput() {
+        return gson.fromJson(itemBody, ItemInput.class);
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> itemKeyMap() {
+        Map<String, AttributeValue> key = new HashMap<>();
+        key.put("pk", AttributeValue.builder().s("LIST#" + "list456").build());
+        key.put("sk", AttributeValue.builder().s("ITEM#" + "item1").build());
+        return key;
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent createItem() {
+        return createItemHandler.handleRequest(createEvent, context);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent updateItem() {
+        return updateItemHandler.handleRequest(updateEvent, context);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent getItem() {
+        return getItemHandler.handleRequest(getEvent, context);
+    }
+
+    @Benchmark
+    public APIGatewayProxyResponseEvent getList() {
+        return getListHandler.handleRequest(getListEvent, context);
+    }
+
+    // página inteira escrita direto dos mapas do DynamoDB (ResponseJson)
+    @Benchmark
+    public APIGatewayProxyResponseEvent listItems() {
+        return listItemsHandler.handleRequest(listEvent, context);
+    }
+}
@@ -0,0 +1,115 @@
+package example;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// DynamoDB em memória com respostas prontas: o benchmark mede só o trabalho do handler, sem rede
+final class StubDynamoDbClient implements DynamoDbClient {
+
+    private static final PutItemResponse PUT_RESPONSE = PutItemResponse.builder().build();
+    private static final UpdateItemResponse UPDATE_RESPONSE = UpdateItemResponse.builder().build();
+    private static final TransactWriteItemsResponse TRANSACT_RESPONSE = TransactWriteItemsResponse.builder().build();
+    private static final BatchWriteItemResponse BATCH_WRITE_RESPONSE = BatchWriteItemResponse.builder().build();
+
+    private final QueryResponse queryResponse;
+    private final GetItemResponse getItemResponse;
+    private final GetItemResponse getListResponse;
+    private final GetItemResponse getMetaResponse;
+
+    StubDynamoDbClient(int itemCount) {
+        List<Map<String, AttributeValue>> items = items("list456", itemCount);
+        this.queryResponse = QueryResponse.builder().items(items).count(items.size()).build();
+        this.getItemResponse = GetItemResponse.builder().item(items("list456", 1).get(0)).build();
+        this.getListResponse = GetItemResponse.builder().item(Map.of(
+                "pk", AttributeValue.builder().s("USER#user123").build(),
+                "sk", AttributeValue.builder().s("LIST#list456").build(),
+                "userId", AttributeValue.builder().s("user123").build(),
+                "name", AttributeValue.builder().s("Compras do mês").build(),
+                "createdAt", AttributeValue.builder().s("2024-01-01T12:00:00.123456Z").build())).build();
+        // contadores já completos (counted): a leitura não dispara a contagem da partição
+        this.getMetaResponse = GetItemResponse.builder().item(Map.of(
+                "pk", AttributeValue.builder().s("LIST#list456").build(),
+                "sk", AttributeValue.builder().s("META").build(),
+                "itemCount", AttributeValue.builder().n(String.valueOf(itemCount)).build(),
+                "completedCount", AttributeValue.builder().n(String.valueOf((itemCount + 1) / 2)).build(),
+                "version", AttributeValue.builder().n("42").build(),
+                "counted", AttributeValue.builder().bool(true).build())).build();
+    }
+
+    // itens no mesmo formato que o CreateItemHandler grava
+    static List<Map<String, AttributeValue>> items(String listId, int count) {
+        List<Map<String, AttributeValue>> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String itemId = String.format("0f8fad5b-d9cb-469f-a165-%012d", i);
+            items.add(Map.of(
+                    "pk", AttributeValue.builder().s("LIST#" + listId).build(),
+                    "sk", AttributeValue.builder().s("ITEM#" + itemId).build(),
+                    "itemId", AttributeValue.builder().s(itemId).build(),
+                    "text", AttributeValue.builder().s("Comprar pão, leite e \"café\" número " + i).build(),
+                    "createdAt", AttributeValue.builder().s("2024-01-01T12:00:00.123456Z").build(),
+                    "completed", AttributeValue.builder().bool(i % 2 == 0).build()));
+        }
+        return items;
+    }
+
+    @Override
+    public QueryResponse query(QueryRequest queryRequest) {
+        return queryResponse;
+    }
+
+    @Override
+    public GetItemResponse getItem(GetItemRequest getItemRequest) {
+        // chave USER#... é a linha da lista, sk META a linha dos contadores; o resto é item
+        if (getItemRequest.key().get("pk").s().startsWith("USER#")) {
+            return getListResponse;
+        }
+        return "META".equals(getItemRequest.key().get("sk").s()) ? getMetaResponse : getItemResponse;
+    }
+
+    @Override
+    public PutItemResponse putItem(PutItemRequest putItemRequest) {
+        return PUT_RESPONSE;
+    }
+
+    @Override
+    public UpdateItemResponse updateItem(UpdateItemRequest updateItemRequest) {
+        return UPDATE_RESPONSE;
+    }
+
+    // putItem, updateItem e deleteItem do repositório gravam item e contadores numa transação
+    @Override
+    public TransactWriteItemsResponse transactWriteItems(TransactWriteItemsRequest transactWriteItemsRequest) {
+        return TRANSACT_RESPONSE;
+    }
+
+    // sem unprocessedItems: todos os lotes gravados na primeira tentativa
+    @Override
+    public BatchWriteItemResponse batchWriteItem(BatchWriteItemRequest batchWriteItemRequest) {
+        return BATCH_WRITE_RESPONSE;
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+}
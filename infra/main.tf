@@ -30,6 +30,25 @@ resource "aws_dynamodb_table" "todo_list_table" {
     type = "S"
   }
 
+  attribute {
+    name = "openList"
+    type = "S"
+  }
+
+  # índice esparso: openList só existe nos itens pendentes (GET /lists/{listId}/items?completed=false)
+  global_secondary_index {
+    name            = "OpenItemsIndex"
+    hash_key        = "openList"
+    range_key       = "sk"
+    projection_type = "ALL"
+  }
+
+  # apaga sozinho os marcadores de exportação pendente (EXPORT#<listId>/USER#<userId>)
+  ttl {
+    attribute_name = "expiresAt"
+    enabled        = true
+  }
+
   tags = {
     Project = var.project_name
   }
@@ -58,10 +77,14 @@ resource "aws_iam_policy" "lambda_policy" {
         # Permissão para o DynamoDB
         Action = [
           "dynamodb:GetItem", "dynamodb:PutItem", "dynamodb:UpdateItem",
-          "dynamodb:DeleteItem", "dynamodb:Query"
+          "dynamodb:DeleteItem", "dynamodb:Query", "dynamodb:BatchWriteItem",
+          "dynamodb:BatchGetItem"
         ],
         Effect   = "Allow",
-        Resource = aws_dynamodb_table.todo_list_table.arn
+        Resource = [
+          aws_dynamodb_table.todo_list_table.arn,
+          "${aws_dynamodb_table.todo_list_table.arn}/index/*"
+        ]
       },
       {
         # permissão para a Fila SQS enviar, receber e apagar
@@ -72,13 +95,17 @@ resource "aws_iam_policy" "lambda_policy" {
           "sqs:GetQueueAttributes"
         ],
         Effect   = "Allow",
-        Resource = aws_sqs_queue.csv_export_queue.arn
+        Resource = [
+          aws_sqs_queue.csv_export_queue.arn,
+          aws_sqs_queue.list_purge_queue.arn
+        ]
       },
       {
         # P7permissão para o Bucket S3
         Action = [
           "s3:PutObject",
-          "s3:GetObject"
+          "s3:GetObject",
+          "s3:AbortMultipartUpload"
         ],
         Effect   = "Allow",
         Resource = "${aws_s3_bucket.csv_export_bucket.arn}/*"
@@ -115,186 +142,82 @@ resource "aws_iam_role_policy_attachment" "dynamodb_attachment" {
 }
 
 
-# (CreateListHandler)Cria lista
-
-resource "aws_lambda_function" "create_list_lambda" {
-  filename         = var.zip_path
-  function_name    = "${var.project_name}-CreateList"
-  role             = aws_iam_role.lambda_exec_role.arn
-  handler          = "example.CreateListHandler::handleRequest"
-  runtime          = var.lambda_runtime
-  source_code_hash = filebase64sha256(var.zip_path)
-  timeout          = 30
-
-  environment {
-    variables = {
-      TABLE_NAME = aws_dynamodb_table.todo_list_table.name
-    }
-  }
-}
-
-# (GetListHandler)Obtem lista
+# (RouterHandler) uma única Lambda atende todas as rotas REST
+# SnapStart só vale para versões publicadas, então a API chama sempre o alias "live"
 
-resource "aws_lambda_function" "get_list_lambda" {
+resource "aws_lambda_function" "api_router_lambda" {
   filename         = var.zip_path
-  function_name    = "${var.project_name}-GetList"
+  function_name    = "${var.project_name}-ApiRouter"
   role             = aws_iam_role.lambda_exec_role.arn
-  handler          = "example.GetListHandler::handleRequest"
+  handler          = "example.RouterHandler::handleRequest"
   runtime          = var.lambda_runtime
   source_code_hash = filebase64sha256(var.zip_path)
   timeout          = 30
+  publish          = true
 
-  environment {
-    variables = {
-      TABLE_NAME = aws_dynamodb_table.todo_list_table.name
-    }
+  snap_start {
+    apply_on = "PublishedVersions"
   }
-}
-
-# (UpdateDeleteListHandler)Atualiza/apaga lista
-
-resource "aws_lambda_function" "update_delete_list_lambda" {
-  filename         = var.zip_path
-  function_name    = "${var.project_name}-UpdateDeleteList"
-  role             = aws_iam_role.lambda_exec_role.arn
-  handler          = "example.UpdateDeleteListHandler::handleRequest"
-  runtime          = var.lambda_runtime
-  source_code_hash = filebase64sha256(var.zip_path)
-  timeout          = 30
 
   environment {
     variables = {
-      TABLE_NAME = aws_dynamodb_table.todo_list_table.name
+      TABLE_NAME             = aws_dynamodb_table.todo_list_table.name
+      SQS_QUEUE_URL          = aws_sqs_queue.csv_export_queue.id
+      PURGE_QUEUE_URL        = aws_sqs_queue.list_purge_queue.id
+      CACHE_TTL_SECONDS      = var.read_cache_ttl_seconds
+      # false até o example.OpenItemsBackfill gravar openList nos itens pendentes antigos
+      OPEN_ITEMS_INDEX_READY = var.open_items_index_ready
+      TIME_ORDERED_IDS_SINCE = coalesce(var.time_ordered_ids_since, time_static.time_ordered_ids_rollout.rfc3339)
     }
   }
 }
 
-# (CreateItemHandler)Cria item na lista
+# instante do primeiro apply com os IDs ordenados pelo tempo (UUID v7); fica fixo no state
+resource "time_static" "time_ordered_ids_rollout" {}
 
-resource "aws_lambda_function" "create_item_lambda" {
-  filename         = var.zip_path
-  function_name    = "${var.project_name}-CreateItem"
-  role             = aws_iam_role.lambda_exec_role.arn
-  handler          = "example.CreateItemHandler::handleRequest"
-  runtime          = var.lambda_runtime
-  source_code_hash = filebase64sha256(var.zip_path)
-  timeout          = 30
-
-  environment {
-    variables = {
-      TABLE_NAME = aws_dynamodb_table.todo_list_table.name
-    }
-  }
+resource "aws_lambda_alias" "api_router_live" {
+  name             = "live"
+  function_name    = aws_lambda_function.api_router_lambda.function_name
+  function_version = aws_lambda_function.api_router_lambda.version
 }
 
-# (ListItemsHandler)Lista itens da lista
-
-resource "aws_lambda_function" "list_items_lambda" {
-  filename         = var.zip_path
-  function_name    = "${var.project_name}-ListItems"
-  role             = aws_iam_role.lambda_exec_role.arn
-  handler          = "example.ListItemsHandler::handleRequest"
-  runtime          = var.lambda_runtime
-  source_code_hash = filebase64sha256(var.zip_path)
-  timeout          = 30
-
-  environment {
-    variables = {
-      TABLE_NAME = aws_dynamodb_table.todo_list_table.name
-    }
-  }
-}
-
-# (DeleteItemHandler)Exclui item da lista ---
-
-resource "aws_lambda_function" "delete_item_lambda" {
-  filename         = var.zip_path
-  function_name    = "${var.project_name}-DeleteItem"
-  role             = aws_iam_role.lambda_exec_role.arn
-  handler          = "example.DeleteItemHandler::handleRequest"
-  runtime          = var.lambda_runtime
-  source_code_hash = filebase64sha256(var.zip_path)
-  timeout          = 30
-
-  environment {
-    variables = {
-      TABLE_NAME = aws_dynamodb_table.todo_list_table.name
-    }
-  }
-}
-
-# (UpdateItemHandler)Atualiza item da lista
-
-resource "aws_lambda_function" "update_item_lambda" {
-  filename         = var.zip_path
-  function_name    = "${var.project_name}-UpdateItem"
-  role             = aws_iam_role.lambda_exec_role.arn
-  handler          = "example.UpdateItemHandler::handleRequest"
-  runtime          = var.lambda_runtime
-  source_code_hash = filebase64sha256(var.zip_path)
-  timeout          = 30
-
-  environment {
-    variables = {
-      TABLE_NAME = aws_dynamodb_table.todo_list_table.name
-    }
-  }
-}
-
-# (GetItemHandler)Obtem item específico da lista
+# (ProcessExportHandler)Processar Exportação CSV
 
-resource "aws_lambda_function" "get_item_lambda" {
+resource "aws_lambda_function" "process_export_lambda" {
   filename         = var.zip_path
-  function_name    = "${var.project_name}-GetItem"
+  function_name    = "${var.project_name}-ProcessExport"
   role             = aws_iam_role.lambda_exec_role.arn
-  handler          = "example.GetItemHandler::handleRequest"
+  handler          = "example.ProcessExportHandler::handleRequest"
   runtime          = var.lambda_runtime
   source_code_hash = filebase64sha256(var.zip_path)
-  timeout          = 30
+  timeout          = 300 # 5 minutos
+  memory_size      = 512 # até 4 exportações simultâneas, cada uma com um buffer de 8 MB para o S3
 
   environment {
     variables = {
-      TABLE_NAME = aws_dynamodb_table.todo_list_table.name
+      TABLE_NAME   = aws_dynamodb_table.todo_list_table.name
+      BUCKET_NAME  = aws_s3_bucket.csv_export_bucket.id
+      USER_POOL_ID = aws_cognito_user_pool.user_pool.id
+      SENDER_EMAIL = aws_ses_email_identity.email_sender.email
     }
   }
 }
 
-# (RequestExportHandler)Solicitar Exportação CSV
-
-resource "aws_lambda_function" "request_export_lambda" {
-  filename         = var.zip_path
-  function_name    = "${var.project_name}-RequestExport"
-  role             = aws_iam_role.lambda_exec_role.arn
-  handler          = "example.RequestExportHandler::handleRequest"
-  runtime          = var.lambda_runtime
-  source_code_hash = filebase64sha256(var.zip_path)
-  timeout          = 30
-
-  environment {
-    variables = {
-      # Passa a URL da fila SQS para a Lambda
-      SQS_QUEUE_URL = aws_sqs_queue.csv_export_queue.id
-    }
-  }
-}
 
-# (ProcessExportHandler)Processar Exportação CSV
+# (PurgeListItemsHandler) apaga em segundo plano os itens de listas grandes que foram removidas
 
-resource "aws_lambda_function" "process_export_lambda" {
+resource "aws_lambda_function" "purge_list_items_lambda" {
   filename         = var.zip_path
-  function_name    = "${var.project_name}-ProcessExport"
+  function_name    = "${var.project_name}-PurgeListItems"
   role             = aws_iam_role.lambda_exec_role.arn
-  handler          = "example.ProcessExportHandler::handleRequest"
+  handler          = "example.PurgeListItemsHandler::handleRequest"
   runtime          = var.lambda_runtime
   source_code_hash = filebase64sha256(var.zip_path)
   timeout          = 300 # 5 minutos
 
   environment {
     variables = {
-      TABLE_NAME   = aws_dynamodb_table.todo_list_table.name
-      BUCKET_NAME  = aws_s3_bucket.csv_export_bucket.id
-      USER_POOL_ID = aws_cognito_user_pool.user_pool.id
-      SENDER_EMAIL = aws_ses_email_identity.email_sender.email
+      TABLE_NAME = aws_dynamodb_table.todo_list_table.name
     }
   }
 }
@@ -306,9 +229,10 @@ resource "aws_apigatewayv2_api" "http_api" {
   name          = "${var.project_name}-api-rest"
   protocol_type = "HTTP"
   cors_configuration {
-    allow_origins = ["*"]
-    allow_methods = ["GET", "POST", "PUT", "DELETE", "OPTIONS"]
-    allow_headers = ["Content-Type", "Authorization"]
+    allow_origins  = ["*"]
+    allow_methods  = ["GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"]
+    allow_headers  = ["Content-Type", "Authorization", "If-None-Match"]
+    expose_headers = ["ETag", "Retry-After"]
   }
 
   tags = {
@@ -372,247 +296,157 @@ resource "aws_apigatewayv2_authorizer" "cognito_authorizer" {
   }
 }
 
-
 # rotas
 
-# POST /users/{userId}/lists
-resource "aws_apigatewayv2_integration" "create_list_integration" {
-  api_id           = aws_apigatewayv2_api.http_api.id
-  integration_type = "AWS_PROXY"
-  integration_uri  = aws_lambda_function.create_list_lambda.invoke_arn
+# todas as rotas apontam para a mesma integração com o RouterHandler
+resource "aws_apigatewayv2_integration" "api_router_integration" {
+  api_id                 = aws_apigatewayv2_api.http_api.id
+  integration_type       = "AWS_PROXY"
+  integration_uri        = aws_lambda_alias.api_router_live.invoke_arn
+  payload_format_version = "1.0"
 }
+
+# POST /users/{userId}/lists
 resource "aws_apigatewayv2_route" "create_list_route" {
   api_id    = aws_apigatewayv2_api.http_api.id
   route_key = "POST /users/{userId}/lists"
-  target    = "integrations/${aws_apigatewayv2_integration.create_list_integration.id}"
+  target    = "integrations/${aws_apigatewayv2_integration.api_router_integration.id}"
 
   authorization_type = "JWT"
   authorizer_id      = aws_apigatewayv2_authorizer.cognito_authorizer.id
 }
 
-# GET /users/{userId}/lists/{listId}
-resource "aws_apigatewayv2_integration" "get_list_integration" {
-  api_id           = aws_apigatewayv2_api.http_api.id
-  integration_type = "AWS_PROXY"
-  integration_uri  = aws_lambda_function.get_list_lambda.invoke_arn
+# GET /users/{userId}/lists
+resource "aws_apigatewayv2_route" "list_lists_route" {
+  api_id    = aws_apigatewayv2_api.http_api.id
+  route_key = "GET /users/{userId}/lists"
+  target    = "integrations/${aws_apigatewayv2_integration.api_router_integration.id}"
+
+  authorization_type = "JWT"
+  authorizer_id      = aws_apigatewayv2_authorizer.cognito_authorizer.id
 }
+
+# GET /users/{userId}/lists/{listId}
 resource "aws_apigatewayv2_route" "get_list_route" {
   api_id    = aws_apigatewayv2_api.http_api.id
   route_key = "GET /users/{userId}/lists/{listId}"
-  target    = "integrations/${aws_apigatewayv2_integration.get_list_integration.id}"
+  target    = "integrations/${aws_apigatewayv2_integration.api_router_integration.id}"
 
   authorization_type = "JWT"
   authorizer_id      = aws_apigatewayv2_authorizer.cognito_authorizer.id
 }
 
 # PUT /users/{userId}/lists/{listId}
-resource "aws_apigatewayv2_integration" "update_list_integration" {
-  api_id           = aws_apigatewayv2_api.http_api.id
-  integration_type = "AWS_PROXY"
-  integration_uri  = aws_lambda_function.update_delete_list_lambda.invoke_arn
-}
 resource "aws_apigatewayv2_route" "update_list_route" {
   api_id    = aws_apigatewayv2_api.http_api.id
   route_key = "PUT /users/{userId}/lists/{listId}"
-  target    = "integrations/${aws_apigatewayv2_integration.update_list_integration.id}"
+  target    = "integrations/${aws_apigatewayv2_integration.api_router_integration.id}"
 
   authorization_type = "JWT"
   authorizer_id      = aws_apigatewayv2_authorizer.cognito_authorizer.id
 }
 
 # DELETE /users/{userId}/lists/{listId}
-resource "aws_apigatewayv2_integration" "delete_list_integration" {
-  api_id           = aws_apigatewayv2_api.http_api.id
-  integration_type = "AWS_PROXY"
-  integration_uri  = aws_lambda_function.update_delete_list_lambda.invoke_arn
-}
 resource "aws_apigatewayv2_route" "delete_list_route" {
   api_id    = aws_apigatewayv2_api.http_api.id
   route_key = "DELETE /users/{userId}/lists/{listId}"
-  target    = "integrations/${aws_apigatewayv2_integration.delete_list_integration.id}"
+  target    = "integrations/${aws_apigatewayv2_integration.api_router_integration.id}"
 
   authorization_type = "JWT"
   authorizer_id      = aws_apigatewayv2_authorizer.cognito_authorizer.id
 }
 
 # POST /lists/{listId}/items
-resource "aws_apigatewayv2_integration" "create_item_integration" {
-  api_id           = aws_apigatewayv2_api.http_api.id
-  integration_type = "AWS_PROXY"
-  integration_uri  = aws_lambda_function.create_item_lambda.invoke_arn
-}
-
 resource "aws_apigatewayv2_route" "create_item_route" {
   api_id    = aws_apigatewayv2_api.http_api.id
   route_key = "POST /lists/{listId}/items"
-  target    = "integrations/${aws_apigatewayv2_integration.create_item_integration.id}"
+  target    = "integrations/${aws_apigatewayv2_integration.api_router_integration.id}"
 
   authorization_type = "JWT"
   authorizer_id      = aws_apigatewayv2_authorizer.cognito_authorizer.id
 }
 
-# GET /lists/{listId}/items
-resource "aws_apigatewayv2_integration" "list_items_integration" {
-  api_id           = aws_apigatewayv2_api.http_api.id
-  integration_type = "AWS_PROXY"
-  integration_uri  = aws_lambda_function.list_items_lambda.invoke_arn
+# POST /lists/{listId}/items/batch
+resource "aws_apigatewayv2_route" "batch_create_items_route" {
+  api_id    = aws_apigatewayv2_api.http_api.id
+  route_key = "POST /lists/{listId}/items/batch"
+  target    = "integrations/${aws_apigatewayv2_integration.api_router_integration.id}"
+
+  authorization_type = "JWT"
+  authorizer_id      = aws_apigatewayv2_authorizer.cognito_authorizer.id
 }
 
+# GET /lists/{listId}/items
 resource "aws_apigatewayv2_route" "list_items_route" {
   api_id    = aws_apigatewayv2_api.http_api.id
   route_key = "GET /lists/{listId}/items"
-  target    = "integrations/${aws_apigatewayv2_integration.list_items_integration.id}"
+  target    = "integrations/${aws_apigatewayv2_integration.api_router_integration.id}"
 
   authorization_type = "JWT"
   authorizer_id      = aws_apigatewayv2_authorizer.cognito_authorizer.id
 }
 
-# atualizar item
+# PATCH /lists/{listId}/items
+resource "aws_apigatewayv2_route" "bulk_update_items_route" {
+  api_id    = aws_apigatewayv2_api.http_api.id
+  route_key = "PATCH /lists/{listId}/items"
+  target    = "integrations/${aws_apigatewayv2_integration.api_router_integration.id}"
 
-# PUT /lists/{listId}/items/{itemId}
-resource "aws_apigatewayv2_integration" "update_item_integration" {
-  api_id           = aws_apigatewayv2_api.http_api.id
-  integration_type = "AWS_PROXY"
-  integration_uri  = aws_lambda_function.update_item_lambda.invoke_arn
+  authorization_type = "JWT"
+  authorizer_id      = aws_apigatewayv2_authorizer.cognito_authorizer.id
 }
 
+# PUT /lists/{listId}/items/{itemId}
 resource "aws_apigatewayv2_route" "update_item_route" {
   api_id    = aws_apigatewayv2_api.http_api.id
   route_key = "PUT /lists/{listId}/items/{itemId}"
-  target    = "integrations/${aws_apigatewayv2_integration.update_item_integration.id}"
+  target    = "integrations/${aws_apigatewayv2_integration.api_router_integration.id}"
 
   authorization_type = "JWT"
   authorizer_id      = aws_apigatewayv2_authorizer.cognito_authorizer.id
 }
 
-# excluir Item
-
 # DELETE /lists/{listId}/items/{itemId}
-resource "aws_apigatewayv2_integration" "delete_item_integration" {
-  api_id           = aws_apigatewayv2_api.http_api.id
-  integration_type = "AWS_PROXY"
-  integration_uri  = aws_lambda_function.delete_item_lambda.invoke_arn
-}
-
 resource "aws_apigatewayv2_route" "delete_item_route" {
   api_id    = aws_apigatewayv2_api.http_api.id
   route_key = "DELETE /lists/{listId}/items/{itemId}"
-  target    = "integrations/${aws_apigatewayv2_integration.delete_item_integration.id}"
+  target    = "integrations/${aws_apigatewayv2_integration.api_router_integration.id}"
 
   authorization_type = "JWT"
   authorizer_id      = aws_apigatewayv2_authorizer.cognito_authorizer.id
 }
 
-# obter item específico
-
 # GET /lists/{listId}/items/{itemId}
-resource "aws_apigatewayv2_integration" "get_item_integration" {
-  api_id           = aws_apigatewayv2_api.http_api.id
-  integration_type = "AWS_PROXY"
-  integration_uri  = aws_lambda_function.get_item_lambda.invoke_arn
-}
-
 resource "aws_apigatewayv2_route" "get_item_route" {
   api_id    = aws_apigatewayv2_api.http_api.id
   route_key = "GET /lists/{listId}/items/{itemId}"
-  target    = "integrations/${aws_apigatewayv2_integration.get_item_integration.id}"
+  target    = "integrations/${aws_apigatewayv2_integration.api_router_integration.id}"
 
   authorization_type = "JWT"
   authorizer_id      = aws_apigatewayv2_authorizer.cognito_authorizer.id
 }
 
-
-# Rota da API para solicitar exportação
-
 # POST /lists/{listId}/export
-resource "aws_apigatewayv2_integration" "request_export_integration" {
-  api_id           = aws_apigatewayv2_api.http_api.id
-  integration_type = "AWS_PROXY"
-  integration_uri  = aws_lambda_function.request_export_lambda.invoke_arn
-}
-
 resource "aws_apigatewayv2_route" "request_export_route" {
   api_id    = aws_apigatewayv2_api.http_api.id
   route_key = "POST /lists/{listId}/export"
-  target    = "integrations/${aws_apigatewayv2_integration.request_export_integration.id}"
+  target    = "integrations/${aws_apigatewayv2_integration.api_router_integration.id}"
 
   authorization_type = "JWT"
   authorizer_id      = aws_apigatewayv2_authorizer.cognito_authorizer.id
 }
 
 
-# permissões para invocar as Lambdas
-resource "aws_lambda_permission" "api_gtw_permission_create" {
-  statement_id  = "AllowAPIGatewayToInvokeCreate"
+# permissão para o API Gateway invocar o alias da Lambda
+resource "aws_lambda_permission" "api_gtw_permission_router" {
+  statement_id  = "AllowAPIGatewayToInvokeRouter"
   action        = "lambda:InvokeFunction"
-  function_name = aws_lambda_function.create_list_lambda.function_name
-  principal     = "apigateway.amazonaws.com"
-  source_arn    = "${aws_apigatewayv2_api.http_api.execution_arn}/*/*"
-}
-resource "aws_lambda_permission" "api_gtw_permission_get" {
-  statement_id  = "AllowAPIGatewayToInvokeGet"
-  action        = "lambda:InvokeFunction"
-  function_name = aws_lambda_function.get_list_lambda.function_name
-  principal     = "apigateway.amazonaws.com"
-  source_arn    = "${aws_apigatewayv2_api.http_api.execution_arn}/*/*"
-}
-resource "aws_lambda_permission" "api_gtw_permission_update_delete" {
-  statement_id  = "AllowAPIGatewayToInvokeUpdateDelete"
-  action        = "lambda:InvokeFunction"
-  function_name = aws_lambda_function.update_delete_list_lambda.function_name
-  principal     = "apigateway.amazonaws.com"
-  source_arn    = "${aws_apigatewayv2_api.http_api.execution_arn}/*/*"
-}
-
-resource "aws_lambda_permission" "api_gtw_permission_create_item" {
-  statement_id  = "AllowAPIGatewayToInvokeCreateItem"
-  action        = "lambda:InvokeFunction"
-  function_name = aws_lambda_function.create_item_lambda.function_name
-  principal     = "apigateway.amazonaws.com"
-  source_arn    = "${aws_apigatewayv2_api.http_api.execution_arn}/*/*"
-}
-
-resource "aws_lambda_permission" "api_gtw_permission_list_items" {
-  statement_id  = "AllowAPIGatewayToInvokeListItems"
-  action        = "lambda:InvokeFunction"
-  function_name = aws_lambda_function.list_items_lambda.function_name
-  principal     = "apigateway.amazonaws.com"
-  source_arn    = "${aws_apigatewayv2_api.http_api.execution_arn}/*/*"
-}
-
-resource "aws_lambda_permission" "api_gtw_permission_delete_item" {
-  statement_id  = "AllowAPIGatewayToInvokeDeleteItem"
-  action        = "lambda:InvokeFunction"
-  function_name = aws_lambda_function.delete_item_lambda.function_name
+  function_name = aws_lambda_function.api_router_lambda.function_name
+  qualifier     = aws_lambda_alias.api_router_live.name
   principal     = "apigateway.amazonaws.com"
   source_arn    = "${aws_apigatewayv2_api.http_api.execution_arn}/*/*"
 }
 
-resource "aws_lambda_permission" "api_gtw_permission_update_item" {
-  statement_id  = "AllowAPIGatewayToInvokeUpdateItem"
-  action        = "lambda:InvokeFunction"
-  function_name = aws_lambda_function.update_item_lambda.function_name
-  principal     = "apigateway.amazonaws.com"
-  source_arn    = "${aws_apigatewayv2_api.http_api.execution_arn}/*/*"
-}
-
-resource "aws_lambda_permission" "api_gtw_permission_get_item" {
-  statement_id  = "AllowAPIGatewayToInvokeGetItem"
-  action        = "lambda:InvokeFunction"
-  function_name = aws_lambda_function.get_item_lambda.function_name
-  principal     = "apigateway.amazonaws.com"
-  source_arn    = "${aws_apigatewayv2_api.http_api.execution_arn}/*/*"
-}
-
-resource "aws_lambda_permission" "api_gtw_permission_request_export" {
-  statement_id  = "AllowAPIGatewayToInvokeRequestExport"
-  action        = "lambda:InvokeFunction"
-  function_name = aws_lambda_function.request_export_lambda.function_name
-  principal     = "apigateway.amazonaws.com"
-  source_arn    = "${aws_apigatewayv2_api.http_api.execution_arn}/*/*"
-}
-
-
 
 # ffila SQS para receber os pedidos de exportação
 resource "aws_sqs_queue" "csv_export_queue" {
@@ -622,6 +456,20 @@ resource "aws_sqs_queue" "csv_export_queue" {
   visibility_timeout_seconds = 300 # 5 minutos
 }
 
+# fila com as listas apagadas cujos itens ainda precisam ser removidos
+resource "aws_sqs_queue" "list_purge_queue" {
+  name = "${var.project_name}-list-purge-queue"
+
+  # mesmo tempo do timeout da Lambda de limpeza
+  visibility_timeout_seconds = 300 # 5 minutos
+}
+
+resource "aws_lambda_event_source_mapping" "list_purge_mapping" {
+  event_source_arn = aws_sqs_queue.list_purge_queue.arn
+  function_name    = aws_lambda_function.purge_list_items_lambda.arn
+  batch_size       = 1
+}
+
 # 2. Bucket S3 para armazenar os relatórios CSV gerados
 resource "aws_s3_bucket" "csv_export_bucket" {
   bucket = "${lower(var.project_name)}-csv-exports-bucket-deyvidy"
@@ -631,6 +479,24 @@ resource "aws_s3_bucket" "csv_export_bucket" {
   }
 }
 
+# limpa uploads multipart de exportações que falharam no meio
+resource "aws_s3_bucket_lifecycle_configuration" "csv_export_bucket_lifecycle" {
+  bucket = aws_s3_bucket.csv_export_bucket.id
+
+  rule {
+    id     = "abort-incomplete-multipart-uploads"
+    status = "Enabled"
+
+    filter {
+      prefix = "reports/"
+    }
+
+    abort_incomplete_multipart_upload {
+      days_after_initiation = 1
+    }
+  }
+}
+
 # permissão de leitura para os objetos no bucket
 resource "aws_s3_bucket_public_access_block" "csv_export_bucket_public_access" {
   bucket = aws_s3_bucket.csv_export_bucket.id
@@ -657,6 +523,14 @@ resource "aws_s3_bucket_policy" "csv_export_bucket_policy" {
   })
 }
 
+# entrega os pedidos de exportação em lotes; a Lambda devolve só as mensagens que falharam
+resource "aws_lambda_event_source_mapping" "csv_export_mapping" {
+  event_source_arn        = aws_sqs_queue.csv_export_queue.arn
+  function_name           = aws_lambda_function.process_export_lambda.arn
+  batch_size              = 10
+  function_response_types = ["ReportBatchItemFailures"]
+}
+
 resource "aws_lambda_permission" "allow_sqs_invocation" {
   statement_id  = "AllowSQSToInvokeProcessExport"
   action        = "lambda:InvokeFunction"
@@ -26,4 +26,22 @@ variable "dynamodb_table_name" {
   description = "O nome da tabela DynamoDB."
   type        = string
   default     = "TodoList"
-}
\ No newline at end of file
+}
+
+variable "read_cache_ttl_seconds" {
+  description = "Validade do cache de leitura de listas e itens em cada container da API (0 desliga). Também é o atraso máximo para uma escrita feita em outro container aparecer."
+  type        = number
+  default     = 5
+}
+
+variable "open_items_index_ready" {
+  description = "true depois de rodar o example.OpenItemsBackfill na tabela. Até lá o filtro de itens pendentes lê a partição da lista com filtro em vez do índice OpenItemsIndex."
+  type        = bool
+  default     = false
+}
+
+variable "time_ordered_ids_since" {
+  description = "Instante ISO-8601 em que a API passou a gerar IDs ordenados pelo tempo (UUID v7). Vazio = o instante do primeiro apply que criou o time_static. Informe o valor real se os IDs novos foram ao ar antes desse apply."
+  type        = string
+  default     = null
+}
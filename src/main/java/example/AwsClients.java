@@ -0,0 +1,181 @@
+package example;
+
+import com.amazonaws.services.lambda.runtime.LambdaRuntime;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.ContainerCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.EnvironmentVariableCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.ses.SesClient;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.utils.SdkAutoCloseable;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+// fábrica única dos clientes da AWS: cada cliente é criado uma vez por JVM e reaproveitado
+// entre invocações (e entre handlers, quando mais de um roda no mesmo container).
+// região, credenciais e cliente HTTP são definidos explicitamente para evitar a descoberta
+// automática do SDK, que é a parte mais cara do cold start. todos usam a política de limites de
+// vazão de Throttling (retry adaptativo e disjuntor por serviço).
+final class AwsClients {
+
+    // o HttpURLConnection mantém no máximo 5 conexões ociosas por host se nada for configurado
+    private static final String MAX_KEEP_ALIVE_CONNECTIONS = "50";
+
+    static {
+        if (System.getProperty("http.maxConnections") == null) {
+            System.setProperty("http.maxConnections", MAX_KEEP_ALIVE_CONNECTIONS);
+        }
+    }
+
+    private static final Region REGION = resolveRegion();
+
+    private static final RefreshableCredentialsProvider CREDENTIALS = new RefreshableCredentialsProvider();
+
+    // um único cliente HTTP compartilhado por todos os clientes de serviço
+    private static final SdkHttpClient HTTP_CLIENT = UrlConnectionHttpClient.builder()
+            .connectionTimeout(Duration.ofSeconds(2))
+            .socketTimeout(Duration.ofSeconds(20))
+            .build();
+
+    private AwsClients() {
+    }
+
+    static Region region() {
+        return REGION;
+    }
+
+    // descarta as credenciais em cache (ex.: depois de restaurar um snapshot do SnapStart)
+    static void refreshCredentials() {
+        CREDENTIALS.refresh();
+    }
+
+    static DynamoDbClient dynamoDb() {
+        return DynamoDbHolder.CLIENT;
+    }
+
+    static SqsClient sqs() {
+        return SqsHolder.CLIENT;
+    }
+
+    static S3Client s3() {
+        return S3Holder.CLIENT;
+    }
+
+    static SesClient ses() {
+        return SesHolder.CLIENT;
+    }
+
+    static CognitoIdentityProviderClient cognito() {
+        return CognitoHolder.CLIENT;
+    }
+
+    // cliente para um DynamoDB local (DynamoDB Local, LocalStack): endpoint fixo e credenciais
+    // fictícias, que esses emuladores aceitam. criado a cada chamada, fora do cache da Lambda
+    static DynamoDbClient localDynamoDb(URI endpoint) {
+        return DynamoDbClient.builder()
+                .endpointOverride(endpoint)
+                .region(REGION)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("local", "local")))
+                .httpClient(HTTP_CLIENT)
+                .overrideConfiguration(Throttling.clientConfiguration("DynamoDB"))
+                .build();
+    }
+
+    // holders separados: cada handler só paga a criação dos clientes que realmente usa
+    private static final class DynamoDbHolder {
+        static final DynamoDbClient CLIENT = timed("DynamoDbClient", () -> DynamoDbClient.builder()
+                .region(REGION)
+                .credentialsProvider(CREDENTIALS)
+                .httpClient(HTTP_CLIENT)
+                .overrideConfiguration(Throttling.clientConfiguration("DynamoDB"))
+                .build());
+    }
+
+    private static final class SqsHolder {
+        static final SqsClient CLIENT = timed("SqsClient", () -> SqsClient.builder()
+                .region(REGION)
+                .credentialsProvider(CREDENTIALS)
+                .httpClient(HTTP_CLIENT)
+                .overrideConfiguration(Throttling.clientConfiguration("SQS"))
+                .build());
+    }
+
+    private static final class S3Holder {
+        static final S3Client CLIENT = timed("S3Client", () -> S3Client.builder()
+                .region(REGION)
+                .credentialsProvider(CREDENTIALS)
+                .httpClient(HTTP_CLIENT)
+                .overrideConfiguration(Throttling.clientConfiguration("S3"))
+                .build());
+    }
+
+    private static final class SesHolder {
+        static final SesClient CLIENT = timed("SesClient", () -> SesClient.builder()
+                .region(REGION)
+                .credentialsProvider(CREDENTIALS)
+                .httpClient(HTTP_CLIENT)
+                .overrideConfiguration(Throttling.clientConfiguration("SES"))
+                .build());
+    }
+
+    private static final class CognitoHolder {
+        static final CognitoIdentityProviderClient CLIENT = timed("CognitoIdentityProviderClient", () -> CognitoIdentityProviderClient.builder()
+                .region(REGION)
+                .credentialsProvider(CREDENTIALS)
+                .httpClient(HTTP_CLIENT)
+                .overrideConfiguration(Throttling.clientConfiguration("Cognito"))
+                .build());
+    }
+
+    // com SnapStart a Lambda entrega as credenciais pelo endpoint de container em vez das variáveis
+    // de ambiente; as credenciais guardadas no snapshot precisam ser trocadas depois do restore
+    private static final class RefreshableCredentialsProvider implements AwsCredentialsProvider {
+
+        private volatile AwsCredentialsProvider delegate = newDelegate();
+
+        @Override
+        public AwsCredentials resolveCredentials() {
+            return delegate.resolveCredentials();
+        }
+
+        void refresh() {
+            AwsCredentialsProvider previous = delegate;
+            delegate = newDelegate();
+            if (previous instanceof SdkAutoCloseable) {
+                ((SdkAutoCloseable) previous).close();
+            }
+        }
+
+        private static AwsCredentialsProvider newDelegate() {
+            if (System.getenv("AWS_CONTAINER_CREDENTIALS_FULL_URI") != null) {
+                return ContainerCredentialsProvider.builder().build();
+            }
+            return EnvironmentVariableCredentialsProvider.create();
+        }
+    }
+
+    private static Region resolveRegion() {
+        String region = System.getenv("AWS_REGION");
+        return region == null || region.isEmpty() ? Region.SA_EAST_1 : Region.of(region);
+    }
+
+    // registra no log (CloudWatch) quanto tempo cada cliente levou para ser criado no cold start.
+    // os holders são inicializados fora de um handleRequest, então o logger vem do LambdaRuntime
+    // e não do Context; fora da Lambda ele escreve no stdout
+    private static <T> T timed(String name, Supplier<T> factory) {
+        long start = System.nanoTime();
+        T client = factory.get();
+        LambdaRuntime.getLogger().log("INIT: " + name + " criado em " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return client;
+    }
+}
@@ -0,0 +1,133 @@
+package example;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.google.gson.Gson;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// cria vários itens de uma vez (importação/colar tarefas) numa única chamada HTTP
+public class BatchCreateItemsHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
+
+    static final int MAX_ITEMS = 1000;
+
+    private final TodoRepository repository;
+    private final Gson gson = new Gson();
+
+    public BatchCreateItemsHandler() {
+        this(CachingTodoRepository.shared());
+        Priming.register(this::prime);
+    }
+
+    // construtor para os testes
+    public BatchCreateItemsHandler(DynamoDbClient dynamoDbClient, String tableName) {
+        this(new DynamoTodoRepository(dynamoDbClient, tableName));
+    }
+
+    BatchCreateItemsHandler(TodoRepository repository) {
+        this.repository = repository;
+    }
+
+    private static class InputData {
+        private List<InputItem> items;
+        public List<InputItem> getItems() { return items; }
+    }
+
+    private static class InputItem {
+        private String text;
+        public String getText() { return text; }
+    }
+
+    private static class BatchResponse {
+        private String message;
+        private List<String> itemIds;
+
+        public BatchResponse(String message, List<String> itemIds) {
+            this.message = message;
+            this.itemIds = itemIds;
+        }
+    }
+
+    private static class PartialFailureResponse {
+        private String error;
+        private List<String> itemIds;
+
+        public PartialFailureResponse(String error, List<String> itemIds) {
+            this.error = error;
+            this.itemIds = itemIds;
+        }
+    }
+
+    void prime() {
+        gson.fromJson("{\"items\": [{\"text\": \"priming\"}]}", InputData.class);
+        gson.toJson(new BatchResponse("priming", List.of("priming")));
+        repository.prime();
+    }
+
+    @Override
+    public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent event, Context context) {
+        try {
+            String listId = event.getPathParameters().get("listId");
+
+            InputData inputData = gson.fromJson(event.getBody(), InputData.class);
+            List<InputItem> inputItems = inputData == null ? null : inputData.getItems();
+
+            if (inputItems == null || inputItems.isEmpty()) {
+                return new APIGatewayProxyResponseEvent()
+                        .withStatusCode(400)
+                        .withBody("{\"error\": \"Informe ao menos um item.\"}");
+            }
+            if (inputItems.size() > MAX_ITEMS) {
+                return new APIGatewayProxyResponseEvent()
+                        .withStatusCode(400)
+                        .withBody("{\"error\": \"No máximo " + MAX_ITEMS + " itens por requisição.\"}");
+            }
+            for (int i = 0; i < inputItems.size(); i++) {
+                InputItem inputItem = inputItems.get(i);
+                if (inputItem == null || inputItem.getText() == null || inputItem.getText().trim().isEmpty()) {
+                    return new APIGatewayProxyResponseEvent()
+                            .withStatusCode(400)
+                            .withBody("{\"error\": \"O texto do item na posição " + i + " não pode ser vazio.\"}");
+                }
+            }
+
+            Map<String, String> textsById = new LinkedHashMap<>();
+            for (InputItem inputItem : inputItems) {
+                textsById.put(IdGenerator.newId(), inputItem.getText());
+            }
+            List<String> itemIds = new ArrayList<>(textsById.keySet());
+            try {
+                repository.putItems(listId, textsById, Instant.now().toString());
+            } catch (TodoRepository.PartialWriteException e) {
+                context.getLogger().log("ERRO AO CRIAR ITENS EM LOTE: " + e.getMessage());
+                return partialFailure(itemIds, e);
+            }
+
+            // os IDs voltam na mesma ordem em que os itens foram enviados
+            BatchResponse batchResponse = new BatchResponse("Itens adicionados com sucesso!", itemIds);
+            return new APIGatewayProxyResponseEvent().withStatusCode(201).withBody(gson.toJson(batchResponse));
+
+        } catch (Exception e) {
+            context.getLogger().log("ERRO AO CRIAR ITENS EM LOTE: " + e.getMessage());
+            return Throttling.errorResponse(e);
+        }
+    }
+
+    // parte dos itens já está gravada: o ID de cada item fica na posição em que foi enviado e os
+    // que faltaram ficam null, para o cliente reenviar só esses em vez de duplicar o lote inteiro
+    private APIGatewayProxyResponseEvent partialFailure(List<String> itemIds, TodoRepository.PartialWriteException e) {
+        List<String> writtenIds = new ArrayList<>(itemIds.size());
+        for (String itemId : itemIds) {
+            writtenIds.add(e.writtenItemIds.contains(itemId) ? itemId : null);
+        }
+        return Throttling.errorResponse(e).withBody(gson.toJson(new PartialFailureResponse(
+                "Nem todos os itens foram gravados. Reenvie apenas os que estão sem ID em itemIds.", writtenIds)));
+    }
+}
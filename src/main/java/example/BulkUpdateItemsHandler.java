@@ -0,0 +1,224 @@
+package example;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.google.gson.Gson;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// atualiza vários itens da lista de uma vez ("marcar todos como feitos"), por IDs ou por filtro,
+// com UpdateItem em paralelo (limitado pelo Parallel) e resultado individual por item.
+// o filtro lê uma página de até MAX_ITEM_IDS linhas por requisição e devolve nextToken enquanto
+// houver mais, para a chamada caber no timeout do API Gateway mesmo em listas grandes
+public class BulkUpdateItemsHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
+
+    static final int MAX_ITEM_IDS = 1000;
+
+    private final TodoRepository repository;
+    private final Gson gson = new Gson();
+
+    public BulkUpdateItemsHandler() {
+        this(CachingTodoRepository.shared());
+        Priming.register(this::prime);
+    }
+
+    // construtor para os testes
+    public BulkUpdateItemsHandler(DynamoDbClient dynamoDbClient, String tableName) {
+        this(new DynamoTodoRepository(dynamoDbClient, tableName));
+    }
+
+    BulkUpdateItemsHandler(TodoRepository repository) {
+        this.repository = repository;
+    }
+
+    // "itemIds" ou "filter" ("incomplete" / "completed") escolhem os itens; "text" e "completed" são as mudanças.
+    // nextToken continua um filtro de onde a resposta anterior parou
+    private static class InputData {
+        private List<String> itemIds;
+        private String filter;
+        private String nextToken;
+        private String text;
+        private Boolean completed;
+    }
+
+    private static class ItemResult {
+        private String itemId;
+        private String status;
+
+        public ItemResult(String itemId, String status) {
+            this.itemId = itemId;
+            this.status = status;
+        }
+    }
+
+    // itens alterados e soma das mudanças no completedCount, aplicadas na linha META uma vez no fim
+    private static class StatsDelta {
+        private final AtomicLong updated = new AtomicLong();
+        private final AtomicLong completed = new AtomicLong();
+    }
+
+    private static class BulkResponse {
+        private int updated;
+        private int notFound;
+        private int failed;
+        private List<ItemResult> results;
+        private String nextToken;
+
+        public BulkResponse(List<ItemResult> results, String nextToken) {
+            this.results = results;
+            this.nextToken = nextToken;
+            for (ItemResult result : results) {
+                switch (result.status) {
+                    case "updated": updated++; break;
+                    case "not_found": notFound++; break;
+                    default: failed++;
+                }
+            }
+        }
+    }
+
+    void prime() {
+        gson.fromJson("{\"itemIds\": [\"priming\"], \"completed\": true}", InputData.class);
+        gson.toJson(new BulkResponse(List.of(new ItemResult("priming", "updated")), null));
+        repository.prime();
+    }
+
+    @Override
+    public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent event, Context context) {
+        try {
+            String listId = event.getPathParameters().get("listId");
+            InputData input = gson.fromJson(event.getBody(), InputData.class);
+
+            String validationError = validate(input);
+            if (validationError != null) {
+                return new APIGatewayProxyResponseEvent().withStatusCode(400).withBody(ResponseJson.error(validationError));
+            }
+
+            Map<String, AttributeValue> exclusiveStartKey;
+            try {
+                exclusiveStartKey = PaginationToken.decode(input.nextToken);
+            } catch (IllegalArgumentException e) {
+                return new APIGatewayProxyResponseEvent().withStatusCode(400).withBody(ResponseJson.error(e.getMessage()));
+            }
+            boolean openOnly = "incomplete".equals(input.filter);
+            boolean validCursor = openOnly ? repository.isOpenItemCursorOf(listId, exclusiveStartKey)
+                    : repository.isItemCursorOf(listId, exclusiveStartKey);
+            if (!validCursor) {
+                return new APIGatewayProxyResponseEvent().withStatusCode(400).withBody("{\"error\": \"Token de paginação inválido.\"}");
+            }
+
+            String text = input.text != null && !input.text.trim().isEmpty() ? input.text : null;
+            List<ItemResult> results = new ArrayList<>();
+            StatsDelta stats = new StatsDelta();
+            Map<String, AttributeValue> lastEvaluatedKey;
+
+            try {
+                lastEvaluatedKey = updateItems(listId, input, exclusiveStartKey, text, results, stats, context);
+            } catch (RuntimeException e) {
+                applyStats(listId, stats, e);
+                throw e;
+            }
+            applyStats(listId, stats, null);
+
+            return new APIGatewayProxyResponseEvent().withStatusCode(200).withBody(gson.toJson(new BulkResponse(results, PaginationToken.encode(lastEvaluatedKey))));
+
+        } catch (Exception e) {
+            context.getLogger().log("ERRO AO ATUALIZAR ITENS EM LOTE: " + e.getMessage());
+            return Throttling.errorResponse(e);
+        }
+    }
+
+    // também quando a requisição falha no meio: os itens já alterados precisam contar. uma falha
+    // do contador não esconde a da requisição, que continua sendo a lançada (com esta em suppressed).
+    // a versão já subiu antes das alterações, então mesmo sem este ADD a exportação não reaproveita
+    // o relatório anterior
+    private void applyStats(String listId, StatsDelta stats, RuntimeException failure) {
+        if (stats.updated.get() == 0) {
+            return;
+        }
+        try {
+            repository.addListStats(listId, 0, stats.completed.get());
+        } catch (RuntimeException e) {
+            if (failure == null) {
+                throw e;
+            }
+            failure.addSuppressed(e);
+        }
+    }
+
+    // devolve a chave para continuar o filtro (null quando acabou ou a seleção foi por itemIds)
+    private Map<String, AttributeValue> updateItems(String listId, InputData input, Map<String, AttributeValue> exclusiveStartKey,
+                                                    String text, List<ItemResult> results, StatsDelta stats, Context context) {
+        if (input.itemIds != null) {
+            // remove repetidos mantendo a ordem enviada
+            List<String> itemIds = new ArrayList<>(new LinkedHashSet<>(input.itemIds));
+            repository.addListStats(listId, 0, 0);
+            results.addAll(Parallel.map(itemIds, itemId -> updateItem(listId, itemId, text, input.completed, stats, context)));
+            return null;
+        }
+        // uma página só por requisição. os pendentes vêm do índice esparso (só as linhas em aberto);
+        // os concluídos, da partição com filtro, e o limite conta as linhas lidas, não as que passam
+        TodoRepository.Page page = "incomplete".equals(input.filter)
+                ? repository.queryOpenItems(listId, MAX_ITEM_IDS, exclusiveStartKey, List.of("itemId"))
+                : repository.queryItemIds(listId, true, MAX_ITEM_IDS, exclusiveStartKey);
+        List<String> itemIds = page.items.stream()
+                .map(item -> item.get("itemId").s())
+                .collect(Collectors.toList());
+        if (!itemIds.isEmpty()) {
+            repository.addListStats(listId, 0, 0);
+            results.addAll(Parallel.map(itemIds, itemId -> updateItem(listId, itemId, text, input.completed, stats, context)));
+        }
+        return page.lastEvaluatedKey;
+    }
+
+    private static String validate(InputData input) {
+        if (input == null) {
+            return "Corpo da requisição inválido.";
+        }
+        if ((input.itemIds == null) == (input.filter == null)) {
+            return "Informe itemIds ou filter (apenas um deles).";
+        }
+        if (input.itemIds != null && (input.itemIds.isEmpty() || input.itemIds.size() > MAX_ITEM_IDS)) {
+            return "Informe entre 1 e " + MAX_ITEM_IDS + " itemIds.";
+        }
+        if (input.itemIds != null && input.itemIds.stream().anyMatch(id -> id == null || id.isEmpty())) {
+            return "Os itemIds não podem ser vazios.";
+        }
+        if (input.filter != null && !input.filter.equals("incomplete") && !input.filter.equals("completed")) {
+            return "Filtro inválido. Use incomplete ou completed.";
+        }
+        if (input.nextToken != null && input.filter == null) {
+            return "nextToken só vale com filter.";
+        }
+        boolean hasText = input.text != null && !input.text.trim().isEmpty();
+        if (!hasText && input.completed == null) {
+            return "Informe text e/ou completed para atualizar.";
+        }
+        return null;
+    }
+
+    // sem transação por item: todas mexeriam na mesma linha META e conflitariam entre si
+    private ItemResult updateItem(String listId, String itemId, String text, Boolean completed, StatsDelta stats, Context context) {
+        try {
+            Integer delta = repository.updateItemWithoutStats(listId, itemId, text, completed);
+            if (delta == null) {
+                return new ItemResult(itemId, "not_found");
+            }
+            stats.updated.incrementAndGet();
+            stats.completed.addAndGet(delta);
+            return new ItemResult(itemId, "updated");
+        } catch (RuntimeException e) {
+            context.getLogger().log("ERRO AO ATUALIZAR ITEM " + itemId + ": " + e.getMessage());
+            return new ItemResult(itemId, "error");
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package example;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// cache de leitura na frente do repositório para getList e getItem, por chave pk/sk.
+// escritas feitas por este container tiram as chaves afetadas do cache na hora; escritas de
+// outros containers (ou da Lambda de limpeza) só aparecem quando a entrada vence, então o TTL
+// é o limite de desatualização entre containers. linhas inexistentes também ficam no cache
+// (404 repetido não volta ao DynamoDB) e são invalidadas pelo put correspondente.
+final class CachingTodoRepository implements TodoRepository {
+
+    static final int DEFAULT_MAX_ENTRIES = 10_000;
+    static final Duration DEFAULT_TTL = Duration.ofSeconds(5);
+
+    // no máximo uma linha de métricas por minuto no log
+    private static final long METRICS_INTERVAL_MILLIS = 60_000;
+
+    private final TodoRepository delegate;
+    private final TtlCache<String, Map<String, AttributeValue>> rows;
+    private final LongSupplier clock;
+    private final AtomicLong lastMetricsAt;
+    private long reportedHits;
+    private long reportedMisses;
+
+    CachingTodoRepository(TodoRepository delegate, int maxEntries, Duration ttl) {
+        this(delegate, maxEntries, ttl, System::currentTimeMillis);
+    }
+
+    // construtor para os testes (relógio controlado)
+    CachingTodoRepository(TodoRepository delegate, int maxEntries, Duration ttl, LongSupplier clock) {
+        this.delegate = delegate;
+        this.rows = new TtlCache<>(maxEntries, ttl, clock);
+        this.clock = clock;
+        this.lastMetricsAt = new AtomicLong(clock.getAsLong());
+    }
+
+    // repositório das rotas da API: um só por container, para que a escrita feita por um handler
+    // invalide o que os outros leem. CACHE_TTL_SECONDS=0 desliga o cache
+    static TodoRepository shared() {
+        return SharedHolder.REPOSITORY;
+    }
+
+    private static final class SharedHolder {
+        static final TodoRepository REPOSITORY = fromEnv(new DynamoTodoRepository(AwsClients.dynamoDb(), System.getenv("TABLE_NAME"),
+                DynamoTodoRepository.openItemsIndexReadyFromEnv()));
+    }
+
+    static TodoRepository fromEnv(TodoRepository delegate) {
+        Duration ttl = DEFAULT_TTL;
+        String ttlSeconds = System.getenv("CACHE_TTL_SECONDS");
+        if (ttlSeconds != null && !ttlSeconds.isEmpty()) {
+            ttl = Duration.ofSeconds(Long.parseLong(ttlSeconds));
+        }
+        if (ttl.isZero()) {
+            return delegate;
+        }
+        String maxEntries = System.getenv("CACHE_MAX_ENTRIES");
+        return new CachingTodoRepository(delegate,
+                maxEntries == null || maxEntries.isEmpty() ? DEFAULT_MAX_ENTRIES : Integer.parseInt(maxEntries), ttl);
+    }
+
+    private static String listKey(String userId, String listId) {
+        return "USER#" + userId + "\n" + "LIST#" + listId;
+    }
+
+    private static String itemKey(String listId, String itemId) {
+        return "LIST#" + listId + "\n" + "ITEM#" + itemId;
+    }
+
+    private static String statsKey(String listId) {
+        return "LIST#" + listId + "\n" + DynamoTodoRepository.META_SK;
+    }
+
+    long hits() {
+        return rows.hits();
+    }
+
+    long misses() {
+        return rows.misses();
+    }
+
+    int size() {
+        return rows.size();
+    }
+
+    // listas
+
+    @Override
+    public void putList(String userId, String listId, String name, String createdAt) {
+        delegate.putList(userId, listId, name, createdAt);
+        rows.invalidate(listKey(userId, listId));
+    }
+
+    @Override
+    public Map<String, AttributeValue> getList(String userId, String listId) {
+        Map<String, AttributeValue> list = rows.get(listKey(userId, listId), key -> delegate.getList(userId, listId));
+        reportMetrics();
+        return list;
+    }
+
+    // a linha inteira do cache custa menos que qualquer leitura projetada
+    @Override
+    public Map<String, AttributeValue> getList(String userId, String listId, List<String> attributes) {
+        return getList(userId, listId);
+    }
+
+    @Override
+    public void renameList(String userId, String listId, String name) {
+        delegate.renameList(userId, listId, name);
+        rows.invalidate(listKey(userId, listId));
+    }
+
+    @Override
+    public boolean markListDeleting(String userId, String listId) {
+        try {
+            return delegate.markListDeleting(userId, listId);
+        } finally {
+            rows.invalidate(listKey(userId, listId));
+        }
+    }
+
+    // os itens de uma lista apagada somem junto, mesmo que a limpeza deles ainda esteja na fila
+    @Override
+    public boolean deleteList(String userId, String listId) {
+        boolean deleted = delegate.deleteList(userId, listId);
+        rows.invalidate(listKey(userId, listId));
+        invalidateItems(listId);
+        return deleted;
+    }
+
+    // os contadores mudam com qualquer escrita de item da lista, que invalida esta chave
+    @Override
+    public Map<String, AttributeValue> getListStats(String listId) {
+        Map<String, AttributeValue> stats = rows.get(statsKey(listId), key -> delegate.getListStats(listId));
+        reportMetrics();
+        return stats;
+    }
+
+    // sem cache: a página depende de listas criadas e apagadas em qualquer container
+    @Override
+    public Page queryLists(String userId, Integer limit, Map<String, AttributeValue> exclusiveStartKey) {
+        return delegate.queryLists(userId, limit, exclusiveStartKey);
+    }
+
+    @Override
+    public boolean isListCursorOf(String userId, Map<String, AttributeValue> exclusiveStartKey) {
+        return delegate.isListCursorOf(userId, exclusiveStartKey);
+    }
+
+    // uma página inteira de contadores já sai num BatchGetItem só; não passa pelo cache por chave
+    @Override
+    public Map<String, Map<String, AttributeValue>> batchGetListStats(List<String> listIds) {
+        return delegate.batchGetListStats(listIds);
+    }
+
+    // itens
+
+    @Override
+    public void putItem(String listId, String itemId, String text, String createdAt) {
+        try {
+            delegate.putItem(listId, itemId, text, createdAt);
+        } finally {
+            invalidateItem(listId, itemId);
+        }
+    }
+
+    @Override
+    public void putItems(String listId, Map<String, String> textsById, String createdAt) {
+        try {
+            delegate.putItems(listId, textsById, createdAt);
+        } finally {
+            // mesmo numa falha parcial parte dos itens pode ter sido gravada
+            for (String itemId : textsById.keySet()) {
+                rows.invalidate(itemKey(listId, itemId));
+            }
+            rows.invalidate(statsKey(listId));
+        }
+    }
+
+    @Override
+    public Map<String, AttributeValue> getItem(String listId, String itemId) {
+        Map<String, AttributeValue> item = rows.get(itemKey(listId, itemId), key -> delegate.getItem(listId, itemId));
+        reportMetrics();
+        return item;
+    }
+
+    @Override
+    public Map<String, AttributeValue> getItem(String listId, String itemId, List<String> attributes) {
+        return getItem(listId, itemId);
+    }
+
+    @Override
+    public boolean updateItem(String listId, String itemId, String text, Boolean completed) {
+        try {
+            return delegate.updateItem(listId, itemId, text, completed);
+        } finally {
+            invalidateItem(listId, itemId);
+        }
+    }
+
+    @Override
+    public Integer updateItemWithoutStats(String listId, String itemId, String text, Boolean completed) {
+        try {
+            return delegate.updateItemWithoutStats(listId, itemId, text, completed);
+        } finally {
+            rows.invalidate(itemKey(listId, itemId));
+        }
+    }
+
+    @Override
+    public void addListStats(String listId, long itemDelta, long completedDelta) {
+        try {
+            delegate.addListStats(listId, itemDelta, completedDelta);
+        } finally {
+            rows.invalidate(statsKey(listId));
+        }
+    }
+
+    @Override
+    public void deleteItem(String listId, String itemId) {
+        try {
+            delegate.deleteItem(listId, itemId);
+        } finally {
+            invalidateItem(listId, itemId);
+        }
+    }
+
+    private void invalidateItem(String listId, String itemId) {
+        rows.invalidate(itemKey(listId, itemId));
+        rows.invalidate(statsKey(listId));
+    }
+
+    // sem cache: a versão decide se a listagem pode responder 304
+    @Override
+    public Long getListVersion(String listId) {
+        return delegate.getListVersion(listId);
+    }
+
+    @Override
+    public Page queryItems(String listId, Integer limit, Map<String, AttributeValue> exclusiveStartKey, List<String> attributes) {
+        return delegate.queryItems(listId, limit, exclusiveStartKey, attributes);
+    }
+
+    @Override
+    public Page queryOpenItems(String listId, Integer limit, Map<String, AttributeValue> exclusiveStartKey, List<String> attributes) {
+        return delegate.queryOpenItems(listId, limit, exclusiveStartKey, attributes);
+    }
+
+    @Override
+    public Page queryItemsByTime(String listId, boolean openOnly, Instant createdAfter, boolean newestFirst,
+                                 Integer limit, Map<String, AttributeValue> exclusiveStartKey, List<String> attributes) {
+        return delegate.queryItemsByTime(listId, openOnly, createdAfter, newestFirst, limit, exclusiveStartKey, attributes);
+    }
+
+    @Override
+    public Page queryItemIds(String listId, boolean completed, int limit, Map<String, AttributeValue> exclusiveStartKey) {
+        return delegate.queryItemIds(listId, completed, limit, exclusiveStartKey);
+    }
+
+    @Override
+    public boolean isItemCursorOf(String listId, Map<String, AttributeValue> exclusiveStartKey) {
+        return delegate.isItemCursorOf(listId, exclusiveStartKey);
+    }
+
+    @Override
+    public boolean isOpenItemCursorOf(String listId, Map<String, AttributeValue> exclusiveStartKey) {
+        return delegate.isOpenItemCursorOf(listId, exclusiveStartKey);
+    }
+
+    @Override
+    public Map<String, AttributeValue> deleteItemsPage(String listId, int limit, Map<String, AttributeValue> exclusiveStartKey) {
+        try {
+            return delegate.deleteItemsPage(listId, limit, exclusiveStartKey);
+        } finally {
+            invalidateItems(listId);
+        }
+    }
+
+    private void invalidateItems(String listId) {
+        String prefix = "LIST#" + listId + "\n";
+        rows.invalidateIf(key -> key.startsWith(prefix));
+    }
+
+    // exportação (sem cache: as marcações precisam da condição do banco)
+
+    @Override
+    public boolean claimExport(String listId, String userId, String formatId, long now, long expiresAt) {
+        return delegate.claimExport(listId, userId, formatId, now, expiresAt);
+    }
+
+    @Override
+    public void releaseExport(String listId, String userId, String formatId) {
+        delegate.releaseExport(listId, userId, formatId);
+    }
+
+    @Override
+    public Map<String, AttributeValue> getLatestReport(String listId, String formatId) {
+        return delegate.getLatestReport(listId, formatId);
+    }
+
+    @Override
+    public void saveLatestReport(String listId, String formatId, Long listVersion, String s3Key, String createdAt) {
+        delegate.saveLatestReport(listId, formatId, listVersion, s3Key, createdAt);
+    }
+
+    @Override
+    public void prime() {
+        rows.get(itemKey("priming", "priming"), key -> null);
+        rows.invalidate(itemKey("priming", "priming"));
+        delegate.prime();
+    }
+
+    // acertos e buscas desde a última linha, no Embedded Metric Format: o CloudWatch transforma a
+    // linha do log nas métricas ReadCacheHits/ReadCacheMisses sem nenhuma chamada de API
+    private void reportMetrics() {
+        long now = clock.getAsLong();
+        long last = lastMetricsAt.get();
+        if (now - last < METRICS_INTERVAL_MILLIS || !lastMetricsAt.compareAndSet(last, now)) {
+            return;
+        }
+        long hits;
+        long misses;
+        synchronized (this) {
+            hits = rows.hits() - reportedHits;
+            misses = rows.misses() - reportedMisses;
+            reportedHits += hits;
+            reportedMisses += misses;
+        }
+        System.out.println(metricsLine(now, hits, misses));
+    }
+
+    static String metricsLine(long timestamp, long hits, long misses) {
+        return "{\"_aws\":{\"Timestamp\":" + timestamp + ",\"CloudWatchMetrics\":[{\"Namespace\":\"TodoList\","
+                + "\"Dimensions\":[[]],\"Metrics\":[{\"Name\":\"ReadCacheHits\",\"Unit\":\"Count\"},"
+                + "{\"Name\":\"ReadCacheMisses\",\"Unit\":\"Count\"}]}]},"
+                + "\"ReadCacheHits\":" + hits + ",\"ReadCacheMisses\":" + misses + "}";
+    }
+}
@@ -0,0 +1,73 @@
+package example;
+
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// disjuntor por serviço e por container: depois de FAILURE_THRESHOLD chamadas seguidas que
+// esgotaram as tentativas por limite de vazão, as próximas falham na hora (sem ir à AWS) até o
+// fim da pausa. passada a pausa as chamadas voltam a sair; um novo esgotamento reabre com a pausa
+// dobrada (até MAX_COOLDOWN_MILLIS) e um sucesso fecha e zera tudo.
+final class CircuitBreaker implements ExecutionInterceptor {
+
+    static final int FAILURE_THRESHOLD = 5;
+    static final long BASE_COOLDOWN_MILLIS = 1_000;
+    static final long MAX_COOLDOWN_MILLIS = 30_000;
+
+    private final String service;
+    private final Throttling.Counters counters;
+    private final LongSupplier clock;
+    private final AtomicInteger consecutiveThrottles = new AtomicInteger();
+    private final AtomicLong cooldownMillis = new AtomicLong(BASE_COOLDOWN_MILLIS);
+    private volatile long openUntil;
+
+    CircuitBreaker(String service, Throttling.Counters counters) {
+        this(service, counters, System::currentTimeMillis);
+    }
+
+    // construtor para os testes (relógio controlado)
+    CircuitBreaker(String service, Throttling.Counters counters, LongSupplier clock) {
+        this.service = service;
+        this.counters = counters;
+        this.clock = clock;
+    }
+
+    boolean isOpen() {
+        return clock.getAsLong() < openUntil;
+    }
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        long remaining = openUntil - clock.getAsLong();
+        if (remaining > 0) {
+            counters.rejected.increment();
+            throw new Throttling.ThrottledException("Disjuntor aberto para " + service + " por limite de vazão.", remaining);
+        }
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        if (consecutiveThrottles.get() != 0) {
+            consecutiveThrottles.set(0);
+            cooldownMillis.set(BASE_COOLDOWN_MILLIS);
+        }
+        Throttling.reportMetrics(service, clock.getAsLong());
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        // a recusa do próprio disjuntor não conta como nova falha
+        if (!(context.exception() instanceof Throttling.ThrottledException) && Throttling.isThrottle(context.exception())) {
+            counters.exhausted.increment();
+            if (consecutiveThrottles.incrementAndGet() >= FAILURE_THRESHOLD) {
+                long cooldown = cooldownMillis.getAndUpdate(current -> Math.min(MAX_COOLDOWN_MILLIS, current * 2));
+                openUntil = clock.getAsLong() + cooldown;
+            }
+        }
+        Throttling.reportMetrics(service, clock.getAsLong());
+    }
+}
@@ -5,25 +5,27 @@ import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.google.gson.Gson;
-import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
-import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
-import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
 
 import java.time.Instant;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
 
 public class CreateItemHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
 
-    private final DynamoDbClient dynamoDbClient;
-    private final String tableName;
+    private final TodoRepository repository;
     private final Gson gson = new Gson();
 
     public CreateItemHandler() {
-        this.dynamoDbClient = DynamoDbClient.builder().region(Region.SA_EAST_1).build();
-        this.tableName = System.getenv("TABLE_NAME");
+        this(CachingTodoRepository.shared());
+        Priming.register(this::prime);
+    }
+
+    // construtor para os testes
+    public CreateItemHandler(DynamoDbClient dynamoDbClient, String tableName) {
+        this(new DynamoTodoRepository(dynamoDbClient, tableName));
+    }
+
+    CreateItemHandler(TodoRepository repository) {
+        this.repository = repository;
     }
 
     // classe interna para desserializar o corpo da requisição JSON
@@ -32,6 +34,11 @@ public class CreateItemHandler implements RequestHandler<APIGatewayProxyRequestE
         public String getText() { return text; }
     }
 
+    void prime() {
+        gson.fromJson("{\"text\": \"priming\"}", InputData.class);
+        repository.prime();
+    }
+
     @Override
     public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent event, Context context) {
         try {
@@ -46,33 +53,15 @@ public class CreateItemHandler implements RequestHandler<APIGatewayProxyRequestE
                         .withBody("{\"error\": \"O texto do item não pode ser vazio.\"}");
             }
 
-            String itemId = UUID.randomUUID().toString();
-
-            // define o modelo de dados para o item da lista
-            String pk = "LIST#" + listId;
-            String sk = "ITEM#" + itemId;
-
-            Map<String, AttributeValue> item = new HashMap<>();
-            item.put("pk", AttributeValue.builder().s(pk).build());
-            item.put("sk", AttributeValue.builder().s(sk).build());
-            item.put("itemId", AttributeValue.builder().s(itemId).build());
-            item.put("text", AttributeValue.builder().s(itemText).build());
-            item.put("createdAt", AttributeValue.builder().s(Instant.now().toString()).build());
-            item.put("completed", AttributeValue.builder().bool(false).build());
-
-            PutItemRequest putItemRequest = PutItemRequest.builder()
-                    .tableName(this.tableName)
-                    .item(item)
-                    .build();
-
-            dynamoDbClient.putItem(putItemRequest);
+            String itemId = IdGenerator.newId();
+            repository.putItem(listId, itemId, itemText, Instant.now().toString());
 
             String jsonResponse = "{\"message\": \"Item adicionado com sucesso!\", \"itemId\": \"" + itemId + "\"}";
             return new APIGatewayProxyResponseEvent().withStatusCode(201).withBody(jsonResponse);
 
         } catch (Exception e) {
             context.getLogger().log("ERRO AO CRIAR ITEM: " + e.getMessage());
-            return new APIGatewayProxyResponseEvent().withStatusCode(500).withBody("{\"error\": \"Erro interno no servidor.\"}");
+            return Throttling.errorResponse(e);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,173 @@
+package example;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+// escreve CSV (RFC 4180) direto em bytes UTF-8 num buffer próprio, sem montar String por linha.
+// campos com vírgula, aspas ou quebra de linha vão entre aspas, e as aspas internas são dobradas.
+final class CsvWriter implements Closeable, Flushable {
+
+    static final int BUFFER_SIZE = 16 * 1024;
+
+    // cada char vira no máximo 4 bytes em UTF-8 (par de surrogates), mais espaço para aspas/separador
+    private static final int MAX_BYTES_PER_CHAR = 4;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private boolean firstFieldOfRow = true;
+
+    CsvWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    // null vira campo vazio
+    CsvWriter field(String value) throws IOException {
+        separator();
+        if (value == null || value.isEmpty()) {
+            return this;
+        }
+
+        // se o pior caso do campo cabe no buffer, codifica sem aspas numa passada só e só volta
+        // atrás (para pôr aspas) se encontrar vírgula, aspas ou quebra de linha
+        boolean quoted;
+        long worstCase = (long) value.length() * MAX_BYTES_PER_CHAR * 2 + 2;
+        if (worstCase > BUFFER_SIZE - position) {
+            flushBuffer();
+        }
+        if (worstCase <= BUFFER_SIZE - position) {
+            int start = position;
+            if (encode(value, 0, false) == value.length()) {
+                return this;
+            }
+            position = start;
+            quoted = true;
+        } else {
+            // campo maior que o buffer: parte dele sai antes do fim, então as aspas são decididas antes
+            quoted = needsQuoting(value);
+        }
+
+        if (quoted) {
+            ensureCapacity(1);
+            buffer[position++] = '"';
+        }
+        int next = encode(value, 0, quoted);
+        while (next < value.length()) {
+            flushBuffer();
+            next = encode(value, next, quoted);
+        }
+        if (quoted) {
+            ensureCapacity(1);
+            buffer[position++] = '"';
+        }
+        return this;
+    }
+
+    CsvWriter field(boolean value) throws IOException {
+        separator();
+        writeAscii(value ? "true" : "false");
+        return this;
+    }
+
+    // a RFC 4180 termina cada linha com CRLF
+    void endRow() throws IOException {
+        ensureCapacity(2);
+        buffer[position++] = '\r';
+        buffer[position++] = '\n';
+        firstFieldOfRow = true;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flushBuffer();
+        out.close();
+    }
+
+    private void separator() throws IOException {
+        if (firstFieldOfRow) {
+            firstFieldOfRow = false;
+            return;
+        }
+        ensureCapacity(1);
+        buffer[position++] = ',';
+    }
+
+    private static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeAscii(String value) throws IOException {
+        ensureCapacity(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            buffer[position++] = (byte) value.charAt(i);
+        }
+    }
+
+    // codifica em UTF-8 direto no buffer a partir de value[from] até o fim ou até faltar espaço,
+    // e devolve o índice do próximo char. sem aspas, para e devolve -1 num caractere que exige
+    // aspas; com aspas, dobra as aspas internas. surrogates soltos viram '?' como no String.getBytes
+    private int encode(String value, int from, boolean quoted) {
+        byte[] buf = buffer;
+        int pos = position;
+        int length = value.length();
+        int i = from;
+        for (; i < length && BUFFER_SIZE - pos >= MAX_BYTES_PER_CHAR + 1; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c == '"' || c == ',' || c == '\n' || c == '\r') {
+                    if (!quoted) {
+                        return -1;
+                    }
+                    if (c == '"') {
+                        buf[pos++] = '"';
+                    }
+                }
+                buf[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                buf[pos++] = (byte) (0xC0 | (c >> 6));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buf[pos++] = (byte) (0xF0 | (codePoint >> 18));
+                buf[pos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buf[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buf[pos++] = '?';
+            } else {
+                buf[pos++] = (byte) (0xE0 | (c >> 12));
+                buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        position = pos;
+        return i;
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (BUFFER_SIZE - position < bytes) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
@@ -4,22 +4,28 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
-import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
-import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
-
-import java.util.HashMap;
-import java.util.Map;
 
 public class DeleteItemHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
 
-    private final DynamoDbClient dynamoDbClient;
-    private final String tableName;
+    private final TodoRepository repository;
 
     public DeleteItemHandler() {
-        this.dynamoDbClient = DynamoDbClient.builder().region(Region.SA_EAST_1).build();
-        this.tableName = System.getenv("TABLE_NAME");
+        this(CachingTodoRepository.shared());
+        Priming.register(this::prime);
+    }
+
+    // construtor para os testes
+    public DeleteItemHandler(DynamoDbClient dynamoDbClient, String tableName) {
+        this(new DynamoTodoRepository(dynamoDbClient, tableName));
+    }
+
+    DeleteItemHandler(TodoRepository repository) {
+        this.repository = repository;
+    }
+
+    void prime() {
+        repository.prime();
     }
 
     @Override
@@ -29,21 +35,7 @@ public class DeleteItemHandler implements RequestHandler<APIGatewayProxyRequestE
             String listId = event.getPathParameters().get("listId");
             String itemId = event.getPathParameters().get("itemId");
 
-            // define a chave composta exata do item a ser apagado
-            String pk = "LIST#" + listId;
-            String sk = "ITEM#" + itemId;
-
-            Map<String, AttributeValue> keyToDelete = new HashMap<>();
-            keyToDelete.put("pk", AttributeValue.builder().s(pk).build());
-            keyToDelete.put("sk", AttributeValue.builder().s(sk).build());
-
-            // cria e executa a requisição de exclusão
-            DeleteItemRequest deleteReq = DeleteItemRequest.builder()
-                    .tableName(this.tableName)
-                    .key(keyToDelete)
-                    .build();
-
-            dynamoDbClient.deleteItem(deleteReq);
+            repository.deleteItem(listId, itemId);
 
             return new APIGatewayProxyResponseEvent()
                     .withStatusCode(200)
@@ -51,7 +43,7 @@ public class DeleteItemHandler implements RequestHandler<APIGatewayProxyRequestE
 
         } catch (Exception e) {
             context.getLogger().log("ERRO AO EXCLUIR ITEM: " + e.getMessage());
-            return new APIGatewayProxyResponseEvent().withStatusCode(500).withBody("{\"error\": \"Erro interno no servidor.\"}");
+            return Throttling.errorResponse(e);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package example;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+// grava (ou apaga) muitos itens com BatchWriteItem: divide em lotes de 25, dispara os lotes
+// em paralelo e reenvia os UnprocessedItems com backoff exponencial com jitter.
+final class DynamoBatchWriter {
+
+    // limite do DynamoDB por chamada de BatchWriteItem
+    static final int BATCH_SIZE = 25;
+
+    static final int MAX_ATTEMPTS = 8;
+    private static final long BASE_DELAY_MILLIS = 50;
+    private static final long MAX_DELAY_MILLIS = 2_000;
+
+    private DynamoBatchWriter() {
+    }
+
+    static void writeAll(DynamoDbClient dynamoDbClient, String tableName, List<WriteRequest> writes) {
+        writeAll(dynamoDbClient, tableName, writes, written -> { });
+    }
+
+    // onWritten recebe as escritas que cada chamada confirmou (chamado de várias threads), para
+    // quem precisa saber o que chegou ao banco mesmo quando um lote falha no meio
+    static void writeAll(DynamoDbClient dynamoDbClient, String tableName, List<WriteRequest> writes,
+                         Consumer<List<WriteRequest>> onWritten) {
+        List<List<WriteRequest>> batches = new ArrayList<>();
+        for (int start = 0; start < writes.size(); start += BATCH_SIZE) {
+            batches.add(writes.subList(start, Math.min(start + BATCH_SIZE, writes.size())));
+        }
+        Parallel.map(batches, batch -> {
+            writeBatch(dynamoDbClient, tableName, batch, onWritten);
+            return null;
+        });
+    }
+
+    private static void writeBatch(DynamoDbClient dynamoDbClient, String tableName, List<WriteRequest> batch,
+                                   Consumer<List<WriteRequest>> onWritten) {
+        Map<String, List<WriteRequest>> pending = Map.of(tableName, batch);
+        for (int attempt = 1; ; attempt++) {
+            BatchWriteItemResponse response = dynamoDbClient.batchWriteItem(
+                    BatchWriteItemRequest.builder().requestItems(pending).build());
+
+            List<WriteRequest> sent = pending.get(tableName);
+            if (!response.hasUnprocessedItems() || response.unprocessedItems().isEmpty()) {
+                onWritten.accept(sent);
+                return;
+            }
+            Set<WriteRequest> unprocessed = new HashSet<>(response.unprocessedItems().get(tableName));
+            List<WriteRequest> written = new ArrayList<>(sent.size());
+            for (WriteRequest write : sent) {
+                if (!unprocessed.contains(write)) {
+                    written.add(write);
+                }
+            }
+            onWritten.accept(written);
+            if (attempt == MAX_ATTEMPTS) {
+                // itens não processados são o limite de vazão da tabela: vira 429 na API
+                throw Throttling.exhausted("DynamoDB", "O DynamoDB não processou " + response.unprocessedItems().get(tableName).size()
+                        + " itens depois de " + MAX_ATTEMPTS + " tentativas.", null);
+            }
+            pending = response.unprocessedItems();
+            sleepWithJitter(attempt);
+        }
+    }
+
+    // "full jitter": espera um tempo aleatório entre 0 e o teto exponencial da tentativa
+    static void sleepWithJitter(int attempt) {
+        long ceiling = Math.min(MAX_DELAY_MILLIS, BASE_DELAY_MILLIS << attempt);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido enquanto aguardava para tentar de novo.", e);
+        }
+    }
+}
@@ -0,0 +1,899 @@
+package example;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.Delete;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.DeleteRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValuesOnConditionCheckFailure;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.Update;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+// tabela única do DynamoDB:
+//   USER#<userId>  / LIST#<listId>                 -> lista
+//   LIST#<listId>  / ITEM#<itemId>                 -> item
+//   LIST#<listId>  / META                          -> itemCount, completedCount, counted e versão da lista
+//   EXPORT#<listId> / USER#<userId>#<formato>      -> exportação pendente (com TTL em expiresAt)
+//   EXPORT#<listId> / LATEST#<formato>             -> último relatório gerado
+final class DynamoTodoRepository implements TodoRepository {
+
+    static final String META_SK = "META";
+
+    // tentativas de uma transação de item (palpite errado do completed ou conflito na linha META)
+    static final int MAX_TRANSACTION_ATTEMPTS = 5;
+
+    // índice esparso dos itens pendentes: openList (= pk da lista) só existe enquanto o item não
+    // está concluído, então o índice guarda apenas os itens em aberto
+    static final String OPEN_ITEMS_INDEX = "OpenItemsIndex";
+    static final String OPEN_ATTRIBUTE = "openList";
+
+    // itens pendentes gravados antes do índice não têm openList até o OpenItemsBackfill rodar.
+    // enquanto OPEN_ITEMS_INDEX_READY=false, o filtro dos pendentes lê a tabela com FilterExpression
+    static final String OPEN_ITEMS_INDEX_READY_ENV = "OPEN_ITEMS_INDEX_READY";
+
+    // marca da linha META com contadores completos; sem ela a linha só tem as somas das escritas
+    // feitas depois que os contadores entraram (ou nem existe) e a partição precisa ser contada
+    static final String COUNTED_ATTRIBUTE = "counted";
+
+    // folga do fim da faixa de tempo sobre o relógio local (IDs de outros containers adiantados)
+    static final long TIME_RANGE_SLACK_MILLIS = 24 * 60 * 60 * 1000L;
+
+    // início do texto do createdAt até os segundos
+    private static final DateTimeFormatter CREATED_AT_SECONDS =
+            DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss").withZone(ZoneOffset.UTC);
+
+    // máximo de chaves por BatchGetItem
+    static final int BATCH_GET_SIZE = 100;
+
+    private final DynamoDbClient dynamoDbClient;
+    private final String tableName;
+    private final boolean openItemsIndexReady;
+
+    DynamoTodoRepository(DynamoDbClient dynamoDbClient, String tableName) {
+        this(dynamoDbClient, tableName, true);
+    }
+
+    DynamoTodoRepository(DynamoDbClient dynamoDbClient, String tableName, boolean openItemsIndexReady) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.tableName = tableName;
+        this.openItemsIndexReady = openItemsIndexReady;
+    }
+
+    // só "false" desliga: tabela nova (ou local) não tem itens anteriores ao índice
+    static boolean openItemsIndexReadyFromEnv() {
+        return !"false".equals(System.getenv(OPEN_ITEMS_INDEX_READY_ENV));
+    }
+
+    static Map<String, AttributeValue> listRow(String userId, String listId, String name, String createdAt) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("pk", AttributeValue.builder().s("USER#" + userId).build());
+        item.put("sk", AttributeValue.builder().s("LIST#" + listId).build());
+        item.put("userId", AttributeValue.builder().s(userId).build());
+        item.put("name", AttributeValue.builder().s(name).build());
+        item.put("createdAt", AttributeValue.builder().s(createdAt).build());
+        return item;
+    }
+
+    static Map<String, AttributeValue> itemRow(String listId, String itemId, String text, String createdAt) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("pk", AttributeValue.builder().s("LIST#" + listId).build());
+        item.put("sk", AttributeValue.builder().s("ITEM#" + itemId).build());
+        item.put("itemId", AttributeValue.builder().s(itemId).build());
+        item.put("text", AttributeValue.builder().s(text).build());
+        item.put("createdAt", AttributeValue.builder().s(createdAt).build());
+        item.put("completed", AttributeValue.builder().bool(false).build());
+        item.put(OPEN_ATTRIBUTE, AttributeValue.builder().s("LIST#" + listId).build());
+        return item;
+    }
+
+    static Map<String, AttributeValue> key(String pk, String sk) {
+        Map<String, AttributeValue> key = new HashMap<>();
+        key.put("pk", AttributeValue.builder().s(pk).build());
+        key.put("sk", AttributeValue.builder().s(sk).build());
+        return key;
+    }
+
+    @Override
+    public void putList(String userId, String listId, String name, String createdAt) {
+        dynamoDbClient.putItem(PutItemRequest.builder()
+                .tableName(this.tableName)
+                .item(listRow(userId, listId, name, createdAt))
+                .build());
+    }
+
+    @Override
+    public Map<String, AttributeValue> getList(String userId, String listId) {
+        return get(key("USER#" + userId, "LIST#" + listId));
+    }
+
+    @Override
+    public Map<String, AttributeValue> getList(String userId, String listId, List<String> attributes) {
+        return get(key("USER#" + userId, "LIST#" + listId), attributes);
+    }
+
+    @Override
+    public void renameList(String userId, String listId, String name) {
+        dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                .tableName(this.tableName)
+                .key(key("USER#" + userId, "LIST#" + listId))
+                .updateExpression("SET #nm = :newName")
+                .expressionAttributeNames(Map.of("#nm", "name"))
+                .expressionAttributeValues(Map.of(":newName", AttributeValue.builder().s(name).build()))
+                .build());
+    }
+
+    @Override
+    public boolean markListDeleting(String userId, String listId) {
+        // a chave inclui o USER#: se a condição passa, a lista existe e é deste usuário
+        try {
+            dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                    .tableName(this.tableName)
+                    .key(key("USER#" + userId, "LIST#" + listId))
+                    .updateExpression("SET deleteRequestedAt = :now")
+                    .conditionExpression("attribute_exists(pk)")
+                    .expressionAttributeValues(Map.of(":now", AttributeValue.builder().s(Instant.now().toString()).build()))
+                    .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean deleteList(String userId, String listId) {
+        // a chave inclui o USER#: se a condição passa, a lista existia e era deste usuário
+        try {
+            dynamoDbClient.deleteItem(DeleteItemRequest.builder()
+                    .tableName(this.tableName)
+                    .key(key("USER#" + userId, "LIST#" + listId))
+                    .conditionExpression("attribute_exists(pk)")
+                    .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public Map<String, AttributeValue> getListStats(String listId) {
+        Map<String, AttributeValue> meta = get(key("LIST#" + listId, META_SK));
+        return isCounted(meta) ? meta : backfillListStats(listId);
+    }
+
+    private static boolean isCounted(Map<String, AttributeValue> meta) {
+        AttributeValue counted = meta == null ? null : meta.get(COUNTED_ATTRIBUTE);
+        return counted != null && Boolean.TRUE.equals(counted.bool());
+    }
+
+    // conta os itens da partição uma vez e grava os totais com a marca counted. a condição na versão
+    // garante que nenhuma escrita de item entrou durante a contagem; se entrou, conta de novo. os
+    // lotes gravam os itens antes do ADD final, e um lote no meio da contagem ainda pode somar em dobro
+    private Map<String, AttributeValue> backfillListStats(String listId) {
+        for (int attempt = 1; ; attempt++) {
+            Long version = getListVersion(listId);
+            long items = 0;
+            long completed = 0;
+            Map<String, AttributeValue> startKey = null;
+            do {
+                // o sk entra na projeção para um item sem completed não voltar como linha vazia
+                QueryResponse response = dynamoDbClient.query(QueryRequest.builder()
+                        .tableName(this.tableName)
+                        .keyConditionExpression("pk = :pkVal AND begins_with(sk, :itemPrefix)")
+                        .consistentRead(true)
+                        .projectionExpression("sk, #comp")
+                        .expressionAttributeNames(Map.of("#comp", "completed"))
+                        .expressionAttributeValues(Map.of(
+                                ":pkVal", AttributeValue.builder().s("LIST#" + listId).build(),
+                                ":itemPrefix", AttributeValue.builder().s("ITEM#").build()))
+                        .exclusiveStartKey(startKey)
+                        .build());
+                for (Map<String, AttributeValue> row : response.items()) {
+                    items++;
+                    if (completedOf(row)) {
+                        completed++;
+                    }
+                }
+                startKey = response.hasLastEvaluatedKey() && !response.lastEvaluatedKey().isEmpty() ? response.lastEvaluatedKey() : null;
+            } while (startKey != null);
+
+            Map<String, String> names = new HashMap<>();
+            names.put("#ver", "version");
+            names.put("#counted", COUNTED_ATTRIBUTE);
+            Map<String, AttributeValue> values = new HashMap<>();
+            values.put(":items", AttributeValue.builder().n(String.valueOf(items)).build());
+            values.put(":completed", AttributeValue.builder().n(String.valueOf(completed)).build());
+            values.put(":counted", AttributeValue.builder().bool(true).build());
+            String condition = "attribute_not_exists(#counted) AND attribute_not_exists(#ver)";
+            if (version != null) {
+                condition = "attribute_not_exists(#counted) AND #ver = :ver";
+                values.put(":ver", AttributeValue.builder().n(String.valueOf(version)).build());
+            }
+            try {
+                UpdateItemResponse response = dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                        .tableName(this.tableName)
+                        .key(key("LIST#" + listId, META_SK))
+                        .updateExpression("SET itemCount = :items, completedCount = :completed, #counted = :counted")
+                        .conditionExpression(condition)
+                        .expressionAttributeNames(names)
+                        .expressionAttributeValues(values)
+                        .returnValues(ReturnValue.ALL_NEW)
+                        .build());
+                return response.attributes();
+            } catch (ConditionalCheckFailedException e) {
+                // outro container terminou a contagem antes, ou a versão mudou no meio dela
+                Map<String, AttributeValue> meta = getConsistent(key("LIST#" + listId, META_SK));
+                if (isCounted(meta)) {
+                    return meta;
+                }
+                if (attempt >= MAX_TRANSACTION_ATTEMPTS) {
+                    // lista com escritas contínuas: responde com a contagem lida e grava numa próxima leitura
+                    Map<String, AttributeValue> stats = new HashMap<>();
+                    stats.put("itemCount", values.get(":items"));
+                    stats.put("completedCount", values.get(":completed"));
+                    return stats;
+                }
+            }
+        }
+    }
+
+    @Override
+    public Page queryLists(String userId, Integer limit, Map<String, AttributeValue> exclusiveStartKey) {
+        // só os campos da resposta (name é palavra reservada); o pk não precisa vir, o
+        // LastEvaluatedKey traz a chave inteira mesmo assim
+        QueryResponse response = dynamoDbClient.query(QueryRequest.builder()
+                .tableName(this.tableName)
+                .keyConditionExpression("pk = :pkVal AND begins_with(sk, :listPrefix)")
+                .projectionExpression("userId, sk, #nm, createdAt")
+                .expressionAttributeNames(Map.of("#nm", "name"))
+                .expressionAttributeValues(Map.of(
+                        ":pkVal", AttributeValue.builder().s("USER#" + userId).build(),
+                        ":listPrefix", AttributeValue.builder().s("LIST#").build()))
+                .limit(limit)
+                .exclusiveStartKey(exclusiveStartKey)
+                .build());
+        return page(response);
+    }
+
+    @Override
+    public boolean isListCursorOf(String userId, Map<String, AttributeValue> exclusiveStartKey) {
+        return isCursorOf("USER#" + userId, exclusiveStartKey);
+    }
+
+    @Override
+    public Map<String, Map<String, AttributeValue>> batchGetListStats(List<String> listIds) {
+        Map<String, Map<String, AttributeValue>> statsById = new HashMap<>();
+        for (int start = 0; start < listIds.size(); start += BATCH_GET_SIZE) {
+            List<Map<String, AttributeValue>> keys = new ArrayList<>();
+            for (String listId : listIds.subList(start, Math.min(start + BATCH_GET_SIZE, listIds.size()))) {
+                keys.add(key("LIST#" + listId, META_SK));
+            }
+            for (Map<String, AttributeValue> row : batchGet(keys, "pk, itemCount, completedCount, counted")) {
+                if (isCounted(row)) {
+                    statsById.put(row.get("pk").s().substring("LIST#".length()), row);
+                }
+            }
+        }
+        // as listas ainda sem contadores completos são contadas uma vez cada, em paralelo
+        List<String> uncounted = listIds.stream().filter(listId -> !statsById.containsKey(listId)).collect(Collectors.toList());
+        if (!uncounted.isEmpty()) {
+            List<Map<String, AttributeValue>> backfilled = Parallel.map(uncounted, this::backfillListStats);
+            for (int i = 0; i < uncounted.size(); i++) {
+                statsById.put(uncounted.get(i), backfilled.get(i));
+            }
+        }
+        return statsById;
+    }
+
+    // BatchGetItem com as chaves não processadas (limite de vazão) reenviadas com backoff
+    private List<Map<String, AttributeValue>> batchGet(List<Map<String, AttributeValue>> keys, String projection) {
+        List<Map<String, AttributeValue>> rows = new ArrayList<>(keys.size());
+        Map<String, KeysAndAttributes> pending = Map.of(tableName,
+                KeysAndAttributes.builder().keys(keys).projectionExpression(projection).build());
+        for (int attempt = 1; ; attempt++) {
+            BatchGetItemResponse response = dynamoDbClient.batchGetItem(BatchGetItemRequest.builder()
+                    .requestItems(pending)
+                    .build());
+            if (response.hasResponses() && response.responses().containsKey(tableName)) {
+                rows.addAll(response.responses().get(tableName));
+            }
+            if (!response.hasUnprocessedKeys() || response.unprocessedKeys().isEmpty()) {
+                return rows;
+            }
+            if (attempt == DynamoBatchWriter.MAX_ATTEMPTS) {
+                throw Throttling.exhausted("DynamoDB", "BatchGetItem não leu todas as chaves depois de "
+                        + DynamoBatchWriter.MAX_ATTEMPTS + " tentativas.", null);
+            }
+            pending = response.unprocessedKeys();
+            DynamoBatchWriter.sleepWithJitter(attempt);
+        }
+    }
+
+    @Override
+    public void putItem(String listId, String itemId, String text, String createdAt) {
+        // o itemId é novo; a condição só impede que o mesmo item seja contado duas vezes
+        dynamoDbClient.transactWriteItems(TransactWriteItemsRequest.builder()
+                .transactItems(
+                        TransactWriteItem.builder().put(Put.builder()
+                                .tableName(this.tableName)
+                                .item(itemRow(listId, itemId, text, createdAt))
+                                .conditionExpression("attribute_not_exists(pk)")
+                                .build()).build(),
+                        statsUpdate(listId, 1, 0))
+                .build());
+    }
+
+    @Override
+    public void putItems(String listId, Map<String, String> textsById, String createdAt) {
+        List<WriteRequest> writes = new ArrayList<>(textsById.size());
+        for (Map.Entry<String, String> entry : textsById.entrySet()) {
+            Map<String, AttributeValue> item = itemRow(listId, entry.getKey(), entry.getValue(), createdAt);
+            writes.add(WriteRequest.builder().putRequest(PutRequest.builder().item(item).build()).build());
+        }
+        // até 1000 itens não cabem numa transação: o BatchWriteItem grava e o contador recebe, no
+        // fim, quantos itens o banco confirmou (inclusive quando um lote falha no meio). a versão
+        // sobe também antes, para o caso de o ADD do fim falhar
+        addListStats(listId, 0, 0);
+        Set<String> written = ConcurrentHashMap.newKeySet();
+        PartialWriteException failure = null;
+        try {
+            DynamoBatchWriter.writeAll(dynamoDbClient, tableName, writes, confirmed -> {
+                for (WriteRequest write : confirmed) {
+                    written.add(write.putRequest().item().get("itemId").s());
+                }
+            });
+        } catch (RuntimeException e) {
+            failure = new PartialWriteException(written, e);
+        }
+        // a falha do contador não pode esconder quais itens foram gravados: vai como suppressed
+        // da falha da escrita ou, se todos foram gravados, vira ela mesma a PartialWriteException
+        try {
+            addListStats(listId, written.size(), 0);
+        } catch (RuntimeException e) {
+            if (failure == null) {
+                throw new PartialWriteException(written, e);
+            }
+            failure.addSuppressed(e);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public Map<String, AttributeValue> getItem(String listId, String itemId) {
+        return get(key("LIST#" + listId, "ITEM#" + itemId));
+    }
+
+    @Override
+    public Map<String, AttributeValue> getItem(String listId, String itemId, List<String> attributes) {
+        return get(key("LIST#" + listId, "ITEM#" + itemId), attributes);
+    }
+
+    @Override
+    public boolean updateItem(String listId, String itemId, String text, Boolean completed) {
+        // palpite inicial: o completed está sendo invertido. se o banco discordar, a condição falha,
+        // devolve a linha atual e a transação é refeita com o valor certo
+        Boolean previous = completed == null ? null : !completed;
+        for (int attempt = 1; ; attempt++) {
+            UpdateItemRequest itemUpdate = itemUpdate(listId, itemId, text, completed, previous).build();
+            long completedDelta = previous == null || previous.equals(completed) ? 0 : (completed ? 1 : -1);
+            try {
+                dynamoDbClient.transactWriteItems(TransactWriteItemsRequest.builder()
+                        .transactItems(
+                                TransactWriteItem.builder().update(Update.builder()
+                                        .tableName(this.tableName)
+                                        .key(itemUpdate.key())
+                                        .updateExpression(itemUpdate.updateExpression())
+                                        .conditionExpression(itemUpdate.conditionExpression())
+                                        .expressionAttributeNames(itemUpdate.expressionAttributeNames())
+                                        .expressionAttributeValues(itemUpdate.expressionAttributeValues())
+                                        .returnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD)
+                                        .build()).build(),
+                                statsUpdate(listId, 0, completedDelta))
+                        .build());
+                return true;
+            } catch (TransactionCanceledException e) {
+                CancellationReason reason = itemCancellation(e, attempt);
+                if (reason == null) {
+                    continue;
+                }
+                if (!reason.hasItem() || reason.item().isEmpty()) {
+                    return false;
+                }
+                previous = completedOf(reason.item());
+            }
+        }
+    }
+
+    @Override
+    public Integer updateItemWithoutStats(String listId, String itemId, String text, Boolean completed) {
+        // sem a condição, um UpdateItem de item inexistente criaria uma linha só com o campo alterado
+        try {
+            UpdateItemResponse response = dynamoDbClient.updateItem(itemUpdate(listId, itemId, text, completed, null)
+                    .returnValues(completed == null ? ReturnValue.NONE : ReturnValue.UPDATED_OLD)
+                    .build());
+            if (completed == null) {
+                return 0;
+            }
+            Map<String, AttributeValue> old = response == null || !response.hasAttributes() ? Map.of() : response.attributes();
+            boolean previous = completedOf(old);
+            return previous == completed ? 0 : (completed ? 1 : -1);
+        } catch (ConditionalCheckFailedException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void addListStats(String listId, long itemDelta, long completedDelta) {
+        TransactWriteItem stats = statsUpdate(listId, itemDelta, completedDelta);
+        dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                .tableName(this.tableName)
+                .key(stats.update().key())
+                .updateExpression(stats.update().updateExpression())
+                .expressionAttributeNames(stats.update().expressionAttributeNames())
+                .expressionAttributeValues(stats.update().expressionAttributeValues())
+                .build());
+    }
+
+    @Override
+    public void deleteItem(String listId, String itemId) {
+        // mesmo esquema do updateItem: supõe item pendente e corrige se a condição falhar
+        boolean previous = false;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                dynamoDbClient.transactWriteItems(TransactWriteItemsRequest.builder()
+                        .transactItems(
+                                TransactWriteItem.builder().delete(Delete.builder()
+                                        .tableName(this.tableName)
+                                        .key(key("LIST#" + listId, "ITEM#" + itemId))
+                                        .conditionExpression(completedCondition(previous))
+                                        .expressionAttributeNames(Map.of("#comp", "completed"))
+                                        .expressionAttributeValues(Map.of(":previous", AttributeValue.builder().bool(previous).build()))
+                                        .returnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD)
+                                        .build()).build(),
+                                statsUpdate(listId, -1, previous ? -1 : 0))
+                        .build());
+                return;
+            } catch (TransactionCanceledException e) {
+                CancellationReason reason = itemCancellation(e, attempt);
+                if (reason == null) {
+                    continue;
+                }
+                if (!reason.hasItem() || reason.item().isEmpty()) {
+                    // já não existia: nada para apagar nem descontar
+                    return;
+                }
+                previous = completedOf(reason.item());
+            }
+        }
+    }
+
+    @Override
+    public Long getListVersion(String listId) {
+        GetItemResponse response = dynamoDbClient.getItem(GetItemRequest.builder()
+                .tableName(this.tableName)
+                .key(key("LIST#" + listId, META_SK))
+                .projectionExpression("#ver")
+                .expressionAttributeNames(Map.of("#ver", "version"))
+                .consistentRead(true)
+                .build());
+        AttributeValue version = response.hasItem() ? response.item().get("version") : null;
+        return version == null || version.n() == null ? null : Long.valueOf(version.n());
+    }
+
+    // SET do texto e/ou do completed. previous != null exige esse completed atual (o que também
+    // garante que o item existe); sem ele basta o item existir
+    private UpdateItemRequest.Builder itemUpdate(String listId, String itemId, String text, Boolean completed, Boolean previous) {
+        List<String> assignments = new ArrayList<>();
+        Map<String, String> expressionAttributeNames = new HashMap<>();
+        Map<String, AttributeValue> expressionAttributeValues = new HashMap<>();
+        if (text != null) {
+            assignments.add("#txt = :newText");
+            expressionAttributeNames.put("#txt", "text");
+            expressionAttributeValues.put(":newText", AttributeValue.builder().s(text).build());
+        }
+        String removal = "";
+        if (completed != null) {
+            assignments.add("#comp = :newCompleted");
+            expressionAttributeNames.put("#comp", "completed");
+            expressionAttributeValues.put(":newCompleted", AttributeValue.builder().bool(completed).build());
+            // o item entra no índice dos pendentes ao ser reaberto e sai ao ser concluído
+            expressionAttributeNames.put("#open", OPEN_ATTRIBUTE);
+            if (completed) {
+                removal = " REMOVE #open";
+            } else {
+                assignments.add("#open = :openList");
+                expressionAttributeValues.put(":openList", AttributeValue.builder().s("LIST#" + listId).build());
+            }
+        }
+        String condition = "attribute_exists(pk)";
+        if (previous != null) {
+            condition = completedCondition(previous);
+            expressionAttributeNames.put("#comp", "completed");
+            expressionAttributeValues.put(":previous", AttributeValue.builder().bool(previous).build());
+        }
+        return UpdateItemRequest.builder()
+                .tableName(this.tableName)
+                .key(key("LIST#" + listId, "ITEM#" + itemId))
+                .updateExpression("SET " + String.join(", ", assignments) + removal)
+                .conditionExpression(condition)
+                .expressionAttributeNames(expressionAttributeNames)
+                .expressionAttributeValues(expressionAttributeValues);
+    }
+
+    // ADD nos contadores e na versão da linha META. a versão sobe junto com a escrita do item,
+    // então quem lê a versão antes da query nunca fica com dados velhos sob a versão nova
+    private TransactWriteItem statsUpdate(String listId, long itemDelta, long completedDelta) {
+        StringBuilder expression = new StringBuilder("ADD #ver :one");
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        names.put("#ver", "version");
+        values.put(":one", AttributeValue.builder().n("1").build());
+        if (itemDelta != 0) {
+            expression.append(", itemCount :items");
+            values.put(":items", AttributeValue.builder().n(String.valueOf(itemDelta)).build());
+        }
+        if (completedDelta != 0) {
+            expression.append(", completedCount :completed");
+            values.put(":completed", AttributeValue.builder().n(String.valueOf(completedDelta)).build());
+        }
+        return TransactWriteItem.builder().update(Update.builder()
+                .tableName(this.tableName)
+                .key(key("LIST#" + listId, META_SK))
+                .updateExpression(expression.toString())
+                .expressionAttributeNames(names)
+                .expressionAttributeValues(values)
+                .build()).build();
+    }
+
+    // motivo da falha da escrita do item quando a condição dele falhou; null quando foi conflito
+    // com outra transação na mesma linha META, e então só espera para repetir o mesmo palpite
+    private static CancellationReason itemCancellation(TransactionCanceledException e, int attempt) {
+        if (attempt >= MAX_TRANSACTION_ATTEMPTS) {
+            // o SDK não trata o cancelamento por limite de vazão como throttle: a API responde 429
+            if (e.hasCancellationReasons() && e.cancellationReasons().stream()
+                    .anyMatch(reason -> "ThrottlingError".equals(reason.code()) || "ProvisionedThroughputExceeded".equals(reason.code()))) {
+                throw Throttling.exhausted("DynamoDB", "Transação cancelada por limite de vazão.", e);
+            }
+            throw e;
+        }
+        CancellationReason reason = e.hasCancellationReasons() && !e.cancellationReasons().isEmpty()
+                ? e.cancellationReasons().get(0) : null;
+        if (reason != null && "ConditionalCheckFailed".equals(reason.code())) {
+            return reason;
+        }
+        DynamoBatchWriter.sleepWithJitter(attempt);
+        return null;
+    }
+
+    // linhas antigas sem o atributo contam como pendentes
+    private static boolean completedOf(Map<String, AttributeValue> item) {
+        AttributeValue completed = item.get("completed");
+        return completed != null && Boolean.TRUE.equals(completed.bool());
+    }
+
+    private static String completedCondition(boolean previous) {
+        return previous ? "#comp = :previous" : "attribute_exists(pk) AND (attribute_not_exists(#comp) OR #comp = :previous)";
+    }
+
+    @Override
+    public Page queryItems(String listId, Integer limit, Map<String, AttributeValue> exclusiveStartKey, List<String> attributes) {
+        Map<String, String> names = new HashMap<>();
+        // leitura forte, como a da versão da lista: a página nunca é mais velha que o ETag dela
+        QueryResponse response = dynamoDbClient.query(QueryRequest.builder()
+                .tableName(this.tableName)
+                .keyConditionExpression("pk = :pkVal AND begins_with(sk, :itemPrefix)")
+                .consistentRead(true)
+                .projectionExpression(projection(attributes, names))
+                .expressionAttributeNames(names.isEmpty() ? null : names)
+                .expressionAttributeValues(Map.of(
+                        ":pkVal", AttributeValue.builder().s("LIST#" + listId).build(),
+                        ":itemPrefix", AttributeValue.builder().s("ITEM#").build()))
+                .limit(limit)
+                .exclusiveStartKey(exclusiveStartKey)
+                .build());
+        return page(response);
+    }
+
+    // BETWEEN lê só as linhas da faixa (e com ScanIndexForward=false a partir da mais nova). a
+    // faixa de tempo também cobre um UUID v4 cujo começo aleatório caia nela; o filtro por createdAt
+    // tira esses, que foram criados antes da troca para IDs ordenados
+    @Override
+    public Page queryItemsByTime(String listId, boolean openOnly, Instant createdAfter, boolean newestFirst,
+                                 Integer limit, Map<String, AttributeValue> exclusiveStartKey, List<String> attributes) {
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        names.put("#created", "createdAt");
+        values.put(":pkVal", AttributeValue.builder().s("LIST#" + listId).build());
+        values.put(":from", AttributeValue.builder().s(timeRangeStart(createdAfter)).build());
+        values.put(":to", AttributeValue.builder().s(timeRangeEnd(System.currentTimeMillis())).build());
+        values.put(":since", AttributeValue.builder().s(createdAtCutoff()).build());
+        String partition = "pk = :pkVal";
+        String filter = "#created >= :since";
+        boolean useIndex = openOnly && openItemsIndexReady;
+        if (useIndex) {
+            names.put("#open", OPEN_ATTRIBUTE);
+            partition = "#open = :pkVal";
+        } else if (openOnly) {
+            filter += " AND " + openFilter(names, values);
+        }
+        QueryResponse response = dynamoDbClient.query(QueryRequest.builder()
+                .tableName(this.tableName)
+                .indexName(useIndex ? OPEN_ITEMS_INDEX : null)
+                .keyConditionExpression(partition + " AND sk BETWEEN :from AND :to")
+                // o índice global só aceita leitura eventual
+                .consistentRead(!useIndex)
+                .filterExpression(filter)
+                .projectionExpression(projection(attributes, names))
+                .expressionAttributeNames(names)
+                .expressionAttributeValues(values)
+                .scanIndexForward(!newestFirst)
+                .limit(limit)
+                .exclusiveStartKey(exclusiveStartKey)
+                .build());
+        return page(response);
+    }
+
+    // primeiro sk da faixa: o milissegundo seguinte a createdAfter, nunca antes da troca de IDs
+    static String timeRangeStart(Instant createdAfter) {
+        long from = IdGenerator.TIME_ORDERED_SINCE.toEpochMilli();
+        if (createdAfter != null) {
+            from = Math.max(from, createdAfter.toEpochMilli() + 1);
+        }
+        return "ITEM#" + IdGenerator.timePrefix(from);
+    }
+
+    // o createdAt é gravado pelo Instant.toString(), com 0, 3, 6 ou 9 casas decimais, então o texto
+    // não tem largura fixa e "12:00:00Z" ficaria depois de "12:00:00.5Z". o corte é sempre um segundo
+    // inteiro (IdGenerator.parseTimeOrderedSince) e vai sem fração nem Z: todo createdAt desse segundo
+    // em diante começa por ele ou é maior, qualquer que seja a precisão, e todo anterior é menor
+    static String createdAtCutoff() {
+        return CREATED_AT_SECONDS.format(IdGenerator.TIME_ORDERED_SINCE);
+    }
+
+    static String timeRangeEnd(long nowMillis) {
+        return "ITEM#" + IdGenerator.timePrefix(nowMillis + TIME_RANGE_SLACK_MILLIS);
+    }
+
+    // só as linhas do índice esparso: o custo é proporcional aos itens pendentes, não à lista inteira
+    @Override
+    public Page queryOpenItems(String listId, Integer limit, Map<String, AttributeValue> exclusiveStartKey, List<String> attributes) {
+        if (!openItemsIndexReady) {
+            return queryOpenItemsWithoutIndex(listId, limit, exclusiveStartKey, attributes);
+        }
+        Map<String, String> names = new HashMap<>();
+        names.put("#open", OPEN_ATTRIBUTE);
+        QueryResponse response = dynamoDbClient.query(QueryRequest.builder()
+                .tableName(this.tableName)
+                .indexName(OPEN_ITEMS_INDEX)
+                .keyConditionExpression("#open = :openList")
+                .projectionExpression(projection(attributes, names))
+                .expressionAttributeNames(names)
+                .expressionAttributeValues(Map.of(":openList", AttributeValue.builder().s("LIST#" + listId).build()))
+                .limit(limit)
+                .exclusiveStartKey(exclusiveStartKey)
+                .build());
+        return page(response);
+    }
+
+    // antes do backfill: a partição inteira com filtro, que paga a leitura dos itens concluídos também
+    private Page queryOpenItemsWithoutIndex(String listId, Integer limit, Map<String, AttributeValue> exclusiveStartKey,
+                                            List<String> attributes) {
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        values.put(":pkVal", AttributeValue.builder().s("LIST#" + listId).build());
+        values.put(":itemPrefix", AttributeValue.builder().s("ITEM#").build());
+        String filter = openFilter(names, values);
+        QueryResponse response = dynamoDbClient.query(QueryRequest.builder()
+                .tableName(this.tableName)
+                .keyConditionExpression("pk = :pkVal AND begins_with(sk, :itemPrefix)")
+                .consistentRead(true)
+                .filterExpression(filter)
+                .projectionExpression(projection(attributes, names))
+                .expressionAttributeNames(names)
+                .expressionAttributeValues(values)
+                .limit(limit)
+                .exclusiveStartKey(exclusiveStartKey)
+                .build());
+        return page(response);
+    }
+
+    // linhas antigas sem o atributo contam como pendentes, como em completedOf
+    static String openFilter(Map<String, String> names, Map<String, AttributeValue> values) {
+        names.put("#comp", "completed");
+        values.put(":completedTrue", AttributeValue.builder().bool(true).build());
+        return "(attribute_not_exists(#comp) OR #comp <> :completedTrue)";
+    }
+
+    @Override
+    public Page queryItemIds(String listId, boolean completed, int limit, Map<String, AttributeValue> exclusiveStartKey) {
+        QueryResponse response = dynamoDbClient.query(QueryRequest.builder()
+                .tableName(this.tableName)
+                .keyConditionExpression("pk = :pkVal AND begins_with(sk, :itemPrefix)")
+                .filterExpression("#comp = :completed")
+                .projectionExpression("itemId")
+                .expressionAttributeNames(Map.of("#comp", "completed"))
+                .expressionAttributeValues(Map.of(
+                        ":pkVal", AttributeValue.builder().s("LIST#" + listId).build(),
+                        ":itemPrefix", AttributeValue.builder().s("ITEM#").build(),
+                        ":completed", AttributeValue.builder().bool(completed).build()))
+                .limit(limit)
+                .exclusiveStartKey(exclusiveStartKey)
+                .build());
+        return page(response);
+    }
+
+    @Override
+    public boolean isItemCursorOf(String listId, Map<String, AttributeValue> exclusiveStartKey) {
+        // um cursor de outra lista (ou do índice dos pendentes) faria o DynamoDB rejeitar a query
+        return isCursorOf("LIST#" + listId, exclusiveStartKey) && (exclusiveStartKey == null || !exclusiveStartKey.containsKey(OPEN_ATTRIBUTE));
+    }
+
+    @Override
+    public boolean isOpenItemCursorOf(String listId, Map<String, AttributeValue> exclusiveStartKey) {
+        // o cursor do índice traz também a chave dele (openList); sem o índice é um cursor da tabela
+        return isCursorOf("LIST#" + listId, exclusiveStartKey)
+                && (exclusiveStartKey == null || exclusiveStartKey.containsKey(OPEN_ATTRIBUTE) == openItemsIndexReady);
+    }
+
+    static boolean isCursorOf(String pk, Map<String, AttributeValue> exclusiveStartKey) {
+        AttributeValue cursorPk = exclusiveStartKey == null ? null : exclusiveStartKey.get("pk");
+        return cursorPk == null || pk.equals(cursorPk.s());
+    }
+
+    @Override
+    public Map<String, AttributeValue> deleteItemsPage(String listId, int limit, Map<String, AttributeValue> exclusiveStartKey) {
+        // lê só as chaves e apaga a página com BatchWriteItem em paralelo. a partição inteira
+        // sai, inclusive a linha META: a versão recomeça se a lista voltar a ter itens
+        QueryResponse page = dynamoDbClient.query(QueryRequest.builder()
+                .tableName(this.tableName)
+                .keyConditionExpression("pk = :pkVal")
+                .expressionAttributeValues(Map.of(":pkVal", AttributeValue.builder().s("LIST#" + listId).build()))
+                .projectionExpression("pk, sk")
+                .limit(limit)
+                .exclusiveStartKey(exclusiveStartKey)
+                .build());
+
+        List<WriteRequest> deletes = page.items().stream()
+                .map(key -> WriteRequest.builder().deleteRequest(DeleteRequest.builder().key(key).build()).build())
+                .collect(Collectors.toList());
+        if (!deletes.isEmpty()) {
+            DynamoBatchWriter.writeAll(dynamoDbClient, tableName, deletes);
+        }
+        return page.hasLastEvaluatedKey() && !page.lastEvaluatedKey().isEmpty() ? page.lastEvaluatedKey() : null;
+    }
+
+    @Override
+    public boolean claimExport(String listId, String userId, String formatId, long now, long expiresAt) {
+        Map<String, AttributeValue> marker = key("EXPORT#" + listId, "USER#" + userId + "#" + formatId);
+        marker.put("requestedAt", AttributeValue.builder().n(String.valueOf(now)).build());
+        // o TTL do DynamoDB apaga o marcador depois (a condição abaixo não depende disso)
+        marker.put("expiresAt", AttributeValue.builder().n(String.valueOf(expiresAt)).build());
+
+        try {
+            dynamoDbClient.putItem(PutItemRequest.builder()
+                    .tableName(this.tableName)
+                    .item(marker)
+                    .conditionExpression("attribute_not_exists(pk) OR expiresAt < :now")
+                    .expressionAttributeValues(Map.of(":now", AttributeValue.builder().n(String.valueOf(now)).build()))
+                    .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void releaseExport(String listId, String userId, String formatId) {
+        dynamoDbClient.deleteItem(DeleteItemRequest.builder()
+                .tableName(this.tableName)
+                .key(key("EXPORT#" + listId, "USER#" + userId + "#" + formatId))
+                .build());
+    }
+
+    @Override
+    public Map<String, AttributeValue> getLatestReport(String listId, String formatId) {
+        return get(key("EXPORT#" + listId, "LATEST#" + formatId));
+    }
+
+    @Override
+    public void saveLatestReport(String listId, String formatId, Long listVersion, String s3Key, String createdAt) {
+        Map<String, AttributeValue> item = key("EXPORT#" + listId, "LATEST#" + formatId);
+        if (listVersion != null) {
+            item.put("listVersion", AttributeValue.builder().n(String.valueOf(listVersion)).build());
+        }
+        item.put("s3Key", AttributeValue.builder().s(s3Key).build());
+        item.put("createdAt", AttributeValue.builder().s(createdAt).build());
+        dynamoDbClient.putItem(PutItemRequest.builder().tableName(this.tableName).item(item).build());
+    }
+
+    @Override
+    public void prime() {
+        Priming.primeDynamoDb(dynamoDbClient, tableName);
+    }
+
+    private Map<String, AttributeValue> get(Map<String, AttributeValue> key) {
+        GetItemResponse response = dynamoDbClient.getItem(GetItemRequest.builder()
+                .tableName(this.tableName)
+                .key(key)
+                .build());
+        return response.hasItem() && !response.item().isEmpty() ? response.item() : null;
+    }
+
+    private Map<String, AttributeValue> getConsistent(Map<String, AttributeValue> key) {
+        GetItemResponse response = dynamoDbClient.getItem(GetItemRequest.builder()
+                .tableName(this.tableName)
+                .key(key)
+                .consistentRead(true)
+                .build());
+        return response.hasItem() && !response.item().isEmpty() ? response.item() : null;
+    }
+
+    // o pk entra sempre na projeção: sem ele uma linha sem nenhum dos atributos pedidos voltaria
+    // vazia, igual a uma linha inexistente
+    private Map<String, AttributeValue> get(Map<String, AttributeValue> key, List<String> attributes) {
+        if (attributes == null) {
+            return get(key);
+        }
+        List<String> projected = new ArrayList<>(attributes);
+        projected.add("pk");
+        Map<String, String> names = new HashMap<>();
+        GetItemResponse response = dynamoDbClient.getItem(GetItemRequest.builder()
+                .tableName(this.tableName)
+                .key(key)
+                .projectionExpression(projection(projected, names))
+                .expressionAttributeNames(names)
+                .build());
+        return response.hasItem() && !response.item().isEmpty() ? response.item() : null;
+    }
+
+    // ProjectionExpression com os nomes trocados por #p0, #p1... (name, text e outros campos são
+    // palavras reservadas). null = sem projeção, a linha inteira
+    private static String projection(List<String> attributes, Map<String, String> names) {
+        if (attributes == null) {
+            return null;
+        }
+        StringBuilder expression = new StringBuilder();
+        for (int i = 0; i < attributes.size(); i++) {
+            if (i > 0) {
+                expression.append(", ");
+            }
+            names.put("#p" + i, attributes.get(i));
+            expression.append("#p").append(i);
+        }
+        return expression.toString();
+    }
+
+    private static Page page(QueryResponse response) {
+        return new Page(response.items(), response.hasLastEvaluatedKey() ? response.lastEvaluatedKey() : null);
+    }
+}
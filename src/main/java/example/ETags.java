@@ -0,0 +1,86 @@
+package example;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+
+// GET condicional: cada resposta 200 leva um ETag e, se o cliente mandar o mesmo valor em
+// If-None-Match, a resposta vira um 304 sem corpo
+final class ETags {
+
+    private ETags() {
+    }
+
+    // o HTTP API do API Gateway entrega os headers em minúsculas; o servidor local mantém a grafia original
+    static String ifNoneMatch(APIGatewayProxyRequestEvent event) {
+        Map<String, String> headers = event.getHeaders();
+        if (headers == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if ("If-None-Match".equalsIgnoreCase(header.getKey())) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    // ETag forte a partir do corpo
+    static String ofBody(String body) {
+        return "\"" + digest(body) + "\"";
+    }
+
+    // ETag a partir da versão da lista; variant separa respostas diferentes da mesma versão (limit,
+    // filtros, página) e passa pelo mesmo SHA-256 do corpo: com um hash de 32 bits, duas páginas
+    // da mesma versão poderiam colidir e o cliente receberia um 304 errado
+    static String ofVersion(long version, String variant) {
+        return "\"v" + version + "-" + digest(variant) + "\"";
+    }
+
+    // metade de um SHA-256 já basta para não colidir
+    private static String digest(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    // If-None-Match aceita "*", uma lista separada por vírgulas e ETags fracos (W/"...")
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static APIGatewayProxyResponseEvent notModified(String etag) {
+        return new APIGatewayProxyResponseEvent().withStatusCode(304).withHeaders(Map.of("ETag", etag));
+    }
+
+    // 200 com o corpo e o ETag dele, ou 304 se o cliente já tiver essa versão
+    static APIGatewayProxyResponseEvent ok(String body, String etag, String ifNoneMatch) {
+        if (matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        return new APIGatewayProxyResponseEvent().withStatusCode(200).withHeaders(Map.of("ETag", etag)).withBody(body);
+    }
+}
@@ -0,0 +1,40 @@
+package example;
+
+// formatos aceitos no parâmetro "format" da exportação
+enum ExportFormat {
+
+    CSV("csv", ".csv", "text/csv", null),
+    // mesmo CSV comprimido. com Content-Encoding gzip o navegador descomprime sozinho no download
+    CSV_GZIP("csv-gzip", ".csv", "text/csv", "gzip"),
+    // um objeto JSON por linha
+    NDJSON("ndjson", ".ndjson", "application/x-ndjson", null);
+
+    final String id;
+    final String extension;
+    final String contentType;
+    final String contentEncoding;
+
+    ExportFormat(String id, String extension, String contentType, String contentEncoding) {
+        this.id = id;
+        this.extension = extension;
+        this.contentType = contentType;
+        this.contentEncoding = contentEncoding;
+    }
+
+    boolean isGzip() {
+        return "gzip".equals(contentEncoding);
+    }
+
+    // null ou vazio vira CSV; valor desconhecido devolve null
+    static ExportFormat fromId(String id) {
+        if (id == null || id.isEmpty()) {
+            return CSV;
+        }
+        for (ExportFormat format : values()) {
+            if (format.id.equalsIgnoreCase(id)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
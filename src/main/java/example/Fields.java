@@ -0,0 +1,66 @@
+package example;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// parâmetro fields= das leituras: escolhe os campos do JSON e, com eles, os atributos que o
+// DynamoDB devolve (ProjectionExpression). null = todos os campos
+final class Fields {
+
+    static final List<String> ITEM = List.of("itemId", "text", "createdAt", "completed");
+    static final List<String> LIST = List.of("userId", "listId", "name", "createdAt", "itemCount", "completedCount");
+
+    private Fields() {
+    }
+
+    static Set<String> parse(Map<String, String> queryParams, List<String> allowed) {
+        String raw = queryParams == null ? null : queryParams.get("fields");
+        if (raw == null || raw.isEmpty()) {
+            return null;
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        for (String field : raw.split(",")) {
+            String name = field.trim();
+            if (!allowed.contains(name)) {
+                throw new IllegalArgumentException("Campo desconhecido em fields: " + name + ". Use " + String.join(", ", allowed) + ".");
+            }
+            fields.add(name);
+        }
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("O parâmetro fields não tem nenhum campo.");
+        }
+        return fields;
+    }
+
+    static boolean includes(Set<String> fields, String name) {
+        return fields == null || fields.contains(name);
+    }
+
+    // atributos das linhas de item: os campos do JSON têm o mesmo nome dos atributos
+    static List<String> itemAttributes(Set<String> fields) {
+        return fields == null ? null : new ArrayList<>(fields);
+    }
+
+    // atributos da linha da lista: o listId sai do sk e os contadores vêm da linha META
+    static List<String> listAttributes(Set<String> fields) {
+        if (fields == null) {
+            return null;
+        }
+        List<String> attributes = new ArrayList<>();
+        for (String field : fields) {
+            if (field.equals("listId")) {
+                attributes.add("sk");
+            } else if (!field.equals("itemCount") && !field.equals("completedCount")) {
+                attributes.add(field);
+            }
+        }
+        return attributes;
+    }
+
+    static boolean needsCounts(Set<String> fields) {
+        return includes(fields, "itemCount") || includes(fields, "completedCount");
+    }
+}
@@ -4,40 +4,33 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.google.gson.Gson;
-import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
-import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
-import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 public class GetItemHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
 
-    private final DynamoDbClient dynamoDbClient;
-    private final String tableName;
-    private final Gson gson = new Gson();
+    private final TodoRepository repository;
 
     public GetItemHandler() {
-        this.dynamoDbClient = DynamoDbClient.builder().region(Region.SA_EAST_1).build();
-        this.tableName = System.getenv("TABLE_NAME");
+        this(CachingTodoRepository.shared());
+        Priming.register(this::prime);
     }
 
-    // classe interna para formatar a resposta do item
-    private static class ItemResponse {
-        private String itemId;
-        private String text;
-        private String createdAt;
-        private boolean completed;
+    // construtor para os testes
+    public GetItemHandler(DynamoDbClient dynamoDbClient, String tableName) {
+        this(new DynamoTodoRepository(dynamoDbClient, tableName));
+    }
 
-        public ItemResponse(Map<String, AttributeValue> item) {
-            this.itemId = item.get("itemId").s();
-            this.text = item.get("text").s();
-            this.createdAt = item.get("createdAt").s();
-            this.completed = item.get("completed").bool();
-        }
+    GetItemHandler(TodoRepository repository) {
+        this.repository = repository;
+    }
+
+    void prime() {
+        ETags.ofBody(ResponseJson.item(Priming.sampleItem()));
+        repository.prime();
     }
 
     @Override
@@ -46,34 +39,27 @@ public class GetItemHandler implements RequestHandler<APIGatewayProxyRequestEven
             String listId = event.getPathParameters().get("listId");
             String itemId = event.getPathParameters().get("itemId");
 
-            String pk = "LIST#" + listId;
-            String sk = "ITEM#" + itemId;
-
-            Map<String, AttributeValue> keyToGet = new HashMap<>();
-            keyToGet.put("pk", AttributeValue.builder().s(pk).build());
-            keyToGet.put("sk", AttributeValue.builder().s(sk).build());
-
-            GetItemRequest getItemRequest = GetItemRequest.builder()
-                    .tableName(this.tableName)
-                    .key(keyToGet)
-                    .build();
+            Set<String> fields;
+            try {
+                fields = Fields.parse(event.getQueryStringParameters(), Fields.ITEM);
+            } catch (IllegalArgumentException e) {
+                return new APIGatewayProxyResponseEvent().withStatusCode(400).withBody(ResponseJson.error(e.getMessage()));
+            }
 
-            GetItemResponse response = dynamoDbClient.getItem(getItemRequest);
+            Map<String, AttributeValue> item = repository.getItem(listId, itemId, Fields.itemAttributes(fields));
 
-            if (!response.hasItem()) {
+            if (item == null) {
                 return new APIGatewayProxyResponseEvent()
                         .withStatusCode(404)
                         .withBody("{\"message\": \"Item não encontrado.\"}");
             }
 
-            ItemResponse itemResponse = new ItemResponse(response.item());
-            return new APIGatewayProxyResponseEvent()
-                    .withStatusCode(200)
-                    .withBody(gson.toJson(itemResponse));
+            String body = ResponseJson.item(item, fields);
+            return ETags.ok(body, ETags.ofBody(body), ETags.ifNoneMatch(event));
 
         } catch (Exception e) {
             context.getLogger().log("ERRO AO OBTER ITEM: " + e.getMessage());
-            return new APIGatewayProxyResponseEvent().withStatusCode(500).withBody("{\"error\": \"Erro interno no servidor.\"}");
+            return Throttling.errorResponse(e);
         }
     }
 }
\ No newline at end of file
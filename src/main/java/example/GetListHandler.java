@@ -4,45 +4,38 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.google.gson.Gson;
-import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
-import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
-import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 public class GetListHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
 
-    private final DynamoDbClient dynamoDbClient;
-    private final String tableName;
-    private final Gson gson = new Gson();
+    private final TodoRepository repository;
 
     public GetListHandler() {
-        this.dynamoDbClient = DynamoDbClient.builder().region(Region.SA_EAST_1).build();
-        this.tableName = System.getenv("TABLE_NAME");
+        this(CachingTodoRepository.shared());
+        Priming.register(this::prime);
     }
 
     public GetListHandler(DynamoDbClient dynamoDbClient, String tableName) {
-        this.dynamoDbClient = dynamoDbClient;
-        this.tableName = tableName;
+        this(new DynamoTodoRepository(dynamoDbClient, tableName));
     }
 
-    // classe interna para formatar a resposta JSON
-    private static class ListResponse {
-        private String userId;
-        private String listId;
-        private String name;
-        private String createdAt;
+    GetListHandler(TodoRepository repository) {
+        this.repository = repository;
+    }
 
-        public ListResponse(String userId, String listId, String name, String createdAt) {
-            this.userId = userId;
-            this.listId = listId;
-            this.name = name;
-            this.createdAt = createdAt;
-        }
+    void prime() {
+        ResponseJson.list(Map.of(
+                "userId", AttributeValue.builder().s("priming").build(),
+                "sk", AttributeValue.builder().s("LIST#priming").build(),
+                "name", AttributeValue.builder().s("priming").build(),
+                "createdAt", AttributeValue.builder().s("priming").build()), Map.of(
+                "itemCount", AttributeValue.builder().n("0").build(),
+                "completedCount", AttributeValue.builder().n("0").build()));
+        repository.prime();
     }
 
     @Override
@@ -51,36 +44,28 @@ public class GetListHandler implements RequestHandler<APIGatewayProxyRequestEven
             String userId = event.getPathParameters().get("userId");
             String listId = event.getPathParameters().get("listId");
 
-            Map<String, AttributeValue> keyToGet = new HashMap<>();
-            keyToGet.put("pk", AttributeValue.builder().s("USER#" + userId).build());
-            keyToGet.put("sk", AttributeValue.builder().s("LIST#" + listId).build());
-
-            GetItemRequest getItemRequest = GetItemRequest.builder()
-                    .tableName(this.tableName)
-                    .key(keyToGet)
-                    .build();
+            Set<String> fields;
+            try {
+                fields = Fields.parse(event.getQueryStringParameters(), Fields.LIST);
+            } catch (IllegalArgumentException e) {
+                return new APIGatewayProxyResponseEvent().withStatusCode(400).withBody(ResponseJson.error(e.getMessage()));
+            }
 
-            GetItemResponse response = dynamoDbClient.getItem(getItemRequest);
+            Map<String, AttributeValue> list = repository.getList(userId, listId, Fields.listAttributes(fields));
 
-            if (!response.hasItem()) {
+            if (list == null) {
                 return new APIGatewayProxyResponseEvent().withStatusCode(404).withBody("{\"message\": \"Lista não encontrada.\"}");
             }
 
-            Map<String, AttributeValue> item = response.item();
-
-            ListResponse listResponse = new ListResponse(
-                    item.get("userId").s(),
-                    item.get("sk").s().replace("LIST#", ""), // Extrai o ID do SK
-                    item.get("name").s(),
-                    item.get("createdAt").s()
-            );
-
-            // converte o objeto de resposta para JSON
-            return new APIGatewayProxyResponseEvent().withStatusCode(200).withBody(gson.toJson(listResponse));
+            // contadores mantidos pelas escritas de item: uma leitura a mais em vez de contar a partição,
+            // e nenhuma se fields não pedir os contadores
+            Map<String, AttributeValue> stats = Fields.needsCounts(fields) ? repository.getListStats(listId) : null;
+            String body = ResponseJson.list(list, stats, fields);
+            return ETags.ok(body, ETags.ofBody(body), ETags.ifNoneMatch(event));
 
         } catch (Exception e) {
             context.getLogger().log("ERRO AO OBTER LISTA: " + e.getMessage());
-            return new APIGatewayProxyResponseEvent().withStatusCode(500).withBody("{\"error\": \"Erro interno no servidor.\"}");
+            return Throttling.errorResponse(e);
         }
     }
 }
\ No newline at end of file
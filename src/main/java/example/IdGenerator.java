@@ -0,0 +1,64 @@
+package example;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// gera os IDs de listas e itens no formato UUID v7: os primeiros 48 bits são o instante em
+// milissegundos, então a ordem do texto do ID (e do sk ITEM#<id>) é a ordem de criação.
+// dentro do mesmo milissegundo os 12 bits seguintes são um contador, o que mantém os IDs
+// deste container estritamente crescentes sem trava (só um compare-and-set).
+// o resto é aleatório, de um SecureRandom por thread que é trocado depois de um restore do
+// SnapStart: todas as cópias restauradas do mesmo snapshot começariam com o mesmo estado.
+// IDs antigos (UUID v4) continuam válidos, só não têm ordem.
+final class IdGenerator {
+
+    // instante em que os IDs passaram a ser ordenados pelo tempo; linhas criadas antes têm UUID v4.
+    // vem de TIME_ORDERED_IDS_SINCE (ISO-8601), gravado pelo terraform no deploy que trouxe os
+    // IDs ordenados. sem a variável (tabela nova, servidor local) não há linhas anteriores
+    static final String TIME_ORDERED_SINCE_ENV = "TIME_ORDERED_IDS_SINCE";
+    static final Instant TIME_ORDERED_SINCE = parseTimeOrderedSince(System.getenv(TIME_ORDERED_SINCE_ENV));
+
+    private static volatile ThreadLocal<SecureRandom> random = ThreadLocal.withInitial(SecureRandom::new);
+
+    // (milissegundos << 12) | contador do último ID gerado
+    private static final AtomicLong last = new AtomicLong();
+
+    private IdGenerator() {
+    }
+
+    static String newId() {
+        long now = System.currentTimeMillis() << 12;
+        // se o contador estourar no mesmo milissegundo, o ID avança para o milissegundo seguinte
+        long state = last.updateAndGet(previous -> Math.max(previous + 1, now));
+
+        long mostSignificant = ((state >>> 12) << 16) | 0x7000L | (state & 0xfff); // versão 7
+        long leastSignificant = (random.get().nextLong() & 0x3fffffffffffffffL) | 0x8000000000000000L; // variante IETF
+        return new UUID(mostSignificant, leastSignificant).toString();
+    }
+
+    // início do texto dos IDs gerados no milissegundo dado: todo ID gerado nele ou depois é
+    // maior ou igual a este prefixo, e todo ID anterior é menor
+    static String timePrefix(long epochMillis) {
+        String hex = Long.toHexString(0x1000000000000L | epochMillis).substring(1);
+        return hex.substring(0, 8) + "-" + hex.substring(8);
+    }
+
+    // um valor inválido derruba a inicialização: seguir sem ele misturaria IDs v4 nas consultas por data.
+    // uma fração de segundo é arredondada para o segundo seguinte, porque o filtro por createdAt só
+    // compara segundos inteiros (DynamoTodoRepository.createdAtCutoff); para cima, nenhum v4 entra
+    static Instant parseTimeOrderedSince(String raw) {
+        if (raw == null || raw.isEmpty()) {
+            return Instant.EPOCH;
+        }
+        Instant since = Instant.parse(raw);
+        Instant seconds = since.truncatedTo(ChronoUnit.SECONDS);
+        return seconds.equals(since) ? since : seconds.plusSeconds(1);
+    }
+
+    static void reseed() {
+        random = ThreadLocal.withInitial(SecureRandom::new);
+    }
+}
@@ -0,0 +1,447 @@
+package example;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// repositório em memória para teste de carga e profiling sem AWS. usa o mesmo esquema de
+// chaves do DynamoTodoRepository: cada partição (pk) é um mapa ordenado por sk, então as
+// queries devolvem na mesma ordem e paginam com o mesmo formato de lastEvaluatedKey.
+// as linhas guardadas são imutáveis; toda escrita troca a linha inteira com compare-and-set
+final class InMemoryTodoRepository implements TodoRepository {
+
+    private final ConcurrentHashMap<String, ConcurrentSkipListMap<String, Map<String, AttributeValue>>> partitions = new ConcurrentHashMap<>();
+
+    @Override
+    public void putList(String userId, String listId, String name, String createdAt) {
+        put(DynamoTodoRepository.listRow(userId, listId, name, createdAt));
+    }
+
+    @Override
+    public Map<String, AttributeValue> getList(String userId, String listId) {
+        return get("USER#" + userId, "LIST#" + listId);
+    }
+
+    // a linha guardada já está na memória: a projeção fica só no JSON
+    @Override
+    public Map<String, AttributeValue> getList(String userId, String listId, List<String> attributes) {
+        return getList(userId, listId);
+    }
+
+    @Override
+    public void renameList(String userId, String listId, String name) {
+        // o UpdateItem do DynamoDB cria a linha se ela não existir
+        update("USER#" + userId, "LIST#" + listId, true, row -> row.put("name", AttributeValue.builder().s(name).build()));
+    }
+
+    @Override
+    public boolean markListDeleting(String userId, String listId) {
+        return update("USER#" + userId, "LIST#" + listId, false,
+                row -> row.put("deleteRequestedAt", AttributeValue.builder().s(Instant.now().toString()).build()));
+    }
+
+    @Override
+    public boolean deleteList(String userId, String listId) {
+        ConcurrentSkipListMap<String, Map<String, AttributeValue>> partition = partitions.get("USER#" + userId);
+        return partition != null && partition.remove("LIST#" + listId) != null;
+    }
+
+    @Override
+    public Map<String, AttributeValue> getListStats(String listId) {
+        return get("LIST#" + listId, DynamoTodoRepository.META_SK);
+    }
+
+    @Override
+    public Page queryLists(String userId, Integer limit, Map<String, AttributeValue> exclusiveStartKey) {
+        NavigableMap<String, Map<String, AttributeValue>> rows = prefixRowsAfter("USER#" + userId, "LIST#", exclusiveStartKey);
+        return limitedPage(rows, limit);
+    }
+
+    @Override
+    public boolean isListCursorOf(String userId, Map<String, AttributeValue> exclusiveStartKey) {
+        return DynamoTodoRepository.isCursorOf("USER#" + userId, exclusiveStartKey);
+    }
+
+    @Override
+    public Map<String, Map<String, AttributeValue>> batchGetListStats(List<String> listIds) {
+        Map<String, Map<String, AttributeValue>> statsById = new HashMap<>();
+        for (String listId : listIds) {
+            Map<String, AttributeValue> stats = getListStats(listId);
+            if (stats != null) {
+                statsById.put(listId, stats);
+            }
+        }
+        return statsById;
+    }
+
+    // as escritas de item travam a partição da lista para que item e contadores mudem juntos,
+    // como na transação do DynamoDB; as leituras continuam sem trava
+    @Override
+    public void putItem(String listId, String itemId, String text, String createdAt) {
+        synchronized (partition("LIST#" + listId)) {
+            put(DynamoTodoRepository.itemRow(listId, itemId, text, createdAt));
+            addListStats(listId, 1, 0);
+        }
+    }
+
+    @Override
+    public void putItems(String listId, Map<String, String> textsById, String createdAt) {
+        synchronized (partition("LIST#" + listId)) {
+            for (Map.Entry<String, String> entry : textsById.entrySet()) {
+                put(DynamoTodoRepository.itemRow(listId, entry.getKey(), entry.getValue(), createdAt));
+            }
+            addListStats(listId, textsById.size(), 0);
+        }
+    }
+
+    @Override
+    public Map<String, AttributeValue> getItem(String listId, String itemId) {
+        return get("LIST#" + listId, "ITEM#" + itemId);
+    }
+
+    @Override
+    public Map<String, AttributeValue> getItem(String listId, String itemId, List<String> attributes) {
+        return getItem(listId, itemId);
+    }
+
+    @Override
+    public boolean updateItem(String listId, String itemId, String text, Boolean completed) {
+        synchronized (partition("LIST#" + listId)) {
+            Integer completedDelta = updateItemWithoutStats(listId, itemId, text, completed);
+            if (completedDelta == null) {
+                return false;
+            }
+            addListStats(listId, 0, completedDelta);
+            return true;
+        }
+    }
+
+    @Override
+    public Integer updateItemWithoutStats(String listId, String itemId, String text, Boolean completed) {
+        // a mudança pode rodar de novo se o compare-and-set perder; vale a última leitura
+        boolean[] previous = new boolean[1];
+        boolean updated = update("LIST#" + listId, "ITEM#" + itemId, false, row -> {
+            AttributeValue current = row.get("completed");
+            previous[0] = current != null && Boolean.TRUE.equals(current.bool());
+            if (text != null) {
+                row.put("text", AttributeValue.builder().s(text).build());
+            }
+            if (completed != null) {
+                row.put("completed", AttributeValue.builder().bool(completed).build());
+                if (completed) {
+                    row.remove(DynamoTodoRepository.OPEN_ATTRIBUTE);
+                } else {
+                    row.put(DynamoTodoRepository.OPEN_ATTRIBUTE, AttributeValue.builder().s("LIST#" + listId).build());
+                }
+            }
+        });
+        if (!updated) {
+            return null;
+        }
+        return completed == null || completed == previous[0] ? 0 : (completed ? 1 : -1);
+    }
+
+    @Override
+    public void addListStats(String listId, long itemDelta, long completedDelta) {
+        update("LIST#" + listId, DynamoTodoRepository.META_SK, true, row -> {
+            add(row, "version", 1);
+            add(row, "itemCount", itemDelta);
+            add(row, "completedCount", completedDelta);
+        });
+    }
+
+    @Override
+    public void deleteItem(String listId, String itemId) {
+        synchronized (partition("LIST#" + listId)) {
+            Map<String, AttributeValue> existing = get("LIST#" + listId, "ITEM#" + itemId);
+            if (existing == null) {
+                return;
+            }
+            delete("LIST#" + listId, "ITEM#" + itemId);
+            addListStats(listId, -1, Boolean.TRUE.equals(existing.get("completed").bool()) ? -1 : 0);
+        }
+    }
+
+    @Override
+    public Long getListVersion(String listId) {
+        Map<String, AttributeValue> meta = get("LIST#" + listId, DynamoTodoRepository.META_SK);
+        return meta == null ? null : Long.valueOf(meta.get("version").n());
+    }
+
+    // como o ADD do DynamoDB: atributo ausente conta como zero
+    private static void add(Map<String, AttributeValue> row, String name, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        AttributeValue current = row.get(name);
+        long value = (current == null ? 0 : Long.parseLong(current.n())) + delta;
+        row.put(name, AttributeValue.builder().n(String.valueOf(value)).build());
+    }
+
+    @Override
+    public Page queryItems(String listId, Integer limit, Map<String, AttributeValue> exclusiveStartKey, List<String> attributes) {
+        return limitedPage(prefixRowsAfter("LIST#" + listId, "ITEM#", exclusiveStartKey), limit);
+    }
+
+    private static Page limitedPage(NavigableMap<String, Map<String, AttributeValue>> rows, Integer limit) {
+        int max = limit == null ? Integer.MAX_VALUE : limit;
+
+        List<Map<String, AttributeValue>> items = new ArrayList<>(Math.min(max, 128));
+        Iterator<Map<String, AttributeValue>> iterator = rows.values().iterator();
+        while (iterator.hasNext() && items.size() < max) {
+            items.add(iterator.next());
+        }
+        return new Page(items, iterator.hasNext() && !items.isEmpty() ? lastKey(items) : null);
+    }
+
+    // o índice esparso do DynamoDB só tem as linhas com openList; aqui elas são filtradas da
+    // partição, na mesma ordem de sk e com a chave do índice no cursor
+    @Override
+    public Page queryOpenItems(String listId, Integer limit, Map<String, AttributeValue> exclusiveStartKey, List<String> attributes) {
+        int max = limit == null ? Integer.MAX_VALUE : limit;
+        List<Map<String, AttributeValue>> items = new ArrayList<>(Math.min(max, 128));
+        Iterator<Map<String, AttributeValue>> iterator = prefixRowsAfter("LIST#" + listId, "ITEM#", exclusiveStartKey).values().iterator();
+        boolean more = false;
+        while (iterator.hasNext()) {
+            Map<String, AttributeValue> row = iterator.next();
+            if (!row.containsKey(DynamoTodoRepository.OPEN_ATTRIBUTE)) {
+                continue;
+            }
+            if (items.size() == max) {
+                more = true;
+                break;
+            }
+            items.add(row);
+        }
+        return new Page(items, more && !items.isEmpty() ? cursorOf(items.get(items.size() - 1), true) : null);
+    }
+
+    // o cursor de uma query no índice traz também a chave do índice
+    private static Map<String, AttributeValue> cursorOf(Map<String, AttributeValue> last, boolean openOnly) {
+        if (!openOnly) {
+            return Map.of("pk", last.get("pk"), "sk", last.get("sk"));
+        }
+        return Map.of("pk", last.get("pk"), "sk", last.get("sk"),
+                DynamoTodoRepository.OPEN_ATTRIBUTE, last.get(DynamoTodoRepository.OPEN_ATTRIBUTE));
+    }
+
+    @Override
+    public Page queryItemsByTime(String listId, boolean openOnly, Instant createdAfter, boolean newestFirst,
+                                 Integer limit, Map<String, AttributeValue> exclusiveStartKey, List<String> attributes) {
+        ConcurrentSkipListMap<String, Map<String, AttributeValue>> partition = partitions.get("LIST#" + listId);
+        if (partition == null) {
+            return new Page(List.of(), null);
+        }
+        NavigableMap<String, Map<String, AttributeValue>> rows = partition.subMap(
+                DynamoTodoRepository.timeRangeStart(createdAfter), true,
+                DynamoTodoRepository.timeRangeEnd(System.currentTimeMillis()), true);
+        if (newestFirst) {
+            rows = rows.descendingMap();
+        }
+        AttributeValue startSk = exclusiveStartKey == null ? null : exclusiveStartKey.get("sk");
+        if (startSk != null) {
+            rows = rows.tailMap(startSk.s(), false);
+        }
+
+        String since = DynamoTodoRepository.createdAtCutoff();
+        int max = limit == null ? Integer.MAX_VALUE : limit;
+        List<Map<String, AttributeValue>> items = new ArrayList<>(Math.min(max, 128));
+        boolean more = false;
+        for (Map<String, AttributeValue> row : rows.values()) {
+            if (openOnly && !row.containsKey(DynamoTodoRepository.OPEN_ATTRIBUTE)
+                    || row.get("createdAt").s().compareTo(since) < 0) {
+                continue;
+            }
+            if (items.size() == max) {
+                more = true;
+                break;
+            }
+            items.add(row);
+        }
+        return new Page(items, more ? cursorOf(items.get(items.size() - 1), openOnly) : null);
+    }
+
+    @Override
+    public Page queryItemIds(String listId, boolean completed, int limit, Map<String, AttributeValue> exclusiveStartKey) {
+        List<Map<String, AttributeValue>> items = new ArrayList<>();
+        Map<String, AttributeValue> last = null;
+        int read = 0;
+        for (Map<String, AttributeValue> row : prefixRowsAfter("LIST#" + listId, "ITEM#", exclusiveStartKey).values()) {
+            // como o Limit do DynamoDB: conta as linhas lidas, não as que passam no filtro
+            if (read == limit) {
+                return new Page(items, cursorOf(last, false));
+            }
+            read++;
+            last = row;
+            AttributeValue value = row.get("completed");
+            if (value != null && value.bool() != null && value.bool() == completed) {
+                items.add(Map.of("itemId", row.get("itemId")));
+            }
+        }
+        return new Page(items, null);
+    }
+
+    @Override
+    public boolean isItemCursorOf(String listId, Map<String, AttributeValue> exclusiveStartKey) {
+        return DynamoTodoRepository.isCursorOf("LIST#" + listId, exclusiveStartKey)
+                && (exclusiveStartKey == null || !exclusiveStartKey.containsKey(DynamoTodoRepository.OPEN_ATTRIBUTE));
+    }
+
+    @Override
+    public boolean isOpenItemCursorOf(String listId, Map<String, AttributeValue> exclusiveStartKey) {
+        return DynamoTodoRepository.isCursorOf("LIST#" + listId, exclusiveStartKey)
+                && (exclusiveStartKey == null || exclusiveStartKey.containsKey(DynamoTodoRepository.OPEN_ATTRIBUTE));
+    }
+
+    @Override
+    public Map<String, AttributeValue> deleteItemsPage(String listId, int limit, Map<String, AttributeValue> exclusiveStartKey) {
+        String pk = "LIST#" + listId;
+        ConcurrentSkipListMap<String, Map<String, AttributeValue>> partition = partitions.get(pk);
+        if (partition == null) {
+            return null;
+        }
+        int deleted = 0;
+        String lastSk = null;
+        for (String sk : rowsAfter(pk, exclusiveStartKey).keySet()) {
+            if (deleted == limit) {
+                return DynamoTodoRepository.key(pk, lastSk);
+            }
+            partition.remove(sk);
+            lastSk = sk;
+            deleted++;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean claimExport(String listId, String userId, String formatId, long now, long expiresAt) {
+        Map<String, AttributeValue> marker = DynamoTodoRepository.key("EXPORT#" + listId, "USER#" + userId + "#" + formatId);
+        marker.put("requestedAt", AttributeValue.builder().n(String.valueOf(now)).build());
+        marker.put("expiresAt", AttributeValue.builder().n(String.valueOf(expiresAt)).build());
+        Map<String, AttributeValue> row = Map.copyOf(marker);
+
+        ConcurrentSkipListMap<String, Map<String, AttributeValue>> partition = partition("EXPORT#" + listId);
+        String sk = "USER#" + userId + "#" + formatId;
+        while (true) {
+            Map<String, AttributeValue> existing = partition.get(sk);
+            if (existing == null) {
+                if (partition.putIfAbsent(sk, row) == null) {
+                    return true;
+                }
+                continue;
+            }
+            // mesma condição do DynamoDB: attribute_not_exists(pk) OR expiresAt < :now
+            if (Long.parseLong(existing.get("expiresAt").n()) >= now) {
+                return false;
+            }
+            if (partition.replace(sk, existing, row)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void releaseExport(String listId, String userId, String formatId) {
+        delete("EXPORT#" + listId, "USER#" + userId + "#" + formatId);
+    }
+
+    @Override
+    public Map<String, AttributeValue> getLatestReport(String listId, String formatId) {
+        return get("EXPORT#" + listId, "LATEST#" + formatId);
+    }
+
+    @Override
+    public void saveLatestReport(String listId, String formatId, Long listVersion, String s3Key, String createdAt) {
+        Map<String, AttributeValue> item = DynamoTodoRepository.key("EXPORT#" + listId, "LATEST#" + formatId);
+        if (listVersion != null) {
+            item.put("listVersion", AttributeValue.builder().n(String.valueOf(listVersion)).build());
+        }
+        item.put("s3Key", AttributeValue.builder().s(s3Key).build());
+        item.put("createdAt", AttributeValue.builder().s(createdAt).build());
+        put(item);
+    }
+
+    @Override
+    public void prime() {
+    }
+
+    private ConcurrentSkipListMap<String, Map<String, AttributeValue>> partition(String pk) {
+        return partitions.computeIfAbsent(pk, ignored -> new ConcurrentSkipListMap<>());
+    }
+
+    private void put(Map<String, AttributeValue> row) {
+        partition(row.get("pk").s()).put(row.get("sk").s(), Map.copyOf(row));
+    }
+
+    private Map<String, AttributeValue> get(String pk, String sk) {
+        ConcurrentSkipListMap<String, Map<String, AttributeValue>> partition = partitions.get(pk);
+        return partition == null ? null : partition.get(sk);
+    }
+
+    private void delete(String pk, String sk) {
+        ConcurrentSkipListMap<String, Map<String, AttributeValue>> partition = partitions.get(pk);
+        if (partition != null) {
+            partition.remove(sk);
+        }
+    }
+
+    private interface RowChange {
+        void apply(Map<String, AttributeValue> row);
+    }
+
+    // copia a linha, aplica a mudança e troca só se ninguém mudou a linha no meio tempo
+    private boolean update(String pk, String sk, boolean upsert, RowChange change) {
+        ConcurrentSkipListMap<String, Map<String, AttributeValue>> partition = upsert ? partition(pk) : partitions.get(pk);
+        if (partition == null) {
+            return false;
+        }
+        while (true) {
+            Map<String, AttributeValue> existing = partition.get(sk);
+            if (existing == null && !upsert) {
+                return false;
+            }
+            Map<String, AttributeValue> updated = existing == null ? DynamoTodoRepository.key(pk, sk) : new HashMap<>(existing);
+            change.apply(updated);
+            Map<String, AttributeValue> row = Map.copyOf(updated);
+            boolean swapped = existing == null ? partition.putIfAbsent(sk, row) == null : partition.replace(sk, existing, row);
+            if (swapped) {
+                return true;
+            }
+        }
+    }
+
+    // linhas da partição depois do cursor, em ordem de sk
+    private NavigableMap<String, Map<String, AttributeValue>> rowsAfter(String pk, Map<String, AttributeValue> exclusiveStartKey) {
+        ConcurrentSkipListMap<String, Map<String, AttributeValue>> partition = partitions.get(pk);
+        if (partition == null) {
+            return new ConcurrentSkipListMap<>();
+        }
+        AttributeValue startSk = exclusiveStartKey == null ? null : exclusiveStartKey.get("sk");
+        return startSk == null ? partition : partition.tailMap(startSk.s(), false);
+    }
+
+    // como o begins_with(sk, prefix) das queries: só as linhas com o prefixo (ex.: "ITEM#")
+    private NavigableMap<String, Map<String, AttributeValue>> prefixRowsAfter(String pk, String prefix, Map<String, AttributeValue> exclusiveStartKey) {
+        ConcurrentSkipListMap<String, Map<String, AttributeValue>> partition = partitions.get(pk);
+        if (partition == null) {
+            return new ConcurrentSkipListMap<>();
+        }
+        String end = prefix.substring(0, prefix.length() - 1) + (char) (prefix.charAt(prefix.length() - 1) + 1);
+        NavigableMap<String, Map<String, AttributeValue>> items = partition.subMap(prefix, true, end, false);
+        AttributeValue startSk = exclusiveStartKey == null ? null : exclusiveStartKey.get("sk");
+        return startSk == null ? items : items.tailMap(startSk.s(), false);
+    }
+
+    private static Map<String, AttributeValue> lastKey(List<Map<String, AttributeValue>> items) {
+        Map<String, AttributeValue> last = items.get(items.size() - 1);
+        return Map.of("pk", last.get("pk"), "sk", last.get("sk"));
+    }
+}
@@ -4,69 +4,156 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.google.gson.Gson;
-import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
-import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
-import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
 
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 public class ListItemsHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
 
-    private final DynamoDbClient dynamoDbClient;
-    private final String tableName;
-    private final Gson gson = new Gson();
+    static final int DEFAULT_LIMIT = 100;
+    static final int MAX_LIMIT = 1000;
+
+    private final TodoRepository repository;
 
     public ListItemsHandler() {
-        this.dynamoDbClient = DynamoDbClient.builder().region(Region.SA_EAST_1).build();
-        this.tableName = System.getenv("TABLE_NAME");
+        this(CachingTodoRepository.shared());
+        Priming.register(this::prime);
     }
 
-    // Classe interna para formatar a resposta de cada item
-    private static class ItemResponse {
-        private String itemId;
-        private String text;
-        private String createdAt;
-        private boolean completed;
-
-        public ItemResponse(Map<String, AttributeValue> item) {
-            this.itemId = item.get("itemId").s();
-            this.text = item.get("text").s();
-            this.createdAt = item.get("createdAt").s();
-            this.completed = item.get("completed").bool();
-        }
+    // construtor para os testes
+    public ListItemsHandler(DynamoDbClient dynamoDbClient, String tableName) {
+        this(new DynamoTodoRepository(dynamoDbClient, tableName));
+    }
+
+    ListItemsHandler(TodoRepository repository) {
+        this.repository = repository;
+    }
+
+    void prime() {
+        Map<String, AttributeValue> sample = Priming.sampleItem();
+        ResponseJson.itemPage(List.of(sample), PaginationToken.encode(Map.of("pk", sample.get("pk"))));
+        repository.prime();
     }
 
     @Override
     public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent event, Context context) {
         try {
             String listId = event.getPathParameters().get("listId");
-            String pk = "LIST#" + listId;
 
-            QueryRequest queryRequest = QueryRequest.builder()
-                    .tableName(this.tableName)
-                    .keyConditionExpression("pk = :pkVal")
-                    .expressionAttributeValues(Map.of(":pkVal", AttributeValue.builder().s(pk).build()))
-                    .build();
+            Map<String, String> queryParams = event.getQueryStringParameters();
+            int limit;
+            Map<String, AttributeValue> exclusiveStartKey;
+            boolean openOnly;
+            Instant createdAfter;
+            boolean newestFirst;
+            Set<String> fields;
+            try {
+                limit = parseLimit(queryParams == null ? null : queryParams.get("limit"), DEFAULT_LIMIT, MAX_LIMIT);
+                exclusiveStartKey = PaginationToken.decode(queryParams == null ? null : queryParams.get("nextToken"));
+                openOnly = parseOpenOnly(queryParams == null ? null : queryParams.get("completed"));
+                createdAfter = parseCreatedAfter(queryParams == null ? null : queryParams.get("createdAfter"));
+                newestFirst = parseNewestFirst(queryParams == null ? null : queryParams.get("order"));
+                fields = Fields.parse(queryParams, Fields.ITEM);
+            } catch (IllegalArgumentException e) {
+                return new APIGatewayProxyResponseEvent().withStatusCode(400).withBody(ResponseJson.error(e.getMessage()));
+            }
+
+            // um cursor de outra lista (ou da listagem sem o filtro) faria o DynamoDB rejeitar a query
+            boolean validCursor = openOnly ? repository.isOpenItemCursorOf(listId, exclusiveStartKey)
+                    : repository.isItemCursorOf(listId, exclusiveStartKey);
+            if (!validCursor) {
+                return new APIGatewayProxyResponseEvent().withStatusCode(400).withBody("{\"error\": \"Token de paginação inválido.\"}");
+            }
 
-            QueryResponse response = dynamoDbClient.query(queryRequest);
+            // o ETag pela versão só vale com leitura forte da tabela, lida depois da versão: a página
+            // reflete pelo menos essa versão. o índice dos pendentes só tem leitura eventual e
+            // poderia devolver uma página velha com o ETag novo; ali o ETag sai do corpo
+            String ifNoneMatch = ETags.ifNoneMatch(event);
+            Long version = openOnly ? null : repository.getListVersion(listId);
+            String etag = version == null ? null
+                    : ETags.ofVersion(version, limit + "|" + openOnly + "|" + createdAfter + "|" + newestFirst + "|" + fields
+                            + "|" + (queryParams == null ? null : queryParams.get("nextToken")));
+            if (etag != null && ETags.matches(ifNoneMatch, etag)) {
+                return ETags.notModified(etag);
+            }
 
-            // transforma a lista de itens do DynamoDB em uma lista de objetos de resposta limpos
-            List<ItemResponse> items = response.items().stream()
-                    .map(ItemResponse::new)
-                    .collect(Collectors.toList());
+            // completed=false lê só o índice esparso dos pendentes; createdAfter e order=desc viram uma
+            // faixa de sk (IDs ordenados pelo tempo), que lê só as linhas pedidas
+            // fields= vira a ProjectionExpression: o DynamoDB só devolve os atributos que vão para o JSON
+            List<String> attributes = Fields.itemAttributes(fields);
+            TodoRepository.Page page;
+            if (createdAfter != null || newestFirst) {
+                page = repository.queryItemsByTime(listId, openOnly, createdAfter, newestFirst, limit, exclusiveStartKey, attributes);
+            } else if (openOnly) {
+                page = repository.queryOpenItems(listId, limit, exclusiveStartKey, attributes);
+            } else {
+                page = repository.queryItems(listId, limit, exclusiveStartKey, attributes);
+            }
 
-            return new APIGatewayProxyResponseEvent()
-                    .withStatusCode(200)
-                    .withBody(gson.toJson(items));
+            String nextToken = page.lastEvaluatedKey != null ? PaginationToken.encode(page.lastEvaluatedKey) : null;
+            String body = ResponseJson.itemPage(page.items, nextToken, fields);
+
+            // pendentes ou lista sem versão (nunca escrita desde que a versão existe): ETag pelo conteúdo
+            return ETags.ok(body, etag != null ? etag : ETags.ofBody(body), ifNoneMatch);
 
         } catch (Exception e) {
             context.getLogger().log("ERRO AO LISTAR ITENS: " + e.getMessage());
-            return new APIGatewayProxyResponseEvent().withStatusCode(500).withBody("{\"error\": \"Erro interno no servidor.\"}");
+            return Throttling.errorResponse(e);
+        }
+    }
+
+    // só o filtro dos pendentes tem índice; completed=true exigiria ler a lista inteira
+    private static boolean parseOpenOnly(String rawCompleted) {
+        if (rawCompleted == null || rawCompleted.isEmpty()) {
+            return false;
+        }
+        if (rawCompleted.equals("false")) {
+            return true;
+        }
+        throw new IllegalArgumentException("O parâmetro completed aceita apenas false.");
+    }
+
+    private static Instant parseCreatedAfter(String rawCreatedAfter) {
+        if (rawCreatedAfter == null || rawCreatedAfter.isEmpty()) {
+            return null;
+        }
+        try {
+            return Instant.parse(rawCreatedAfter);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("O parâmetro createdAfter deve ser uma data ISO-8601 em UTC.");
+        }
+    }
+
+    // asc (padrão) é a ordem do sk; desc só existe como faixa de tempo
+    private static boolean parseNewestFirst(String rawOrder) {
+        if (rawOrder == null || rawOrder.isEmpty() || rawOrder.equals("asc")) {
+            return false;
+        }
+        if (rawOrder.equals("desc")) {
+            return true;
+        }
+        throw new IllegalArgumentException("O parâmetro order deve ser asc ou desc.");
+    }
+
+    // também usado pela listagem de listas, com outros limites
+    static int parseLimit(String rawLimit, int defaultLimit, int maxLimit) {
+        if (rawLimit == null || rawLimit.isEmpty()) {
+            return defaultLimit;
+        }
+        int limit;
+        try {
+            limit = Integer.parseInt(rawLimit);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("O parâmetro limit deve ser um número.");
+        }
+        if (limit < 1 || limit > maxLimit) {
+            throw new IllegalArgumentException("O parâmetro limit deve estar entre 1 e " + maxLimit + ".");
         }
+        return limit;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,33 @@
+package example;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Map;
+
+// apaga todas as linhas da partição LIST#<listId> (os itens da lista), uma página por vez.
+// no DynamoDB cada página lê só as chaves e é apagada com BatchWriteItem em paralelo.
+final class ListItemsPurger {
+
+    // tamanho da página lida do DynamoDB (cada página vira até 20 lotes de 25 deletes)
+    static final int PAGE_SIZE = 500;
+
+    private ListItemsPurger() {
+    }
+
+    // apaga uma página e devolve a chave para continuar, ou null quando a partição acabou
+    static Map<String, AttributeValue> purgePage(TodoRepository repository, String listId,
+                                                 Map<String, AttributeValue> exclusiveStartKey) {
+        return repository.deleteItemsPage(listId, PAGE_SIZE, exclusiveStartKey);
+    }
+
+    // apaga a partição inteira; devolve quantas páginas foram processadas
+    static int purgeAll(TodoRepository repository, String listId) {
+        int pages = 0;
+        Map<String, AttributeValue> exclusiveStartKey = null;
+        do {
+            exclusiveStartKey = purgePage(repository, listId, exclusiveStartKey);
+            pages++;
+        } while (exclusiveStartKey != null);
+        return pages;
+    }
+}
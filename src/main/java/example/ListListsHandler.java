@@ -0,0 +1,102 @@
+package example;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// listas do usuário numa query paginada da partição USER#<userId>, em vez de um GetItem por lista
+public class ListListsHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
+
+    static final int DEFAULT_LIMIT = 50;
+    // uma página inteira de contadores cabe num só BatchGetItem
+    static final int MAX_LIMIT = DynamoTodoRepository.BATCH_GET_SIZE;
+
+    private final TodoRepository repository;
+
+    public ListListsHandler() {
+        this(CachingTodoRepository.shared());
+        Priming.register(this::prime);
+    }
+
+    // construtor para os testes
+    public ListListsHandler(DynamoDbClient dynamoDbClient, String tableName) {
+        this(new DynamoTodoRepository(dynamoDbClient, tableName));
+    }
+
+    ListListsHandler(TodoRepository repository) {
+        this.repository = repository;
+    }
+
+    void prime() {
+        Map<String, AttributeValue> sample = Map.of(
+                "userId", AttributeValue.builder().s("priming").build(),
+                "sk", AttributeValue.builder().s("LIST#priming").build(),
+                "name", AttributeValue.builder().s("priming").build(),
+                "createdAt", AttributeValue.builder().s("priming").build());
+        ResponseJson.listPage(List.of(sample), Map.of("priming", Map.of(
+                "itemCount", AttributeValue.builder().n("0").build(),
+                "completedCount", AttributeValue.builder().n("0").build())), null);
+        repository.prime();
+    }
+
+    @Override
+    public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent event, Context context) {
+        try {
+            String userId = event.getPathParameters().get("userId");
+
+            Map<String, String> queryParams = event.getQueryStringParameters();
+            int limit;
+            Map<String, AttributeValue> exclusiveStartKey;
+            boolean includeCounts;
+            try {
+                limit = ListItemsHandler.parseLimit(queryParams == null ? null : queryParams.get("limit"), DEFAULT_LIMIT, MAX_LIMIT);
+                exclusiveStartKey = PaginationToken.decode(queryParams == null ? null : queryParams.get("nextToken"));
+                includeCounts = parseIncludeCounts(queryParams == null ? null : queryParams.get("includeCounts"));
+            } catch (IllegalArgumentException e) {
+                return new APIGatewayProxyResponseEvent().withStatusCode(400).withBody(ResponseJson.error(e.getMessage()));
+            }
+
+            // um cursor de outro usuário faria o DynamoDB rejeitar a query
+            if (!repository.isListCursorOf(userId, exclusiveStartKey)) {
+                return new APIGatewayProxyResponseEvent().withStatusCode(400).withBody("{\"error\": \"Token de paginação inválido.\"}");
+            }
+
+            TodoRepository.Page page = repository.queryLists(userId, limit, exclusiveStartKey);
+
+            // contadores da página inteira numa leitura só, em vez de um GetItem por lista
+            Map<String, Map<String, AttributeValue>> statsById = null;
+            if (includeCounts) {
+                List<String> listIds = new ArrayList<>(page.items.size());
+                for (Map<String, AttributeValue> list : page.items) {
+                    listIds.add(ResponseJson.listId(list));
+                }
+                statsById = listIds.isEmpty() ? Map.of() : repository.batchGetListStats(listIds);
+            }
+
+            String nextToken = page.lastEvaluatedKey != null ? PaginationToken.encode(page.lastEvaluatedKey) : null;
+            String body = ResponseJson.listPage(page.items, statsById, nextToken);
+            return ETags.ok(body, ETags.ofBody(body), ETags.ifNoneMatch(event));
+
+        } catch (Exception e) {
+            context.getLogger().log("ERRO AO LISTAR LISTAS: " + e.getMessage());
+            return Throttling.errorResponse(e);
+        }
+    }
+
+    private static boolean parseIncludeCounts(String rawIncludeCounts) {
+        if (rawIncludeCounts == null || rawIncludeCounts.isEmpty() || rawIncludeCounts.equals("false")) {
+            return false;
+        }
+        if (rawIncludeCounts.equals("true")) {
+            return true;
+        }
+        throw new IllegalArgumentException("O parâmetro includeCounts deve ser true ou false.");
+    }
+}
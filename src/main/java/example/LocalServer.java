@@ -0,0 +1,284 @@
+package example;
+
+import com.amazonaws.services.lambda.runtime.ClientContext;
+import com.amazonaws.services.lambda.runtime.CognitoIdentity;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// servidor HTTP local com as mesmas rotas do API Gateway, para teste de carga e profiling dos
+// handlers reais fora da Lambda. cada requisição vira um APIGatewayProxyRequestEvent e passa
+// pelo RouterHandler. o armazenamento é o repositório em memória, ou um DynamoDB local quando
+// DYNAMODB_ENDPOINT estiver definido (ex.: http://localhost:8000, com a tabela TABLE_NAME criada).
+//
+//   java -cp target/todo-lambdas-1.0-SNAPSHOT.jar example.LocalServer
+//
+// variáveis: PORT (padrão 8080), DYNAMODB_ENDPOINT, TABLE_NAME (padrão TodoTable).
+// o usuário autenticado vem do header X-User-Id (padrão "local-user"), no lugar do "sub" do Cognito.
+public final class LocalServer {
+
+    static final String USER_HEADER = "X-User-Id";
+    static final String DEFAULT_USER = "local-user";
+
+    // sem virtual threads (JDK 17), um pool fixo do tamanho de um servidor de aplicação comum
+    static final int PLATFORM_THREADS = 200;
+
+    static {
+        // sem TCP_NODELAY, cabeçalho e corpo saem em pacotes separados e o Nagle + ACK atrasado
+        // do cliente seguram cada resposta ~40 ms
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final RouterHandler router;
+    private final Context context = new LocalContext();
+
+    LocalServer(int port, RouterHandler router) throws IOException {
+        this.router = router;
+        this.executor = newRequestExecutor();
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+    }
+
+    public static void main(String[] args) throws IOException {
+        String port = System.getenv("PORT");
+        String endpoint = System.getenv("DYNAMODB_ENDPOINT");
+        String tableName = System.getenv("TABLE_NAME");
+
+        TodoRepository repository = endpoint == null || endpoint.isEmpty()
+                ? new InMemoryTodoRepository()
+                : new DynamoTodoRepository(AwsClients.localDynamoDb(URI.create(endpoint)),
+                        tableName == null || tableName.isEmpty() ? "TodoTable" : tableName);
+
+        LocalServer localServer = new LocalServer(port == null || port.isEmpty() ? 8080 : Integer.parseInt(port),
+                new RouterHandler(RouterHandler.routes(repository, new LoggingSqsClient(), "local-export-queue")));
+        Runtime.getRuntime().addShutdownHook(new Thread(localServer::stop));
+        localServer.start();
+        System.out.println("SERVIDOR LOCAL: porta " + localServer.port() + ", armazenamento "
+                + (repository instanceof InMemoryTodoRepository ? "em memória" : "DynamoDB em " + endpoint));
+    }
+
+    void start() {
+        server.start();
+    }
+
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    // uma virtual thread por requisição quando a JVM tiver (21+); o build é java17, por isso
+    // a fábrica é procurada por reflexão e, sem ela, cai no pool fixo
+    static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(PLATFORM_THREADS, runnable -> {
+                Thread thread = new Thread(runnable, "local-server");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            APIGatewayProxyResponseEvent response;
+            try {
+                response = router.handleRequest(toEvent(exchange), context);
+            } catch (RuntimeException e) {
+                context.getLogger().log("ERRO NO SERVIDOR LOCAL: " + e);
+                response = new APIGatewayProxyResponseEvent().withStatusCode(500).withBody("{\"error\": \"Erro interno no servidor.\"}");
+            }
+            writeResponse(exchange, response);
+        }
+    }
+
+    static APIGatewayProxyRequestEvent toEvent(HttpExchange exchange) throws IOException {
+        Map<String, String> headers = new HashMap<>();
+        for (Map.Entry<String, List<String>> header : exchange.getRequestHeaders().entrySet()) {
+            if (!header.getValue().isEmpty()) {
+                headers.put(header.getKey(), header.getValue().get(0));
+            }
+        }
+
+        String userId = exchange.getRequestHeaders().getFirst(USER_HEADER);
+        if (userId == null || userId.isEmpty()) {
+            userId = DEFAULT_USER;
+        }
+        APIGatewayProxyRequestEvent.ProxyRequestContext requestContext = new APIGatewayProxyRequestEvent.ProxyRequestContext();
+        requestContext.setAuthorizer(Map.of("sub", userId, "cognito:username", userId));
+        requestContext.setRequestId(UUID.randomUUID().toString());
+
+        String body;
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readAllBytes();
+            body = bytes.length == 0 ? null : new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        // sem resource: o RouterHandler casa o path com os templates e preenche os pathParameters
+        return new APIGatewayProxyRequestEvent()
+                .withHttpMethod(exchange.getRequestMethod())
+                .withPath(exchange.getRequestURI().getPath())
+                .withQueryStringParameters(parseQuery(exchange.getRequestURI().getRawQuery()))
+                .withHeaders(headers)
+                .withRequestContext(requestContext)
+                .withBody(body);
+    }
+
+    // como no API Gateway, parâmetro repetido fica com o último valor; sem query vira null
+    static Map<String, String> parseQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return null;
+        }
+        Map<String, String> parameters = new HashMap<>();
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int separator = pair.indexOf('=');
+            String name = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private static void writeResponse(HttpExchange exchange, APIGatewayProxyResponseEvent response) throws IOException {
+        if (response.getHeaders() != null) {
+            response.getHeaders().forEach((name, value) -> exchange.getResponseHeaders().set(name, value));
+        }
+        if (!exchange.getResponseHeaders().containsKey("Content-Type")) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        }
+
+        int status = response.getStatusCode() == null ? 200 : response.getStatusCode();
+        byte[] body = response.getBody() == null ? new byte[0] : response.getBody().getBytes(StandardCharsets.UTF_8);
+        // 304 e 204 não podem ter corpo; -1 avisa o HttpServer que não há nenhum
+        if (status == 204 || status == 304 || body.length == 0) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    // a exportação só registra a mensagem que iria para a fila (não há SQS, S3 nem SES locais)
+    private static final class LoggingSqsClient implements SqsClient {
+
+        @Override
+        public SendMessageResponse sendMessage(SendMessageRequest sendMessageRequest) {
+            System.out.println("SQS LOCAL: " + sendMessageRequest.queueUrl() + " <- " + sendMessageRequest.messageBody());
+            return SendMessageResponse.builder().messageId(UUID.randomUUID().toString()).build();
+        }
+
+        @Override
+        public String serviceName() {
+            return SERVICE_NAME;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static final class LocalContext implements Context {
+
+        private static final LambdaLogger LOGGER = new LambdaLogger() {
+            @Override
+            public void log(String message) {
+                System.err.println(message);
+            }
+
+            @Override
+            public void log(byte[] message) {
+                System.err.println(new String(message, StandardCharsets.UTF_8));
+            }
+        };
+
+        @Override
+        public String getAwsRequestId() {
+            return "local";
+        }
+
+        @Override
+        public String getLogGroupName() {
+            return "local";
+        }
+
+        @Override
+        public String getLogStreamName() {
+            return "local";
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "ApiRouter";
+        }
+
+        @Override
+        public String getFunctionVersion() {
+            return "$LATEST";
+        }
+
+        @Override
+        public String getInvokedFunctionArn() {
+            return "arn:aws:lambda:local:000000000000:function:ApiRouter";
+        }
+
+        @Override
+        public CognitoIdentity getIdentity() {
+            return null;
+        }
+
+        @Override
+        public ClientContext getClientContext() {
+            return null;
+        }
+
+        @Override
+        public int getRemainingTimeInMillis() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        public int getMemoryLimitInMB() {
+            return (int) (Runtime.getRuntime().maxMemory() / (1024 * 1024));
+        }
+
+        @Override
+        public LambdaLogger getLogger() {
+            return LOGGER;
+        }
+    }
+}
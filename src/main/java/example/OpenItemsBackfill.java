@@ -0,0 +1,89 @@
+package example;
+
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// migração única do índice OpenItemsIndex: grava openList nos itens pendentes criados antes dele.
+// roda uma vez por tabela, antes de OPEN_ITEMS_INDEX_READY virar true no deploy:
+//
+//   TABLE_NAME=TodoList java -cp target/todo-lambdas-1.0-SNAPSHOT.jar example.OpenItemsBackfill
+//
+// pode ser repetida sem efeito nos itens já marcados. a condição de cada UpdateItem repete o filtro
+// do Scan, então um item concluído entre a leitura e a escrita não volta para o índice
+public final class OpenItemsBackfill {
+
+    // linhas lidas por página do Scan
+    static final int PAGE_SIZE = 500;
+
+    private OpenItemsBackfill() {
+    }
+
+    public static void main(String[] args) {
+        String tableName = System.getenv("TABLE_NAME");
+        if (tableName == null || tableName.isEmpty()) {
+            throw new IllegalArgumentException("Defina TABLE_NAME com o nome da tabela.");
+        }
+        long updated = run(AwsClients.dynamoDb(), tableName);
+        System.out.println("BACKFILL: openList gravado em " + updated + " itens pendentes de " + tableName);
+    }
+
+    // devolve quantos itens receberam o openList
+    static long run(DynamoDbClient dynamoDbClient, String tableName) {
+        long updated = 0;
+        Map<String, AttributeValue> startKey = null;
+        do {
+            Map<String, String> names = new HashMap<>();
+            Map<String, AttributeValue> values = new HashMap<>();
+            ScanResponse page = dynamoDbClient.scan(ScanRequest.builder()
+                    .tableName(tableName)
+                    .filterExpression(condition(names, values))
+                    .projectionExpression("pk, sk")
+                    .expressionAttributeNames(names)
+                    .expressionAttributeValues(values)
+                    .limit(PAGE_SIZE)
+                    .exclusiveStartKey(startKey)
+                    .build());
+            List<Boolean> results = Parallel.map(page.items(), key -> markOpen(dynamoDbClient, tableName, key));
+            updated += results.stream().filter(Boolean::booleanValue).count();
+            startKey = page.hasLastEvaluatedKey() && !page.lastEvaluatedKey().isEmpty() ? page.lastEvaluatedKey() : null;
+        } while (startKey != null);
+        return updated;
+    }
+
+    private static boolean markOpen(DynamoDbClient dynamoDbClient, String tableName, Map<String, AttributeValue> key) {
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        String condition = condition(names, values);
+        values.put(":openList", key.get("pk"));
+        try {
+            dynamoDbClient.updateItem(UpdateItemRequest.builder()
+                    .tableName(tableName)
+                    .key(key)
+                    .updateExpression("SET #open = :openList")
+                    .conditionExpression(condition)
+                    .expressionAttributeNames(names)
+                    .expressionAttributeValues(values)
+                    .build());
+            return true;
+        } catch (ConditionalCheckFailedException e) {
+            // concluído ou apagado depois do Scan
+            return false;
+        }
+    }
+
+    // item (sk ITEM#...) pendente e ainda fora do índice
+    private static String condition(Map<String, String> names, Map<String, AttributeValue> values) {
+        names.put("#open", DynamoTodoRepository.OPEN_ATTRIBUTE);
+        values.put(":itemPrefix", AttributeValue.builder().s("ITEM#").build());
+        return "begins_with(sk, :itemPrefix) AND attribute_not_exists(#open) AND "
+                + DynamoTodoRepository.openFilter(names, values);
+    }
+}
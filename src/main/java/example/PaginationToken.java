@@ -0,0 +1,56 @@
+package example;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+// converte o LastEvaluatedKey do DynamoDB em um cursor opaco (base64 url-safe) e vice-versa.
+// as chaves da tabela são todas strings, então só atributos do tipo S são aceitos.
+final class PaginationToken {
+
+    private static final Gson GSON = new Gson();
+    private static final Type KEY_TYPE = new TypeToken<Map<String, String>>() {}.getType();
+
+    private PaginationToken() {
+    }
+
+    static String encode(Map<String, AttributeValue> lastEvaluatedKey) {
+        if (lastEvaluatedKey == null || lastEvaluatedKey.isEmpty()) {
+            return null;
+        }
+        Map<String, String> plain = new HashMap<>();
+        lastEvaluatedKey.forEach((name, value) -> plain.put(name, value.s()));
+        byte[] json = GSON.toJson(plain).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+    }
+
+    static Map<String, AttributeValue> decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            String json = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            Map<String, String> plain = GSON.fromJson(json, KEY_TYPE);
+            if (plain == null || plain.isEmpty()) {
+                throw new IllegalArgumentException("Token de paginação inválido.");
+            }
+            Map<String, AttributeValue> key = new HashMap<>();
+            plain.forEach((name, value) -> {
+                if (value == null) {
+                    throw new IllegalArgumentException("Token de paginação inválido.");
+                }
+                key.put(name, AttributeValue.builder().s(value).build());
+            });
+            return key;
+        } catch (JsonParseException e) {
+            throw new IllegalArgumentException("Token de paginação inválido.", e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package example;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+// pool fixo e compartilhado para disparar chamadas ao DynamoDB em paralelo sem estourar
+// conexões nem threads do container. as tarefas não devem chamar o Parallel de novo
+// (uma tarefa esperando outra no mesmo pool pode travar com todas as threads ocupadas).
+final class Parallel {
+
+    static final int PARALLELISM = 8;
+
+    private static final ExecutorService POOL = Executors.newFixedThreadPool(PARALLELISM, runnable -> {
+        Thread thread = new Thread(runnable, "todo-parallel");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Parallel() {
+    }
+
+    // aplica a função em cada entrada em paralelo e devolve os resultados na mesma ordem da entrada
+    static <T, R> List<R> map(List<T> inputs, Function<T, R> function) {
+        // uma entrada só roda na própria thread, sem pagar a troca de contexto
+        if (inputs.size() == 1) {
+            return Collections.singletonList(function.apply(inputs.get(0)));
+        }
+
+        List<CompletableFuture<R>> futures = new ArrayList<>(inputs.size());
+        for (T input : inputs) {
+            futures.add(CompletableFuture.supplyAsync(() -> function.apply(input), POOL));
+        }
+
+        // espera todas as tarefas antes de propagar o primeiro erro: quem chama precisa saber que
+        // nada mais vai ser gravado depois da exceção (ex.: os IDs de uma criação em lote parcial)
+        List<R> results = new ArrayList<>(inputs.size());
+        RuntimeException failure = null;
+        for (CompletableFuture<R> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return results;
+    }
+}
@@ -0,0 +1,100 @@
+package example;
+
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// hooks de checkpoint/restore (CRaC) usados pelo Lambda SnapStart.
+// antes do snapshot cada handler roda o seu "primer" (Gson, montagem de requests, TLS) para que
+// esse custo fique gravado no snapshot e não caia na primeira requisição real.
+// depois do restore, renova o que não pode ser compartilhado entre cópias do snapshot.
+final class Priming implements Resource {
+
+    static final String PRIMING_KEY = "PRIMING#snapstart";
+
+    // o CRaC guarda só referências fracas dos recursos registrados
+    private static final List<Resource> REGISTERED = new CopyOnWriteArrayList<>();
+
+    static {
+        register(new Resource() {
+            @Override
+            public void beforeCheckpoint(Context<? extends Resource> context) {
+            }
+
+            @Override
+            public void afterRestore(Context<? extends Resource> context) {
+                IdGenerator.reseed();
+                AwsClients.refreshCredentials();
+            }
+        });
+    }
+
+    private final Runnable primer;
+
+    private Priming(Runnable primer) {
+        this.primer = primer;
+    }
+
+    // recebe o prime() do handler, executado antes do snapshot do SnapStart.
+    // chamado pelos construtores usados na Lambda (não pelos de teste)
+    static void register(Runnable primer) {
+        register(new Priming(primer));
+    }
+
+    private static void register(Resource resource) {
+        REGISTERED.add(resource);
+        Core.getGlobalContext().register(resource);
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) {
+        try {
+            primer.run();
+        } catch (RuntimeException e) {
+            // falhar o priming não pode impedir a publicação da versão
+            System.out.println("PRIMING: falhou, seguindo sem aquecimento: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+    }
+
+    // item com o mesmo formato dos gravados pelos handlers, usado para aquecer os mapeamentos
+    static Map<String, AttributeValue> sampleItem() {
+        return Map.of(
+                "pk", AttributeValue.builder().s("LIST#priming").build(),
+                "sk", AttributeValue.builder().s("ITEM#priming").build(),
+                "itemId", AttributeValue.builder().s("priming").build(),
+                "text", AttributeValue.builder().s("priming").build(),
+                "createdAt", AttributeValue.builder().s("2025-01-01T00:00:00Z").build(),
+                "completed", AttributeValue.builder().bool(false).build());
+    }
+
+    // monta os requests mais usados e faz uma leitura real de uma chave que não existe,
+    // o que carrega os marshallers do SDK, resolve credenciais e abre a conexão TLS
+    static void primeDynamoDb(DynamoDbClient dynamoDbClient, String tableName) {
+        Map<String, AttributeValue> key = Map.of(
+                "pk", AttributeValue.builder().s(PRIMING_KEY).build(),
+                "sk", AttributeValue.builder().s(PRIMING_KEY).build());
+
+        PutItemRequest.builder().tableName(tableName).item(key).build();
+        QueryRequest.builder()
+                .tableName(tableName)
+                .keyConditionExpression("pk = :pkVal")
+                .expressionAttributeValues(Map.of(":pkVal", key.get("pk")))
+                .limit(1)
+                .build();
+
+        dynamoDbClient.getItem(GetItemRequest.builder().tableName(tableName).key(key).build());
+    }
+}
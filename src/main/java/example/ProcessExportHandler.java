@@ -2,131 +2,311 @@ package example;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
 import com.amazonaws.services.lambda.runtime.events.SQSEvent;
 import com.google.gson.Gson;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.regions.Region;
+import com.google.gson.stream.JsonWriter;
 import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminGetUserRequest;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminGetUserResponse;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
-import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
-import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
 import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.ses.SesClient;
 import software.amazon.awssdk.services.ses.model.*;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
 
-public class ProcessExportHandler implements RequestHandler<SQSEvent, Void> {
+public class ProcessExportHandler implements RequestHandler<SQSEvent, SQSBatchResponse> {
 
-    private final DynamoDbClient dynamoDbClient;
+    // quantas mensagens do lote são exportadas ao mesmo tempo. o runtime é java17 (sem virtual
+    // threads), então é um pool pequeno de threads de plataforma compartilhado entre invocações
+    static final int RECORD_CONCURRENCY = 4;
+
+    private static final ExecutorService RECORD_POOL = Executors.newFixedThreadPool(RECORD_CONCURRENCY, runnable -> {
+        Thread thread = new Thread(runnable, "export-worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final TodoRepository repository;
     private final S3Client s3Client;
     private final SesClient sesClient;
     private final CognitoIdentityProviderClient cognitoClient;
 
     private final Gson gson = new Gson();
-    private final String tableName;
+
+    // userId -> email. o AdminGetUser é lento e tem limite baixo de chamadas, e o mesmo usuário
+    // costuma pedir várias exportações seguidas; o handler vive entre as invocações quentes
+    static final int EMAIL_CACHE_SIZE = 1000;
+    static final Duration EMAIL_CACHE_TTL = Duration.ofMinutes(15);
+    private final TtlCache<String, String> emailCache = new TtlCache<>(EMAIL_CACHE_SIZE, EMAIL_CACHE_TTL);
     private final String bucketName;
     private final String userPoolId;
     private final String senderEmail;
 
     public ProcessExportHandler() {
-        Region region = Region.SA_EAST_1;
-        this.dynamoDbClient = DynamoDbClient.builder().region(region).build();
-        this.s3Client = S3Client.builder().region(region).build();
-        this.sesClient = SesClient.builder().region(region).build();
-        this.cognitoClient = CognitoIdentityProviderClient.builder().region(region).build();
+        this(AwsClients.dynamoDb(), AwsClients.s3(), AwsClients.ses(), AwsClients.cognito(),
+                System.getenv("TABLE_NAME"), System.getenv("BUCKET_NAME"),
+                System.getenv("USER_POOL_ID"), System.getenv("SENDER_EMAIL"));
+        Priming.register(this::prime);
+    }
+
+    // construtor para os testes
+    public ProcessExportHandler(DynamoDbClient dynamoDbClient, S3Client s3Client, SesClient sesClient,
+                                CognitoIdentityProviderClient cognitoClient, String tableName, String bucketName,
+                                String userPoolId, String senderEmail) {
+        this(new DynamoTodoRepository(dynamoDbClient, tableName), s3Client, sesClient, cognitoClient,
+                bucketName, userPoolId, senderEmail);
+    }
 
-        this.tableName = System.getenv("TABLE_NAME");
-        this.bucketName = System.getenv("BUCKET_NAME");
-        this.userPoolId = System.getenv("USER_POOL_ID");
-        this.senderEmail = System.getenv("SENDER_EMAIL");
+    ProcessExportHandler(TodoRepository repository, S3Client s3Client, SesClient sesClient,
+                         CognitoIdentityProviderClient cognitoClient, String bucketName,
+                         String userPoolId, String senderEmail) {
+        this.repository = repository;
+        this.s3Client = s3Client;
+        this.sesClient = sesClient;
+        this.cognitoClient = cognitoClient;
+        this.bucketName = bucketName;
+        this.userPoolId = userPoolId;
+        this.senderEmail = senderEmail;
     }
 
     private static class SqsMessage {
         String listId;
         String userId;
+        String format;
+    }
+
+    void prime() {
+        gson.fromJson("{\"listId\": \"priming\", \"userId\": \"priming\"}", SqsMessage.class);
+        repository.prime();
     }
 
     @Override
-    public Void handleRequest(SQSEvent event, Context context) {
+    public SQSBatchResponse handleRequest(SQSEvent event, Context context) {
+        // cada mensagem roda numa thread do pool; só as que falharem voltam para a fila
+        List<Future<?>> futures = new ArrayList<>(event.getRecords().size());
         for (SQSEvent.SQSMessage msg : event.getRecords()) {
+            futures.add(RECORD_POOL.submit(() -> processMessage(msg, context)));
+        }
+
+        List<SQSBatchResponse.BatchItemFailure> failures = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            SQSEvent.SQSMessage msg = event.getRecords().get(i);
             try {
-                String messageBody = msg.getBody();
-                context.getLogger().log("Processando mensagem: " + messageBody);
-                SqsMessage request = gson.fromJson(messageBody, SqsMessage.class);
-
-                if (request.userId == null || request.userId.trim().isEmpty()) {
-                    context.getLogger().log("ALERTA: userId está NULL na mensagem. Pulando chamada ao Cognito/SES.");
-                    continue;
-                }
-
-                // busca os dados da lista no DynamoDB
-                List<Map<String, AttributeValue>> items = getItemsFromDynamoDB(request.listId);
-
-                // gera o CSV e salva no S3
-                String csvContent = generateCsv(items);
-                String csvFileName = "relatorio-" + request.listId + "-" + Instant.now().toEpochMilli() + ".csv";
-                String s3Url = saveCsvToS3(csvContent, csvFileName);
-
-                // busca o email do usuário no Cognito
-                String userEmail = getUserEmail(request.userId);
-
-                // envia o email
-                sendEmail(userEmail, s3Url);
-                context.getLogger().log("SUCESSO: Email enviado para: " + userEmail);
-
-            } catch (Exception e) {
-                context.getLogger().log("ERRO CRÍTICO NO PROCESSAMENTO: " + e.getMessage());
-                // Lança a exceção para que a SQS tente de novo.
-                throw new RuntimeException("Falha ao processar mensagem SQS", e);
+                futures.get(i).get();
+            } catch (ExecutionException e) {
+                context.getLogger().log("ERRO CRÍTICO NO PROCESSAMENTO DA MENSAGEM " + msg.getMessageId() + ": " + e.getCause().getMessage());
+                failures.add(new SQSBatchResponse.BatchItemFailure(msg.getMessageId()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failures.add(new SQSBatchResponse.BatchItemFailure(msg.getMessageId()));
             }
         }
-        return null;
+        context.getLogger().log("CACHE DE EMAIL: " + emailCache.hits() + " acertos, " + emailCache.misses() + " buscas no Cognito");
+        return new SQSBatchResponse(failures);
     }
 
-    private List<Map<String, AttributeValue>> getItemsFromDynamoDB(String listId) {
-        String pk = "LIST#" + listId;
-        QueryRequest queryRequest = QueryRequest.builder()
-                .tableName(this.tableName)
-                .keyConditionExpression("pk = :pkVal")
-                .expressionAttributeValues(Map.of(":pkVal", AttributeValue.builder().s(pk).build()))
-                .build();
+    private Void processMessage(SQSEvent.SQSMessage msg, Context context) throws IOException {
+        String messageBody = msg.getBody();
+        context.getLogger().log("Processando mensagem: " + messageBody);
+        SqsMessage request = gson.fromJson(messageBody, SqsMessage.class);
+
+        if (request.userId == null || request.userId.trim().isEmpty()) {
+            context.getLogger().log("ALERTA: userId está NULL na mensagem. Pulando chamada ao Cognito/SES.");
+            return null;
+        }
+
+        // mensagens antigas (sem formato) continuam gerando CSV
+        ExportFormat format = ExportFormat.fromId(request.format);
+        if (format == null) {
+            context.getLogger().log("ALERTA: formato desconhecido na mensagem (" + request.format + "). Gerando CSV.");
+            format = ExportFormat.CSV;
+        }
+
+        try {
+            // lê a lista do DynamoDB página por página e envia o arquivo direto para o S3
+            String fileName = "relatorio-" + request.listId + "-" + Instant.now().toEpochMilli() + format.extension;
+            String s3Url = exportToS3(request.listId, format, fileName);
 
-        QueryResponse response = dynamoDbClient.query(queryRequest);
-        return response.items();
+            // busca o email do usuário no Cognito
+            String userEmail = getUserEmail(request.userId);
+
+            // envia o email
+            sendEmail(userEmail, s3Url);
+            context.getLogger().log("SUCESSO: Email enviado para: " + userEmail);
+            return null;
+        } finally {
+            // o marcador do RequestExportHandler só agrupa pedidos enquanto este está em andamento:
+            // terminado (com sucesso ou não), um novo pedido precisa gerar outra exportação
+            releasePendingExport(request.listId, request.userId, format, context);
+        }
     }
 
-    private String generateCsv(List<Map<String, AttributeValue>> items) {
-        StringBuilder csv = new StringBuilder();
-        csv.append("itemId,text,createdAt,completed\n");
-        for (Map<String, AttributeValue> item : items) {
-            csv.append(item.get("itemId").s()).append(",");
-            csv.append("\"").append(item.get("text").s()).append("\",");
-            csv.append(item.get("createdAt").s()).append(",");
-            csv.append(item.get("completed").bool()).append("\n");
+    private void releasePendingExport(String listId, String userId, ExportFormat format, Context context) {
+        try {
+            repository.releaseExport(listId, userId, format.id);
+        } catch (RuntimeException e) {
+            // o marcador expira sozinho; falhar aqui reenviaria uma exportação já entregue
+            context.getLogger().log("ALERTA: não foi possível liberar o marcador da exportação de " + listId + ": " + e.getMessage());
         }
-        return csv.toString();
     }
 
-    private String saveCsvToS3(String csvContent, String fileName) {
-        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                .bucket(this.bucketName)
-                .key("reports/" + fileName)
-                .contentType("text/csv")
-                .build();
-        s3Client.putObject(putObjectRequest, RequestBody.fromString(csvContent));
-        return String.format("https://%s.s3.%s.amazonaws.com/reports/%s",
-                this.bucketName, Region.SA_EAST_1.id(), fileName);
+    private String exportToS3(String listId, ExportFormat format, String fileName) throws IOException {
+        // a versão da lista (linha META) muda a cada escrita de item: se é a mesma do último
+        // relatório, o arquivo existente serve e nada é lido da partição nem enviado ao S3.
+        // é lida antes das páginas e de novo depois do envio
+        Long listVersion = repository.getListVersion(listId);
+        String existingKey = findReportForVersion(listId, format, listVersion);
+        if (existingKey != null) {
+            return reportUrl(existingKey);
+        }
+
+        String key = "reports/" + fileName;
+        S3MultipartOutputStream s3Stream = new S3MultipartOutputStream(
+                s3Client, this.bucketName, key, format.contentType, format.contentEncoding);
+        ExportGzipStream gzip = format.isGzip() ? new ExportGzipStream(s3Stream) : null;
+        OutputStream content = gzip != null ? gzip : s3Stream;
+        try {
+            if (format == ExportFormat.NDJSON) {
+                writeNdjson(listId, content);
+            } else {
+                writeCsv(listId, content);
+            }
+            content.close();
+        } catch (IOException | RuntimeException e) {
+            // não pode chegar no close() do gzip, senão o S3 publicaria um relatório pela metade
+            s3Stream.abort();
+            throw e;
+        } finally {
+            if (gzip != null) {
+                gzip.release();
+            }
+        }
+
+        // uma escrita durante a leitura das páginas muda a versão: o arquivo pode ter parte dela,
+        // então fica registrado sem versão e o próximo pedido gera outro
+        if (listVersion != null && !listVersion.equals(repository.getListVersion(listId))) {
+            listVersion = null;
+        }
+        saveLatestReport(listId, format, listVersion, key);
+        return reportUrl(key);
+    }
+
+    // o close() de um upload descartado nunca acontece: sem ele o Deflater só devolveria a memória
+    // nativa no GC. release() é seguro depois do close() (end() pode ser chamado de novo)
+    private static final class ExportGzipStream extends GZIPOutputStream {
+        ExportGzipStream(OutputStream out) throws IOException {
+            super(out, GZIP_BUFFER_SIZE);
+        }
+
+        void release() {
+            def.end();
+        }
+    }
+
+    private String reportUrl(String key) {
+        return String.format("https://%s.s3.%s.amazonaws.com/%s",
+                this.bucketName, AwsClients.region().id(), key);
+    }
+
+    // a linha do último relatório guarda a versão da lista e a chave do arquivo enviado
+    private String findReportForVersion(String listId, ExportFormat format, Long listVersion) {
+        if (listVersion == null) {
+            return null;
+        }
+        Map<String, AttributeValue> latest = repository.getLatestReport(listId, format.id);
+        if (latest == null) {
+            return null;
+        }
+        AttributeValue storedVersion = latest.get("listVersion");
+        AttributeValue storedKey = latest.get("s3Key");
+        if (storedVersion == null || storedKey == null || !String.valueOf(listVersion).equals(storedVersion.n())) {
+            return null;
+        }
+        return storedKey.s();
+    }
+
+    private void saveLatestReport(String listId, ExportFormat format, Long listVersion, String key) {
+        repository.saveLatestReport(listId, format.id, listVersion, key, Instant.now().toString());
+    }
+
+    private void writeCsv(String listId, OutputStream out) throws IOException {
+        CsvWriter csv = new CsvWriter(out);
+        csv.field("itemId").field("text").field("createdAt").field("completed");
+        csv.endRow();
+
+        // segue o LastEvaluatedKey até o fim, escrevendo cada página assim que ela chega
+        Map<String, AttributeValue> exclusiveStartKey = null;
+        do {
+            TodoRepository.Page page = repository.queryItems(listId, null, exclusiveStartKey, null);
+            writeCsvRows(page.items, csv);
+            exclusiveStartKey = page.lastEvaluatedKey;
+        } while (exclusiveStartKey != null);
+        csv.flush();
+    }
+
+    private void writeNdjson(String listId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        // lenient permite vários objetos JSON no nível de cima, um por linha
+        JsonWriter jsonWriter = new JsonWriter(writer);
+        jsonWriter.setLenient(true);
+
+        Map<String, AttributeValue> exclusiveStartKey = null;
+        do {
+            TodoRepository.Page page = repository.queryItems(listId, null, exclusiveStartKey, null);
+            for (Map<String, AttributeValue> item : page.items) {
+                ResponseJson.writeItem(jsonWriter, item);
+                writer.write('\n');
+            }
+            exclusiveStartKey = page.lastEvaluatedKey;
+        } while (exclusiveStartKey != null);
+        writer.flush();
+    }
+
+    // uma linha por item, na ordem do cabeçalho
+    static void writeCsvRows(List<Map<String, AttributeValue>> items, CsvWriter csv) throws IOException {
+        for (Map<String, AttributeValue> item : items) {
+            csv.field(item.get("itemId").s())
+                    .field(item.get("text").s())
+                    .field(item.get("createdAt").s())
+                    .field(Boolean.TRUE.equals(item.get("completed").bool()));
+            csv.endRow();
+        }
     }
 
     private String getUserEmail(String userId) {
+        return emailCache.get(userId, this::fetchUserEmail);
+    }
+
+    // contadores de acerto/falha do cache de emails
+    long emailCacheHits() {
+        return emailCache.hits();
+    }
+
+    long emailCacheMisses() {
+        return emailCache.misses();
+    }
+
+    private String fetchUserEmail(String userId) {
         AdminGetUserRequest getUserRequest = AdminGetUserRequest.builder()
                 .userPoolId(this.userPoolId)
                 .username(userId)
@@ -148,7 +328,7 @@ public class ProcessExportHandler implements RequestHandler<SQSEvent, Void> {
                         "<p>Olá!</p>" +
                         "<p>Seu relatório da lista de tarefas foi gerado com sucesso.</p>" +
                         "<p>Você pode baixá-lo clicando no link abaixo:</p>" +
-                        "<a href=\"%s\">Baixar CSV</a>" +
+                        "<a href=\"%s\">Baixar relatório</a>" +
                         "<p>Obrigado!</p>", s3Url
         );
 
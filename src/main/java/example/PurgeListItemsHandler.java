@@ -0,0 +1,58 @@
+package example;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import com.google.gson.Gson;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+// consome a fila de limpeza: apaga os itens que sobraram de listas grandes já removidas.
+// é idempotente, então se falhar no meio a SQS reentrega e ele recomeça do que restou.
+public class PurgeListItemsHandler implements RequestHandler<SQSEvent, Void> {
+
+    private final TodoRepository repository;
+    private final Gson gson = new Gson();
+
+    public PurgeListItemsHandler() {
+        this(AwsClients.dynamoDb(), System.getenv("TABLE_NAME"));
+        Priming.register(this::prime);
+    }
+
+    // construtor para os testes
+    public PurgeListItemsHandler(DynamoDbClient dynamoDbClient, String tableName) {
+        this(new DynamoTodoRepository(dynamoDbClient, tableName));
+    }
+
+    PurgeListItemsHandler(TodoRepository repository) {
+        this.repository = repository;
+    }
+
+    private static class PurgeMessage {
+        String listId;
+    }
+
+    void prime() {
+        gson.fromJson("{\"listId\": \"priming\"}", PurgeMessage.class);
+        repository.prime();
+    }
+
+    @Override
+    public Void handleRequest(SQSEvent event, Context context) {
+        for (SQSEvent.SQSMessage msg : event.getRecords()) {
+            PurgeMessage request = gson.fromJson(msg.getBody(), PurgeMessage.class);
+            if (request == null || request.listId == null || request.listId.isEmpty()) {
+                context.getLogger().log("ALERTA: mensagem de limpeza sem listId: " + msg.getBody());
+                continue;
+            }
+            try {
+                int pages = ListItemsPurger.purgeAll(repository, request.listId);
+                context.getLogger().log("SUCESSO: itens da lista " + request.listId + " apagados (" + pages + " páginas).");
+            } catch (Exception e) {
+                context.getLogger().log("ERRO AO APAGAR ITENS DA LISTA " + request.listId + ": " + e.getMessage());
+                // lança a exceção para que a SQS tente de novo
+                throw new RuntimeException("Falha ao processar mensagem de limpeza", e);
+            }
+        }
+        return null;
+    }
+}
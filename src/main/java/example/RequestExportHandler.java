@@ -5,30 +5,66 @@ import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.google.gson.Gson;
-import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesRequest;
+import software.amazon.awssdk.services.sqs.model.QueueAttributeName;
 import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
 
+import java.time.Instant;
 import java.util.Map;
 
 public class RequestExportHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
 
+    // pedidos repetidos da mesma lista e usuário dentro dessa janela viram um só
+    static final long COALESCE_WINDOW_SECONDS = 120;
+
     private final SqsClient sqsClient;
+    private final TodoRepository repository;
     private final Gson gson = new Gson();
     private final String queueUrl;
 
     public RequestExportHandler() {
-        this.sqsClient = SqsClient.builder().region(Region.SA_EAST_1).build();
-        this.queueUrl = System.getenv("SQS_QUEUE_URL");
+        this(AwsClients.sqs(), AwsClients.dynamoDb(), System.getenv("SQS_QUEUE_URL"), System.getenv("TABLE_NAME"));
+        Priming.register(this::prime);
+    }
+
+    // sem tabela, todo pedido vai para a fila (sem agrupar cliques repetidos)
+    public RequestExportHandler(SqsClient sqsClient, String queueUrl) {
+        this(sqsClient, null, queueUrl, null);
+    }
+
+    // construtor para os testes
+    public RequestExportHandler(SqsClient sqsClient, DynamoDbClient dynamoDbClient, String queueUrl, String tableName) {
+        this(sqsClient, dynamoDbClient == null ? null : new DynamoTodoRepository(dynamoDbClient, tableName), queueUrl);
+    }
+
+    RequestExportHandler(SqsClient sqsClient, TodoRepository repository, String queueUrl) {
+        this.sqsClient = sqsClient;
+        this.repository = repository;
+        this.queueUrl = queueUrl;
     }
 
     private static class SqsMessage {
         String listId;
         String userId;
+        String format;
 
-        SqsMessage(String listId, String userId) {
+        SqsMessage(String listId, String userId, String format) {
             this.listId = listId;
             this.userId = userId;
+            this.format = format;
+        }
+    }
+
+    void prime() {
+        SendMessageRequest.builder().queueUrl(queueUrl).messageBody(gson.toJson(new SqsMessage("priming", "priming", ExportFormat.CSV.id))).build();
+        sqsClient.getQueueAttributes(GetQueueAttributesRequest.builder()
+                .queueUrl(queueUrl)
+                .attributeNames(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES)
+                .build());
+        if (repository != null) {
+            repository.prime();
         }
     }
 
@@ -48,8 +84,19 @@ public class RequestExportHandler implements RequestHandler<APIGatewayProxyReque
                 }
             }
 
+            Map<String, String> queryParams = event.getQueryStringParameters();
+            ExportFormat format = ExportFormat.fromId(queryParams == null ? null : queryParams.get("format"));
+            if (format == null) {
+                return new APIGatewayProxyResponseEvent().withStatusCode(400).withBody("{\"error\": \"Formato inválido. Use csv, csv-gzip ou ndjson.\"}");
+            }
+
+            if (!claimPendingExport(listId, userId, format)) {
+                return new APIGatewayProxyResponseEvent()
+                        .withStatusCode(202)
+                        .withBody("{\"message\": \"Já existe uma exportação desta lista em andamento. Você receberá por email em breve.\"}");
+            }
 
-            SqsMessage messagePayload = new SqsMessage(listId, userId);
+            SqsMessage messagePayload = new SqsMessage(listId, userId, format.id);
             String messageBody = gson.toJson(messagePayload);
 
             SendMessageRequest sendMsgRequest = SendMessageRequest.builder()
@@ -57,7 +104,13 @@ public class RequestExportHandler implements RequestHandler<APIGatewayProxyReque
                     .messageBody(messageBody)
                     .build();
 
-            sqsClient.sendMessage(sendMsgRequest);
+            try {
+                sqsClient.sendMessage(sendMsgRequest);
+            } catch (RuntimeException e) {
+                // sem mensagem na fila o marcador só bloquearia um novo pedido
+                releasePendingExport(listId, userId, format);
+                throw e;
+            }
 
             return new APIGatewayProxyResponseEvent()
                     .withStatusCode(202)
@@ -65,7 +118,24 @@ public class RequestExportHandler implements RequestHandler<APIGatewayProxyReque
 
         } catch (Exception e) {
             context.getLogger().log("ERRO AO SOLICITAR EXPORTAÇÃO: " + e.getMessage());
-            return new APIGatewayProxyResponseEvent().withStatusCode(500).withBody("{\"error\": \"Erro interno no servidor.\"}");
+            return Throttling.errorResponse(e);
+        }
+    }
+
+    // grava o marcador de exportação pendente só se não houver outro ainda válido.
+    // devolve false quando o mesmo pedido já foi feito dentro da janela
+    private boolean claimPendingExport(String listId, String userId, ExportFormat format) {
+        if (repository == null) {
+            return true;
+        }
+        long now = Instant.now().getEpochSecond();
+        return repository.claimExport(listId, userId, format.id, now, now + COALESCE_WINDOW_SECONDS);
+    }
+
+    private void releasePendingExport(String listId, String userId, ExportFormat format) {
+        if (repository == null) {
+            return;
         }
+        repository.releaseExport(listId, userId, format.id);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,200 @@
+package example;
+
+import com.google.gson.stream.JsonWriter;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// monta o JSON das respostas direto dos mapas do DynamoDB, sem classes de resposta, listas
+// intermediárias nem reflexão. a saída é a mesma do gson.toJson: campos nulos omitidos e
+// caracteres de HTML escapados
+final class ResponseJson {
+
+    // tamanho aproximado de um item serializado, só para dimensionar o buffer de saída
+    private static final int ITEM_SIZE_HINT = 160;
+
+    // listagem de listas sem includeCounts
+    private static final List<String> LIST_FIELDS_WITHOUT_COUNTS = List.of("userId", "listId", "name", "createdAt");
+
+    private ResponseJson() {
+    }
+
+    // {"itemId", "text", "createdAt", "completed"}
+    static String item(Map<String, AttributeValue> item) {
+        return item(item, null);
+    }
+
+    // só os campos pedidos em fields (null = todos)
+    static String item(Map<String, AttributeValue> item, Set<String> fields) {
+        StringWriter out = new StringWriter(ITEM_SIZE_HINT);
+        try {
+            JsonWriter writer = newWriter(out);
+            writeItem(writer, item, fields);
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    // {"items": [...], "nextToken": "..."} com nextToken omitido na última página
+    static String itemPage(List<Map<String, AttributeValue>> items, String nextToken) {
+        return itemPage(items, nextToken, null);
+    }
+
+    static String itemPage(List<Map<String, AttributeValue>> items, String nextToken, Set<String> fields) {
+        StringWriter out = new StringWriter(32 + items.size() * ITEM_SIZE_HINT);
+        try {
+            JsonWriter writer = newWriter(out);
+            writer.beginObject();
+            writer.name("items").beginArray();
+            for (Map<String, AttributeValue> item : items) {
+                writeItem(writer, item, fields);
+            }
+            writer.endArray();
+            if (nextToken != null) {
+                writer.name("nextToken").value(nextToken);
+            }
+            writer.endObject();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    // {"error": "..."} de um 400: a mensagem pode repetir o que veio na requisição (ex.: fields=)
+    static String error(String message) {
+        StringWriter out = new StringWriter(32 + message.length());
+        try {
+            JsonWriter writer = newWriter(out);
+            writer.beginObject();
+            writer.name("error").value(message);
+            writer.endObject();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    // {"userId", "listId", "name", "createdAt", "itemCount", "completedCount"}
+    // stats é a linha META da lista (itemCount, completedCount); null = lista ainda sem itens
+    static String list(Map<String, AttributeValue> list, Map<String, AttributeValue> stats) {
+        return list(list, stats, null);
+    }
+
+    static String list(Map<String, AttributeValue> list, Map<String, AttributeValue> stats, Set<String> fields) {
+        StringWriter out = new StringWriter(ITEM_SIZE_HINT);
+        try {
+            JsonWriter writer = newWriter(out);
+            writeList(writer, list, stats, fields == null ? Fields.LIST : fields);
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    // {"lists": [...], "nextToken": "..."}. statsById null = sem contadores (includeCounts ausente);
+    // com contadores, lista fora do mapa sai com zero
+    static String listPage(List<Map<String, AttributeValue>> lists, Map<String, Map<String, AttributeValue>> statsById,
+                           String nextToken) {
+        StringWriter out = new StringWriter(32 + lists.size() * ITEM_SIZE_HINT);
+        try {
+            JsonWriter writer = newWriter(out);
+            writer.beginObject();
+            writer.name("lists").beginArray();
+            for (Map<String, AttributeValue> list : lists) {
+                writeList(writer, list, statsById == null ? null : statsById.get(listId(list)), statsById != null ? Fields.LIST : LIST_FIELDS_WITHOUT_COUNTS);
+            }
+            writer.endArray();
+            if (nextToken != null) {
+                writer.name("nextToken").value(nextToken);
+            }
+            writer.endObject();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    // o listId vem do sk (LIST#<listId>)
+    static String listId(Map<String, AttributeValue> list) {
+        AttributeValue sk = list.get("sk");
+        return sk == null || sk.s() == null ? null : sk.s().replace("LIST#", "");
+    }
+
+    private static void writeList(JsonWriter writer, Map<String, AttributeValue> list, Map<String, AttributeValue> stats,
+                                  Collection<String> fields) throws IOException {
+        writer.beginObject();
+        if (fields.contains("userId")) {
+            writeString(writer, "userId", list.get("userId"));
+        }
+        String listId = listId(list);
+        if (listId != null && fields.contains("listId")) {
+            writer.name("listId").value(listId);
+        }
+        if (fields.contains("name")) {
+            writeString(writer, "name", list.get("name"));
+        }
+        if (fields.contains("createdAt")) {
+            writeString(writer, "createdAt", list.get("createdAt"));
+        }
+        if (fields.contains("itemCount")) {
+            writer.name("itemCount").value(count(stats, "itemCount"));
+        }
+        if (fields.contains("completedCount")) {
+            writer.name("completedCount").value(count(stats, "completedCount"));
+        }
+        writer.endObject();
+    }
+
+    private static long count(Map<String, AttributeValue> stats, String name) {
+        AttributeValue value = stats == null ? null : stats.get(name);
+        return value == null || value.n() == null ? 0 : Long.parseLong(value.n());
+    }
+
+    // usado também pela exportação NDJSON, que escreve um item por linha no mesmo formato
+    static void writeItem(JsonWriter writer, Map<String, AttributeValue> item) throws IOException {
+        writeItem(writer, item, null);
+    }
+
+    private static void writeItem(JsonWriter writer, Map<String, AttributeValue> item, Set<String> fields) throws IOException {
+        writer.beginObject();
+        if (Fields.includes(fields, "itemId")) {
+            writeString(writer, "itemId", item.get("itemId"));
+        }
+        if (Fields.includes(fields, "text")) {
+            writeString(writer, "text", item.get("text"));
+        }
+        if (Fields.includes(fields, "createdAt")) {
+            writeString(writer, "createdAt", item.get("createdAt"));
+        }
+        if (Fields.includes(fields, "completed")) {
+            AttributeValue completed = item.get("completed");
+            writer.name("completed").value(completed != null && Boolean.TRUE.equals(completed.bool()));
+        }
+        writer.endObject();
+    }
+
+    private static void writeString(JsonWriter writer, String name, AttributeValue value) throws IOException {
+        if (value != null && value.s() != null) {
+            writer.name(name).value(value.s());
+        }
+    }
+
+    private static JsonWriter newWriter(StringWriter out) {
+        JsonWriter writer = new JsonWriter(out);
+        // mesmo padrão do new Gson(): escapa <, >, &, = e '
+        writer.setHtmlSafe(true);
+        return writer;
+    }
+}
@@ -0,0 +1,144 @@
+package example;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import software.amazon.awssdk.services.sqs.SqsClient;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// front controller: uma única Lambda atende todas as rotas REST da API e repassa cada
+// requisição para o handler correspondente. assim existe um só pool de containers quentes
+// e os clientes da AWS são inicializados uma vez para todas as rotas.
+public class RouterHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
+
+    // chave no formato do route_key do API Gateway, ex.: "GET /lists/{listId}/items"
+    private final Map<String, RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>> routes;
+
+    public RouterHandler() {
+        this(defaultRoutes());
+    }
+
+    // construtor para os testes
+    public RouterHandler(Map<String, RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>> routes) {
+        this.routes = new LinkedHashMap<>(routes);
+    }
+
+    private static Map<String, RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>> defaultRoutes() {
+        UpdateDeleteListHandler updateDeleteListHandler = new UpdateDeleteListHandler();
+
+        Map<String, RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>> routes = new LinkedHashMap<>();
+        routes.put("POST /users/{userId}/lists", new CreateListHandler());
+        routes.put("GET /users/{userId}/lists", new ListListsHandler());
+        routes.put("GET /users/{userId}/lists/{listId}", new GetListHandler());
+        routes.put("PUT /users/{userId}/lists/{listId}", updateDeleteListHandler);
+        routes.put("DELETE /users/{userId}/lists/{listId}", updateDeleteListHandler);
+        routes.put("POST /lists/{listId}/items", new CreateItemHandler());
+        routes.put("POST /lists/{listId}/items/batch", new BatchCreateItemsHandler());
+        routes.put("GET /lists/{listId}/items", new ListItemsHandler());
+        routes.put("PATCH /lists/{listId}/items", new BulkUpdateItemsHandler());
+        routes.put("GET /lists/{listId}/items/{itemId}", new GetItemHandler());
+        routes.put("PUT /lists/{listId}/items/{itemId}", new UpdateItemHandler());
+        routes.put("DELETE /lists/{listId}/items/{itemId}", new DeleteItemHandler());
+        routes.put("POST /lists/{listId}/export", new RequestExportHandler());
+        return routes;
+    }
+
+    // mesmas rotas montadas sobre um repositório qualquer (ex.: servidor local em memória).
+    // sem fila de limpeza, o DELETE de lista apaga os itens dentro da própria requisição
+    static Map<String, RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>> routes(
+            TodoRepository repository, SqsClient sqsClient, String exportQueueUrl) {
+        UpdateDeleteListHandler updateDeleteListHandler = new UpdateDeleteListHandler(repository, null, null);
+
+        Map<String, RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>> routes = new LinkedHashMap<>();
+        routes.put("POST /users/{userId}/lists", new CreateListHandler(repository));
+        routes.put("GET /users/{userId}/lists", new ListListsHandler(repository));
+        routes.put("GET /users/{userId}/lists/{listId}", new GetListHandler(repository));
+        routes.put("PUT /users/{userId}/lists/{listId}", updateDeleteListHandler);
+        routes.put("DELETE /users/{userId}/lists/{listId}", updateDeleteListHandler);
+        routes.put("POST /lists/{listId}/items", new CreateItemHandler(repository));
+        routes.put("POST /lists/{listId}/items/batch", new BatchCreateItemsHandler(repository));
+        routes.put("GET /lists/{listId}/items", new ListItemsHandler(repository));
+        routes.put("PATCH /lists/{listId}/items", new BulkUpdateItemsHandler(repository));
+        routes.put("GET /lists/{listId}/items/{itemId}", new GetItemHandler(repository));
+        routes.put("PUT /lists/{listId}/items/{itemId}", new UpdateItemHandler(repository));
+        routes.put("DELETE /lists/{listId}/items/{itemId}", new DeleteItemHandler(repository));
+        routes.put("POST /lists/{listId}/export", new RequestExportHandler(sqsClient, repository, exportQueueUrl));
+        return routes;
+    }
+
+    @Override
+    public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent event, Context context) {
+        String method = event.getHttpMethod() == null ? "" : event.getHttpMethod().toUpperCase();
+
+        // o API Gateway já manda o template da rota em "resource"
+        if (event.getResource() != null) {
+            RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> handler = routes.get(method + " " + event.getResource());
+            if (handler != null) {
+                return handler.handleRequest(event, context);
+            }
+        }
+
+        // sem resource (ex.: servidor local), casa o path concreto com os templates
+        boolean pathMatched = false;
+        if (event.getPath() != null) {
+            for (Map.Entry<String, RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>> route : routes.entrySet()) {
+                String[] routeKey = route.getKey().split(" ", 2);
+                Map<String, String> pathParameters = matchPath(routeKey[1], event.getPath());
+                if (pathParameters == null) {
+                    continue;
+                }
+                pathMatched = true;
+                if (routeKey[0].equals(method)) {
+                    event.setResource(routeKey[1]);
+                    event.setPathParameters(pathParameters);
+                    return route.getValue().handleRequest(event, context);
+                }
+            }
+        }
+
+        if (pathMatched) {
+            return new APIGatewayProxyResponseEvent().withStatusCode(405).withBody("{\"error\": \"Método não suportado.\"}");
+        }
+        context.getLogger().log("ROTA NÃO ENCONTRADA: " + method + " " + event.getPath());
+        return new APIGatewayProxyResponseEvent().withStatusCode(404).withBody("{\"error\": \"Rota não encontrada.\"}");
+    }
+
+    // devolve os parâmetros do path se ele casar com o template, ou null
+    static Map<String, String> matchPath(String template, String path) {
+        String[] templateParts = trimSlashes(template).split("/");
+        String[] pathParts = trimSlashes(path).split("/");
+        if (templateParts.length != pathParts.length) {
+            return null;
+        }
+
+        Map<String, String> parameters = new HashMap<>();
+        for (int i = 0; i < templateParts.length; i++) {
+            String templatePart = templateParts[i];
+            if (templatePart.startsWith("{") && templatePart.endsWith("}")) {
+                if (pathParts[i].isEmpty()) {
+                    return null;
+                }
+                parameters.put(templatePart.substring(1, templatePart.length() - 1), pathParts[i]);
+            } else if (!templatePart.equals(pathParts[i])) {
+                return null;
+            }
+        }
+        return parameters;
+    }
+
+    private static String trimSlashes(String value) {
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) == '/') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) == '/') {
+            end--;
+        }
+        return value.substring(start, end);
+    }
+}
@@ -0,0 +1,194 @@
+package example;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+// OutputStream que envia os bytes para o S3 em partes de tamanho fixo (multipart upload),
+// assim o uso de memória fica limitado a um único buffer, não importa o tamanho do arquivo.
+// se tudo couber em uma parte, faz um PutObject simples no close().
+final class S3MultipartOutputStream extends OutputStream {
+
+    // o S3 exige no mínimo 5 MB por parte (exceto a última)
+    static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+    static final int DEFAULT_PART_SIZE = 8 * 1024 * 1024;
+
+    private final S3Client s3Client;
+    private final String bucket;
+    private final String key;
+    private final String contentType;
+    private final String contentEncoding;
+    private final byte[] buffer;
+    private final List<CompletedPart> completedParts = new ArrayList<>();
+
+    private int position;
+    private String uploadId;
+    private boolean closed;
+
+    S3MultipartOutputStream(S3Client s3Client, String bucket, String key, String contentType) {
+        this(s3Client, bucket, key, contentType, null, DEFAULT_PART_SIZE);
+    }
+
+    // contentEncoding (ex.: "gzip") é opcional e vai para os metadados do objeto
+    S3MultipartOutputStream(S3Client s3Client, String bucket, String key, String contentType, String contentEncoding) {
+        this(s3Client, bucket, key, contentType, contentEncoding, DEFAULT_PART_SIZE);
+    }
+
+    S3MultipartOutputStream(S3Client s3Client, String bucket, String key, String contentType, int partSize) {
+        this(s3Client, bucket, key, contentType, null, partSize);
+    }
+
+    S3MultipartOutputStream(S3Client s3Client, String bucket, String key, String contentType, String contentEncoding, int partSize) {
+        if (partSize < MIN_PART_SIZE) {
+            throw new IllegalArgumentException("O tamanho da parte deve ser de pelo menos 5 MB.");
+        }
+        this.s3Client = s3Client;
+        this.bucket = bucket;
+        this.key = key;
+        this.contentType = contentType;
+        this.contentEncoding = contentEncoding;
+        this.buffer = new byte[partSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (position == buffer.length) {
+            uploadBufferedPart();
+        }
+        buffer[position++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        ensureOpen();
+        while (length > 0) {
+            if (position == buffer.length) {
+                uploadBufferedPart();
+            }
+            int chunk = Math.min(length, buffer.length - position);
+            System.arraycopy(bytes, offset, buffer, position, chunk);
+            position += chunk;
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    // finaliza o upload: PutObject simples se nunca encheu uma parte, senão completa o multipart
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (uploadId == null) {
+                PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .contentType(contentType)
+                        .contentEncoding(contentEncoding)
+                        .build();
+                s3Client.putObject(putObjectRequest, bufferedBody());
+                return;
+            }
+
+            if (position > 0) {
+                uploadPart();
+            }
+
+            CompleteMultipartUploadRequest completeRequest = CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                    .build();
+            s3Client.completeMultipartUpload(completeRequest);
+        } catch (RuntimeException e) {
+            abortQuietly();
+            throw e;
+        }
+    }
+
+    // descarta tudo que foi enviado até agora, sem criar o objeto no bucket
+    void abort() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        abortQuietly();
+    }
+
+    private void uploadBufferedPart() {
+        try {
+            if (uploadId == null) {
+                CreateMultipartUploadRequest createRequest = CreateMultipartUploadRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .contentType(contentType)
+                        .contentEncoding(contentEncoding)
+                        .build();
+                uploadId = s3Client.createMultipartUpload(createRequest).uploadId();
+            }
+            uploadPart();
+        } catch (RuntimeException e) {
+            closed = true;
+            abortQuietly();
+            throw e;
+        }
+    }
+
+    private void uploadPart() {
+        int partNumber = completedParts.size() + 1;
+        UploadPartRequest uploadPartRequest = UploadPartRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .contentLength((long) position)
+                .build();
+        UploadPartResponse response = s3Client.uploadPart(uploadPartRequest, bufferedBody());
+        completedParts.add(CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()).build());
+        position = 0;
+    }
+
+    // o provider recria o stream a cada tentativa, então os retries do SDK não precisam copiar o buffer
+    private RequestBody bufferedBody() {
+        int length = position;
+        return RequestBody.fromContentProvider(() -> new ByteArrayInputStream(buffer, 0, length), length, contentType);
+    }
+
+    private void abortQuietly() {
+        if (uploadId == null) {
+            return;
+        }
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (RuntimeException ignored) {
+            // a regra de ciclo de vida do bucket limpa uploads incompletos que sobrarem
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream já foi fechado.");
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package example;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.core.retry.RetryMode;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.core.retry.backoff.FullJitterBackoffStrategy;
+import software.amazon.awssdk.core.retry.conditions.RetryCondition;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// política única para limites de vazão da AWS (DynamoDB, SQS, SES, S3): todos os clientes tentam
+// de novo no modo adaptativo do SDK, que além do backoff com jitter limita a taxa de envio do
+// próprio container quando o serviço começa a recusar, e passam por um disjuntor por serviço
+// (CircuitBreaker). o que ainda assim esgotar vira 429 com Retry-After em vez de 500, para o
+// cliente esperar em vez de repetir na hora. as contagens vão para o CloudWatch em EMF.
+final class Throttling {
+
+    // tentativas extras do SDK; as esperas de limite de vazão ficam entre 0 e o teto de cada tentativa
+    static final int MAX_RETRIES = 4;
+    private static final Duration THROTTLING_BASE_DELAY = Duration.ofMillis(100);
+    private static final Duration THROTTLING_MAX_DELAY = Duration.ofSeconds(2);
+
+    // Retry-After quando o disjuntor não sabe dizer quanto falta
+    static final long DEFAULT_RETRY_AFTER_SECONDS = 2;
+
+    // no máximo uma linha de métricas por serviço por minuto no log
+    private static final long METRICS_INTERVAL_MILLIS = 60_000;
+
+    private static final Map<String, Counters> COUNTERS = new ConcurrentHashMap<>();
+
+    private Throttling() {
+    }
+
+    // limite de vazão esgotado: disjuntor aberto ou tentativas que terminaram sem o serviço aceitar
+    static final class ThrottledException extends RuntimeException {
+        private final long retryAfterMillis;
+
+        ThrottledException(String message, long retryAfterMillis) {
+            super(message);
+            this.retryAfterMillis = retryAfterMillis;
+        }
+
+        ThrottledException(String message, Throwable cause, long retryAfterMillis) {
+            super(message, cause);
+            this.retryAfterMillis = retryAfterMillis;
+        }
+
+        long retryAfterMillis() {
+            return retryAfterMillis;
+        }
+    }
+
+    // contagens de um serviço: tentativas repetidas por limite de vazão, chamadas que esgotaram
+    // as tentativas e chamadas recusadas pelo disjuntor aberto
+    static final class Counters {
+        final LongAdder retried = new LongAdder();
+        final LongAdder exhausted = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        private final AtomicLong lastMetricsAt = new AtomicLong(System.currentTimeMillis());
+        private long reportedRetried;
+        private long reportedExhausted;
+        private long reportedRejected;
+    }
+
+    static Counters counters(String service) {
+        return COUNTERS.computeIfAbsent(service, ignored -> new Counters());
+    }
+
+    // configuração comum dos clientes: retry adaptativo que conta os limites de vazão e o disjuntor
+    static ClientOverrideConfiguration clientConfiguration(String service) {
+        Counters counters = counters(service);
+        RetryCondition defaultCondition = RetryCondition.defaultRetryCondition();
+        RetryPolicy retryPolicy = RetryPolicy.builder(RetryMode.ADAPTIVE)
+                .numRetries(MAX_RETRIES)
+                .throttlingBackoffStrategy(FullJitterBackoffStrategy.builder()
+                        .baseDelay(THROTTLING_BASE_DELAY)
+                        .maxBackoffTime(THROTTLING_MAX_DELAY)
+                        .build())
+                .retryCondition(context -> {
+                    boolean retry = defaultCondition.shouldRetry(context);
+                    if (retry && isThrottle(context.exception())) {
+                        counters.retried.increment();
+                    }
+                    return retry;
+                })
+                .build();
+        return ClientOverrideConfiguration.builder()
+                .retryPolicy(retryPolicy)
+                .addExecutionInterceptor(new CircuitBreaker(service, counters))
+                .build();
+    }
+
+    // para os lotes e transações que repetem por conta própria (itens não processados, cancelamento
+    // por limite de vazão): conta como esgotado e sai com o Retry-After padrão
+    static ThrottledException exhausted(String service, String message, Throwable cause) {
+        counters(service).exhausted.increment();
+        return new ThrottledException(message, cause, DEFAULT_RETRY_AFTER_SECONDS * 1000);
+    }
+
+    // procura na cadeia de causas: o erro pode chegar embrulhado (ex.: pelo Parallel.map)
+    static boolean isThrottle(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof ThrottledException) {
+                return true;
+            }
+            if (e instanceof SdkServiceException && ((SdkServiceException) e).isThrottlingException()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // resposta de erro inesperado dos handlers da API: limite de vazão esgotado vira 429 com
+    // Retry-After, para o cliente esperar antes de repetir; o resto é 500
+    static APIGatewayProxyResponseEvent errorResponse(Throwable error) {
+        if (isThrottle(error)) {
+            return tooManyRequests(error);
+        }
+        return new APIGatewayProxyResponseEvent().withStatusCode(500).withBody("{\"error\": \"Erro interno no servidor.\"}");
+    }
+
+    static APIGatewayProxyResponseEvent tooManyRequests(Throwable error) {
+        long retryAfterSeconds = DEFAULT_RETRY_AFTER_SECONDS;
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof ThrottledException) {
+                retryAfterSeconds = Math.max(1, (((ThrottledException) e).retryAfterMillis() + 999) / 1000);
+                break;
+            }
+        }
+        return new APIGatewayProxyResponseEvent()
+                .withStatusCode(429)
+                .withHeaders(Map.of("Retry-After", String.valueOf(retryAfterSeconds)))
+                .withBody("{\"error\": \"Muitas requisições no momento. Tente novamente em instantes.\"}");
+    }
+
+    // diferenças desde a última linha, no Embedded Metric Format (namespace TodoList, dimensão Service)
+    static void reportMetrics(String service, long now) {
+        Counters counters = counters(service);
+        long last = counters.lastMetricsAt.get();
+        if (now - last < METRICS_INTERVAL_MILLIS || !counters.lastMetricsAt.compareAndSet(last, now)) {
+            return;
+        }
+        long retried;
+        long exhausted;
+        long rejected;
+        synchronized (counters) {
+            retried = counters.retried.sum() - counters.reportedRetried;
+            exhausted = counters.exhausted.sum() - counters.reportedExhausted;
+            rejected = counters.rejected.sum() - counters.reportedRejected;
+            counters.reportedRetried += retried;
+            counters.reportedExhausted += exhausted;
+            counters.reportedRejected += rejected;
+        }
+        if (retried + exhausted + rejected > 0) {
+            System.out.println(metricsLine(now, service, retried, exhausted, rejected));
+        }
+    }
+
+    static String metricsLine(long timestamp, String service, long retried, long exhausted, long rejected) {
+        return "{\"_aws\":{\"Timestamp\":" + timestamp + ",\"CloudWatchMetrics\":[{\"Namespace\":\"TodoList\","
+                + "\"Dimensions\":[[\"Service\"]],\"Metrics\":[{\"Name\":\"ThrottleRetries\",\"Unit\":\"Count\"},"
+                + "{\"Name\":\"ThrottleExhausted\",\"Unit\":\"Count\"},{\"Name\":\"CircuitOpenRejections\",\"Unit\":\"Count\"}]}]},"
+                + "\"Service\":\"" + service + "\",\"ThrottleRetries\":" + retried + ",\"ThrottleExhausted\":" + exhausted
+                + ",\"CircuitOpenRejections\":" + rejected + "}";
+    }
+}
@@ -0,0 +1,146 @@
+package example;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// acesso aos dados da API. as implementações são donas do esquema de chaves
+// (USER#/LIST#/ITEM#/EXPORT#); os handlers só passam IDs e recebem as linhas já gravadas.
+// as linhas continuam no formato Map<String, AttributeValue> para a serialização ler direto delas
+interface TodoRepository {
+
+    // uma página de linhas e a chave para continuar (null na última página)
+    final class Page {
+        final List<Map<String, AttributeValue>> items;
+        final Map<String, AttributeValue> lastEvaluatedKey;
+
+        Page(List<Map<String, AttributeValue>> items, Map<String, AttributeValue> lastEvaluatedKey) {
+            this.items = items;
+            this.lastEvaluatedKey = lastEvaluatedKey == null || lastEvaluatedKey.isEmpty() ? null : lastEvaluatedKey;
+        }
+    }
+
+    // putItems que falhou no meio: writtenItemIds são os itens que chegaram ao banco mesmo assim
+    final class PartialWriteException extends RuntimeException {
+        final Set<String> writtenItemIds;
+
+        PartialWriteException(Set<String> writtenItemIds, RuntimeException cause) {
+            super(cause.getMessage(), cause);
+            this.writtenItemIds = writtenItemIds;
+        }
+    }
+
+    // listas
+
+    void putList(String userId, String listId, String name, String createdAt);
+
+    // null quando a lista não existe
+    Map<String, AttributeValue> getList(String userId, String listId);
+
+    // só os atributos pedidos (ProjectionExpression); attributes null = linha inteira.
+    // o DynamoDB cobra a leitura pelo tamanho da linha inteira mesmo assim: a projeção só diminui
+    // a resposta, então quem tem a linha inteira à mão (cache) pode devolvê-la
+    Map<String, AttributeValue> getList(String userId, String listId, List<String> attributes);
+
+    void renameList(String userId, String listId, String name);
+
+    // primeiro passo da exclusão: grava deleteRequestedAt na lista se ela existir nesta partição de
+    // usuário; false quando não existe. a linha só sai (deleteList) depois da limpeza dos itens
+    boolean markListDeleting(String userId, String listId);
+
+    // só apaga se a lista existir nesta partição de usuário; false quando não existia
+    boolean deleteList(String userId, String listId);
+
+    // linha META da lista (itemCount, completedCount, version). uma lista sem contadores completos
+    // (anterior a eles ou recém-criada) tem a partição contada uma vez antes. null = sem itens
+    Map<String, AttributeValue> getListStats(String listId);
+
+    // listas do usuário em ordem de sk, só com userId, sk, name e createdAt
+    Page queryLists(String userId, Integer limit, Map<String, AttributeValue> exclusiveStartKey);
+
+    // o cursor pertence à partição deste usuário?
+    boolean isListCursorOf(String userId, Map<String, AttributeValue> exclusiveStartKey);
+
+    // linhas META de várias listas numa leitura só: listId -> linha; listas sem itens podem ficar
+    // de fora. as que ainda não têm contadores completos são contadas como no getListStats
+    Map<String, Map<String, AttributeValue>> batchGetListStats(List<String> listIds);
+
+    // itens. putItem, updateItem e deleteItem atualizam os contadores da linha META na mesma
+    // transação da escrita do item
+
+    void putItem(String listId, String itemId, String text, String createdAt);
+
+    // itemId -> texto, na ordem de inserção do mapa; todos com o mesmo createdAt.
+    // numa falha parcial lança PartialWriteException com os itens gravados
+    void putItems(String listId, Map<String, String> textsById, String createdAt);
+
+    // null quando o item não existe
+    Map<String, AttributeValue> getItem(String listId, String itemId);
+
+    // como getList com attributes
+    Map<String, AttributeValue> getItem(String listId, String itemId, List<String> attributes);
+
+    // text e/ou completed (null = não muda). devolve false se o item não existe
+    boolean updateItem(String listId, String itemId, String text, Boolean completed);
+
+    // para lotes: altera o item sem transação e sem tocar na linha META. devolve a diferença no
+    // completedCount (-1, 0 ou 1), ou null se o item não existe; quem chama soma as diferenças
+    // e aplica uma vez com addListStats (transações paralelas na mesma linha META conflitam)
+    Integer updateItemWithoutStats(String listId, String itemId, String text, Boolean completed);
+
+    // ADD nos contadores da linha META; também aumenta a versão. quem grava itens sem transação
+    // chama com (0, 0) antes das escritas: se o ADD do fim falhar, a versão já mudou e nenhum
+    // relatório do conteúdo anterior é reaproveitado pela exportação
+    void addListStats(String listId, long itemDelta, long completedDelta);
+
+    void deleteItem(String listId, String itemId);
+
+    // versão da lista: aumenta a cada escrita de item (LIST#<listId> / META). leitura
+    // forte, para quem acabou de escrever não receber a versão anterior. null = nunca escrita
+    Long getListVersion(String listId);
+
+    // limit null = página do tamanho que o banco decidir; attributes null = linhas inteiras
+    Page queryItems(String listId, Integer limit, Map<String, AttributeValue> exclusiveStartKey, List<String> attributes);
+
+    // só os itens pendentes, pelo índice esparso (OpenItemsIndex). itens gravados antes do índice
+    // só entram nele com o OpenItemsBackfill; até lá a leitura é a partição com filtro
+    Page queryOpenItems(String listId, Integer limit, Map<String, AttributeValue> exclusiveStartKey, List<String> attributes);
+
+    // itens por faixa de sk, que com IDs ordenados pelo tempo é a faixa de criação: só os criados
+    // depois de createdAfter (null = todos), do mais novo para o mais antigo se newestFirst, e só
+    // os pendentes (índice esparso) se openOnly. itens com ID antigo (UUID v4) ficam de fora
+    Page queryItemsByTime(String listId, boolean openOnly, Instant createdAfter, boolean newestFirst,
+                          Integer limit, Map<String, AttributeValue> exclusiveStartKey, List<String> attributes);
+
+    // só o itemId dos itens com o completed pedido. limit conta as linhas lidas antes do filtro
+    // (como no DynamoDB), então a página pode vir vazia com lastEvaluatedKey preenchido
+    Page queryItemIds(String listId, boolean completed, int limit, Map<String, AttributeValue> exclusiveStartKey);
+
+    // o cursor pertence à partição desta lista?
+    boolean isItemCursorOf(String listId, Map<String, AttributeValue> exclusiveStartKey);
+
+    // o cursor é de uma página de queryOpenItems desta lista?
+    boolean isOpenItemCursorOf(String listId, Map<String, AttributeValue> exclusiveStartKey);
+
+    // apaga até limit linhas da lista e devolve a chave para continuar, ou null quando acabou
+    Map<String, AttributeValue> deleteItemsPage(String listId, int limit, Map<String, AttributeValue> exclusiveStartKey);
+
+    // exportação
+
+    // marca a exportação como pendente até expiresAt; false se já houver outra ainda válida
+    boolean claimExport(String listId, String userId, String formatId, long now, long expiresAt);
+
+    void releaseExport(String listId, String userId, String formatId);
+
+    // linha do último relatório (listVersion, s3Key, createdAt) ou null
+    Map<String, AttributeValue> getLatestReport(String listId, String formatId);
+
+    // listVersion é a versão da lista lida antes do relatório; null quando a lista não tem versão
+    void saveLatestReport(String listId, String formatId, Long listVersion, String s3Key, String createdAt);
+
+    // chamado pelo prime() dos handlers (ver Priming)
+    void prime();
+}
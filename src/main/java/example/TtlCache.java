@@ -0,0 +1,118 @@
+package example;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+// cache em memória com validade (TTL) e limite de tamanho (remove o menos usado). vive enquanto
+// o container estiver quente. buscas simultâneas pela mesma chave esperam o mesmo carregamento
+// em vez de chamar o loader várias vezes.
+final class TtlCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // LinkedHashMap em ordem de acesso: o primeiro da fila é o menos usado
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    TtlCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, System::currentTimeMillis);
+    }
+
+    // construtor para os testes (relógio controlado)
+    TtlCache(int maxSize, Duration ttl, LongSupplier clock) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > TtlCache.this.maxSize;
+            }
+        };
+    }
+
+    private static final class Entry<V> {
+        final CompletableFuture<V> value = new CompletableFuture<>();
+        // só passa a valer quando o carregamento termina; enquanto isso a entrada não expira
+        volatile long expiresAt = Long.MAX_VALUE;
+    }
+
+    V get(K key, Function<K, V> loader) {
+        Entry<V> entry;
+        boolean loadHere = false;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && clock.getAsLong() < entry.expiresAt) {
+                hits.incrementAndGet();
+            } else {
+                misses.incrementAndGet();
+                entry = new Entry<>();
+                entries.put(key, entry);
+                loadHere = true;
+            }
+        }
+
+        if (loadHere) {
+            try {
+                V value = loader.apply(key);
+                entry.expiresAt = clock.getAsLong() + ttlMillis;
+                entry.value.complete(value);
+                return value;
+            } catch (RuntimeException e) {
+                // falhas não ficam no cache: a próxima busca tenta de novo
+                synchronized (entries) {
+                    entries.remove(key, entry);
+                }
+                entry.value.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return entry.value.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    // tira a chave do cache. um carregamento que já estava em andamento termina para quem
+    // esperava por ele, mas não volta para o cache: a entrada dele deixou de ser a do mapa
+    void invalidate(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    void invalidateIf(Predicate<K> predicate) {
+        synchronized (entries) {
+            entries.keySet().removeIf(predicate);
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    long hits() {
+        return hits.get();
+    }
+
+    long misses() {
+        return misses.get();
+    }
+}
@@ -5,29 +5,44 @@ import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.google.gson.Gson;
-import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
-import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
-import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
 
-import java.util.HashMap;
 import java.util.Map;
 
 public class UpdateDeleteListHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
 
-    private final DynamoDbClient dynamoDbClient;
-    private final String tableName;
+    private final TodoRepository repository;
+    private final SqsClient sqsClient;
+    private final String purgeQueueUrl;
     private final Gson gson = new Gson();
 
     public UpdateDeleteListHandler() {
-        this.dynamoDbClient = DynamoDbClient.builder().region(Region.SA_EAST_1).build();
-        this.tableName = System.getenv("TABLE_NAME");
+        this(CachingTodoRepository.shared(), AwsClients.sqs(), System.getenv("PURGE_QUEUE_URL"));
+        Priming.register(this::prime);
     }
 
+    // sem fila de limpeza, os itens da lista são sempre apagados dentro da própria requisição
     public UpdateDeleteListHandler(DynamoDbClient dynamoDbClient, String tableName) {
-        this.dynamoDbClient = dynamoDbClient;
-        this.tableName = tableName;
+        this(dynamoDbClient, null, tableName, null);
+    }
+
+    // construtor para os testes
+    public UpdateDeleteListHandler(DynamoDbClient dynamoDbClient, SqsClient sqsClient, String tableName, String purgeQueueUrl) {
+        this(new DynamoTodoRepository(dynamoDbClient, tableName), sqsClient, purgeQueueUrl);
+    }
+
+    UpdateDeleteListHandler(TodoRepository repository, SqsClient sqsClient, String purgeQueueUrl) {
+        this.repository = repository;
+        this.sqsClient = sqsClient;
+        this.purgeQueueUrl = purgeQueueUrl;
+    }
+
+    void prime() {
+        gson.fromJson("{\"name\": \"priming\"}", InputData.class);
+        repository.prime();
     }
 
     @Override
@@ -44,7 +59,7 @@ public class UpdateDeleteListHandler implements RequestHandler<APIGatewayProxyRe
             }
         } catch (Exception e) {
             context.getLogger().log("ERRO AO PROCESSAR REQUISIÇÃO: " + e.getMessage());
-            return new APIGatewayProxyResponseEvent().withStatusCode(500).withBody("{\"error\": \"Erro interno no servidor.\"}");
+            return Throttling.errorResponse(e);
         }
     }
 
@@ -54,21 +69,7 @@ public class UpdateDeleteListHandler implements RequestHandler<APIGatewayProxyRe
         InputData inputData = gson.fromJson(event.getBody(), InputData.class);
         String newListName = inputData.getName();
 
-        Map<String, AttributeValue> keyToUpdate = new HashMap<>();
-        keyToUpdate.put("pk", AttributeValue.builder().s("USER#" + userId).build());
-        keyToUpdate.put("sk", AttributeValue.builder().s("LIST#" + listId).build());
-
-        Map<String, AttributeValue> expressionAttributeValues = new HashMap<>();
-        expressionAttributeValues.put(":newName", AttributeValue.builder().s(newListName).build());
-
-        UpdateItemRequest updateReq = UpdateItemRequest.builder()
-                .tableName(this.tableName)
-                .key(keyToUpdate)
-                .updateExpression("SET #nm = :newName")
-                .expressionAttributeNames(Map.of("#nm", "name"))
-                .expressionAttributeValues(expressionAttributeValues)
-                .build();
-        dynamoDbClient.updateItem(updateReq);
+        repository.renameList(userId, listId, newListName);
 
         return new APIGatewayProxyResponseEvent().withStatusCode(200).withBody("{\"message\": \"Lista atualizada com sucesso!\"}");
     }
@@ -77,19 +78,45 @@ public class UpdateDeleteListHandler implements RequestHandler<APIGatewayProxyRe
         String userId = event.getPathParameters().get("userId");
         String listId = event.getPathParameters().get("listId");
 
-        Map<String, AttributeValue> keyToDelete = new HashMap<>();
-        keyToDelete.put("pk", AttributeValue.builder().s("USER#" + userId).build());
-        keyToDelete.put("sk", AttributeValue.builder().s("LIST#" + listId).build());
+        // a lista precisa existir na partição do usuário: sem isso qualquer um apagaria os itens
+        // de uma lista alheia só conhecendo o listId
+        if (!repository.markListDeleting(userId, listId)) {
+            return new APIGatewayProxyResponseEvent().withStatusCode(404).withBody("{\"error\": \"Lista não encontrada.\"}");
+        }
 
-        DeleteItemRequest deleteReq = DeleteItemRequest.builder()
-                .tableName(this.tableName)
-                .key(keyToDelete)
-                .build();
-        dynamoDbClient.deleteItem(deleteReq);
+        // apaga os itens da lista: a primeira página vai na hora; se sobrar mais, o resto
+        // segue pela fila de limpeza para a resposta HTTP não esperar listas grandes.
+        // a linha da lista sai por último: se a limpeza ou o envio falhar, a repetição do DELETE
+        // ainda encontra a lista e recomeça, em vez de responder 404 e deixar a partição para trás
+        Map<String, AttributeValue> nextKey = ListItemsPurger.purgePage(repository, listId, null);
+        boolean queued = false;
+        if (nextKey != null && (sqsClient == null || purgeQueueUrl == null)) {
+            while (nextKey != null) {
+                nextKey = ListItemsPurger.purgePage(repository, listId, nextKey);
+            }
+        } else if (nextKey != null) {
+            sqsClient.sendMessage(SendMessageRequest.builder()
+                    .queueUrl(purgeQueueUrl)
+                    .messageBody(gson.toJson(new PurgeMessage(listId)))
+                    .build());
+            queued = true;
+        }
 
+        repository.deleteList(userId, listId);
+        if (queued) {
+            return new APIGatewayProxyResponseEvent().withStatusCode(202).withBody("{\"message\": \"Lista apagada. Os itens restantes estão sendo removidos.\"}");
+        }
         return new APIGatewayProxyResponseEvent().withStatusCode(200).withBody("{\"message\": \"Lista apagada com sucesso!\"}");
     }
 
+    private static class PurgeMessage {
+        String listId;
+
+        PurgeMessage(String listId) {
+            this.listId = listId;
+        }
+    }
+
     private static class InputData {
         private String name;
         public String getName() { return name; }
@@ -5,23 +5,25 @@ import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.google.gson.Gson;
-import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
-import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
-import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
-
-import java.util.HashMap;
-import java.util.Map;
 
 public class UpdateItemHandler implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
 
-    private final DynamoDbClient dynamoDbClient;
-    private final String tableName;
+    private final TodoRepository repository;
     private final Gson gson = new Gson();
 
     public UpdateItemHandler() {
-        this.dynamoDbClient = DynamoDbClient.builder().region(Region.SA_EAST_1).build();
-        this.tableName = System.getenv("TABLE_NAME");
+        this(CachingTodoRepository.shared());
+        Priming.register(this::prime);
+    }
+
+    // construtor para os testes
+    public UpdateItemHandler(DynamoDbClient dynamoDbClient, String tableName) {
+        this(new DynamoTodoRepository(dynamoDbClient, tableName));
+    }
+
+    UpdateItemHandler(TodoRepository repository) {
+        this.repository = repository;
     }
 
     // classe interna para o corpo da requisição
@@ -33,6 +35,11 @@ public class UpdateItemHandler implements RequestHandler<APIGatewayProxyRequestE
         public Boolean isCompleted() { return completed; }
     }
 
+    void prime() {
+        gson.fromJson("{\"text\": \"priming\", \"completed\": true}", InputData.class);
+        repository.prime();
+    }
+
     @Override
     public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent event, Context context) {
         try {
@@ -42,47 +49,26 @@ public class UpdateItemHandler implements RequestHandler<APIGatewayProxyRequestE
 
             InputData input = gson.fromJson(event.getBody(), InputData.class);
 
-            String pk = "LIST#" + listId;
-            String sk = "ITEM#" + itemId;
-            Map<String, AttributeValue> keyToUpdate = new HashMap<>();
-            keyToUpdate.put("pk", AttributeValue.builder().s(pk).build());
-            keyToUpdate.put("sk", AttributeValue.builder().s(sk).build());
-
-            String updateExpression = "SET ";
-            Map<String, String> expressionAttributeNames = new HashMap<>();
-            Map<String, AttributeValue> expressionAttributeValues = new HashMap<>();
-
-            if (input.getText() != null && !input.getText().trim().isEmpty()) {
-                updateExpression += "#txt = :newText, ";
-                expressionAttributeNames.put("#txt", "text");
-                expressionAttributeValues.put(":newText", AttributeValue.builder().s(input.getText()).build());
+            String text = input.getText() != null && !input.getText().trim().isEmpty() ? input.getText() : null;
+            if (text == null && input.isCompleted() == null) {
+                return new APIGatewayProxyResponseEvent()
+                        .withStatusCode(400)
+                        .withBody("{\"error\": \"Informe text e/ou completed para atualizar.\"}");
             }
 
-            if (input.isCompleted() != null) {
-                updateExpression += "#comp = :newCompleted, ";
-                expressionAttributeNames.put("#comp", "completed");
-                expressionAttributeValues.put(":newCompleted", AttributeValue.builder().bool(input.isCompleted()).build());
+            if (!repository.updateItem(listId, itemId, text, input.isCompleted())) {
+                return new APIGatewayProxyResponseEvent()
+                        .withStatusCode(404)
+                        .withBody("{\"message\": \"Item não encontrado.\"}");
             }
 
-            updateExpression = updateExpression.substring(0, updateExpression.length() - 2);
-
-            UpdateItemRequest updateReq = UpdateItemRequest.builder()
-                    .tableName(this.tableName)
-                    .key(keyToUpdate)
-                    .updateExpression(updateExpression)
-                    .expressionAttributeNames(expressionAttributeNames)
-                    .expressionAttributeValues(expressionAttributeValues)
-                    .build();
-
-            dynamoDbClient.updateItem(updateReq);
-
             return new APIGatewayProxyResponseEvent()
                     .withStatusCode(200)
                     .withBody("{\"message\": \"Item atualizado com sucesso!\"}");
 
         } catch (Exception e) {
             context.getLogger().log("ERRO AO ATUALIZAR ITEM: " + e.getMessage());
-            return new APIGatewayProxyResponseEvent().withStatusCode(500).withBody("{\"error\": \"Erro interno no servidor.\"}");
+            return Throttling.errorResponse(e);
         }
     }
 }
\ No newline at end of file
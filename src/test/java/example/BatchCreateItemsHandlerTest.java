@@ -0,0 +1,197 @@
+package example;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ExtendWith(MockitoExtension.class)
+public class BatchCreateItemsHandlerTest {
+
+    @Mock
+    private DynamoDbClient dynamoDbClient;
+    @Mock
+    private Context context;
+    @Mock
+    private LambdaLogger logger;
+
+    private BatchCreateItemsHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        when(context.getLogger()).thenReturn(logger);
+        handler = new BatchCreateItemsHandler(dynamoDbClient, "FakeTable");
+    }
+
+    private static APIGatewayProxyRequestEvent requestWithItems(int count) {
+        StringBuilder body = new StringBuilder("{\"items\": [");
+        for (int i = 0; i < count; i++) {
+            body.append(i == 0 ? "" : ",").append("{\"text\": \"tarefa ").append(i).append("\"}");
+        }
+        body.append("]}");
+        return new APIGatewayProxyRequestEvent()
+                .withPathParameters(Map.of("listId", "list456"))
+                .withBody(body.toString());
+    }
+
+    @Test
+    void testHandleRequest_WritesInChunksAndKeepsOrder() {
+        List<BatchWriteItemRequest> requests = new ArrayList<>();
+        when(dynamoDbClient.batchWriteItem(any(BatchWriteItemRequest.class))).thenAnswer(invocation -> {
+            synchronized (requests) {
+                requests.add(invocation.getArgument(0));
+            }
+            return BatchWriteItemResponse.builder().build();
+        });
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(requestWithItems(60), context);
+
+        assertEquals(201, response.getStatusCode());
+        assertEquals(3, requests.size());
+
+        Map<String, String> textById = new HashMap<>();
+        for (BatchWriteItemRequest request : requests) {
+            for (WriteRequest write : request.requestItems().get("FakeTable")) {
+                textById.put(write.putRequest().item().get("itemId").s(), write.putRequest().item().get("text").s());
+            }
+        }
+        JsonArray itemIds = JsonParser.parseString(response.getBody()).getAsJsonObject().getAsJsonArray("itemIds");
+        assertEquals(60, itemIds.size());
+        for (int i = 0; i < itemIds.size(); i++) {
+            assertEquals("tarefa " + i, textById.get(itemIds.get(i).getAsString()));
+        }
+    }
+
+    @Test
+    void testHandleRequest_RetriesUnprocessedItems() {
+        when(dynamoDbClient.batchWriteItem(any(BatchWriteItemRequest.class))).thenAnswer(invocation -> {
+            BatchWriteItemRequest request = invocation.getArgument(0);
+            List<WriteRequest> writes = request.requestItems().get("FakeTable");
+            if (writes.size() == 2) {
+                // na primeira tentativa o DynamoDB devolve um dos dois itens como não processado
+                return BatchWriteItemResponse.builder()
+                        .unprocessedItems(Map.of("FakeTable", writes.subList(1, 2)))
+                        .build();
+            }
+            return BatchWriteItemResponse.builder().build();
+        });
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(requestWithItems(2), context);
+
+        assertEquals(201, response.getStatusCode());
+        ArgumentCaptor<BatchWriteItemRequest> captor = ArgumentCaptor.forClass(BatchWriteItemRequest.class);
+        verify(dynamoDbClient, times(2)).batchWriteItem(captor.capture());
+        assertEquals(1, captor.getAllValues().get(1).requestItems().get("FakeTable").size());
+    }
+
+    @Test
+    void testHandleRequest_PartialFailureReturnsWrittenIds() {
+        when(dynamoDbClient.batchWriteItem(any(BatchWriteItemRequest.class))).thenAnswer(invocation -> {
+            BatchWriteItemRequest request = invocation.getArgument(0);
+            // o primeiro lote (25 itens) grava e o segundo (5 itens) falha
+            if (request.requestItems().get("FakeTable").size() == 5) {
+                throw DynamoDbException.builder().message("falhou").statusCode(500).build();
+            }
+            return BatchWriteItemResponse.builder().build();
+        });
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(requestWithItems(30), context);
+
+        assertEquals(500, response.getStatusCode());
+        JsonArray itemIds = JsonParser.parseString(response.getBody()).getAsJsonObject().getAsJsonArray("itemIds");
+        assertEquals(30, itemIds.size());
+        for (int i = 0; i < itemIds.size(); i++) {
+            assertEquals(i >= 25, itemIds.get(i).isJsonNull());
+        }
+        assertTrue(response.getBody().contains("Reenvie apenas"));
+    }
+
+    @Test
+    void testHandleRequest_CounterFailureKeepsWrittenIds() {
+        when(dynamoDbClient.batchWriteItem(any(BatchWriteItemRequest.class))).thenAnswer(invocation -> {
+            BatchWriteItemRequest request = invocation.getArgument(0);
+            if (request.requestItems().get("FakeTable").size() == 5) {
+                throw DynamoDbException.builder().message("falhou").statusCode(500).build();
+            }
+            return BatchWriteItemResponse.builder().build();
+        });
+        // o ADD do fim na linha META também falha: não pode tomar o lugar da falha parcial. o que
+        // só aumenta a versão, antes das escritas, passa
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class))).thenAnswer(invocation -> {
+            UpdateItemRequest request = invocation.getArgument(0);
+            if (request.expressionAttributeValues().containsKey(":items")) {
+                throw DynamoDbException.builder().message("META indisponível").statusCode(500).build();
+            }
+            return UpdateItemResponse.builder().build();
+        });
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(requestWithItems(30), context);
+
+        assertEquals(500, response.getStatusCode());
+        JsonArray itemIds = JsonParser.parseString(response.getBody()).getAsJsonObject().getAsJsonArray("itemIds");
+        assertEquals(30, itemIds.size());
+        for (int i = 0; i < itemIds.size(); i++) {
+            assertEquals(i >= 25, itemIds.get(i).isJsonNull());
+        }
+        // a versão subiu antes dos lotes, então um relatório anterior não é reaproveitado
+        InOrder order = inOrder(dynamoDbClient);
+        order.verify(dynamoDbClient).updateItem(any(UpdateItemRequest.class));
+        order.verify(dynamoDbClient, atLeastOnce()).batchWriteItem(any(BatchWriteItemRequest.class));
+
+        // todos gravados e só o contador falhou: os IDs voltam do mesmo jeito
+        when(dynamoDbClient.batchWriteItem(any(BatchWriteItemRequest.class))).thenReturn(BatchWriteItemResponse.builder().build());
+        response = handler.handleRequest(requestWithItems(30), context);
+        assertEquals(500, response.getStatusCode());
+        itemIds = JsonParser.parseString(response.getBody()).getAsJsonObject().getAsJsonArray("itemIds");
+        for (int i = 0; i < itemIds.size(); i++) {
+            assertFalse(itemIds.get(i).isJsonNull());
+        }
+    }
+
+    @Test
+    void testHandleRequest_EmptyText() {
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withPathParameters(Map.of("listId", "list456"))
+                .withBody("{\"items\": [{\"text\": \"ok\"}, {\"text\": \" \"}]}");
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+        assertEquals(400, response.getStatusCode());
+        verify(dynamoDbClient, never()).batchWriteItem(any(BatchWriteItemRequest.class));
+    }
+}
@@ -0,0 +1,167 @@
+package example;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ExtendWith(MockitoExtension.class)
+public class BulkUpdateItemsHandlerTest {
+
+    @Mock
+    private DynamoDbClient dynamoDbClient;
+    @Mock
+    private Context context;
+    @Mock
+    private LambdaLogger logger;
+
+    private BulkUpdateItemsHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        when(context.getLogger()).thenReturn(logger);
+        handler = new BulkUpdateItemsHandler(dynamoDbClient, "FakeTable");
+    }
+
+    private static APIGatewayProxyRequestEvent request(String body) {
+        return new APIGatewayProxyRequestEvent()
+                .withPathParameters(Map.of("listId", "list456"))
+                .withBody(body);
+    }
+
+    @Test
+    void testHandleRequest_ReportsResultPerItem() {
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class))).thenAnswer(invocation -> {
+            UpdateItemRequest request = invocation.getArgument(0);
+            if (request.key().get("sk").s().equals("ITEM#sumiu")) {
+                throw ConditionalCheckFailedException.builder().message("condição falhou").build();
+            }
+            return UpdateItemResponse.builder().build();
+        });
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(
+                request("{\"itemIds\": [\"a\", \"sumiu\", \"b\", \"a\"], \"completed\": true}"), context);
+
+        assertEquals(200, response.getStatusCode());
+        JsonObject body = JsonParser.parseString(response.getBody()).getAsJsonObject();
+        assertEquals(2, body.get("updated").getAsInt());
+        assertEquals(1, body.get("notFound").getAsInt());
+        JsonArray results = body.getAsJsonArray("results");
+        assertEquals(3, results.size());
+        assertEquals("sumiu", results.get(1).getAsJsonObject().get("itemId").getAsString());
+        assertEquals("not_found", results.get(1).getAsJsonObject().get("status").getAsString());
+
+        // 3 itens (um deles inexistente) entre dois ADD na linha META: a versão antes das alterações
+        // e, no fim, a soma das mudanças
+        ArgumentCaptor<UpdateItemRequest> captor = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(dynamoDbClient, times(5)).updateItem(captor.capture());
+        assertEquals("META", captor.getAllValues().get(0).key().get("sk").s());
+        assertEquals("ADD #ver :one", captor.getAllValues().get(0).updateExpression());
+        List<UpdateItemRequest> itemUpdates = captor.getAllValues().stream()
+                .filter(request -> request.key().get("sk").s().startsWith("ITEM#"))
+                .collect(Collectors.toList());
+        assertEquals(3, itemUpdates.size());
+        UpdateItemRequest sent = itemUpdates.get(0);
+        assertEquals("SET #comp = :newCompleted REMOVE #open", sent.updateExpression());
+        assertEquals("openList", sent.expressionAttributeNames().get("#open"));
+        assertEquals("attribute_exists(pk)", sent.conditionExpression());
+        assertEquals(ReturnValue.UPDATED_OLD, sent.returnValues());
+        UpdateItemRequest stats = captor.getAllValues().get(4);
+        assertEquals("ADD #ver :one, completedCount :completed", stats.updateExpression());
+        assertEquals("2", stats.expressionAttributeValues().get(":completed").n());
+    }
+
+    @Test
+    void testHandleRequest_FilterReturnsContinuationToken() {
+        when(dynamoDbClient.query(any(QueryRequest.class))).thenAnswer(invocation -> {
+            QueryRequest request = invocation.getArgument(0);
+            if (request.exclusiveStartKey() == null || request.exclusiveStartKey().isEmpty()) {
+                return QueryResponse.builder()
+                        .items(List.of(Map.of("itemId", AttributeValue.builder().s("item1").build())))
+                        .lastEvaluatedKey(Map.of("pk", AttributeValue.builder().s("LIST#list456").build(),
+                                "sk", AttributeValue.builder().s("ITEM#item1").build(),
+                                "openList", AttributeValue.builder().s("LIST#list456").build()))
+                        .build();
+            }
+            return QueryResponse.builder()
+                    .items(List.of(Map.of("itemId", AttributeValue.builder().s("item2").build())))
+                    .build();
+        });
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class))).thenReturn(UpdateItemResponse.builder().build());
+
+        // uma página por requisição: a primeira devolve nextToken e a segunda continua dele
+        APIGatewayProxyResponseEvent first = handler.handleRequest(
+                request("{\"filter\": \"incomplete\", \"completed\": true}"), context);
+        assertEquals(200, first.getStatusCode());
+        JsonObject firstBody = JsonParser.parseString(first.getBody()).getAsJsonObject();
+        assertEquals(1, firstBody.get("updated").getAsInt());
+        String nextToken = firstBody.get("nextToken").getAsString();
+
+        APIGatewayProxyResponseEvent second = handler.handleRequest(
+                request("{\"filter\": \"incomplete\", \"completed\": true, \"nextToken\": \"" + nextToken + "\"}"), context);
+        assertEquals(200, second.getStatusCode());
+        JsonObject secondBody = JsonParser.parseString(second.getBody()).getAsJsonObject();
+        assertEquals(1, secondBody.get("updated").getAsInt());
+        assertFalse(secondBody.has("nextToken"));
+
+        // os pendentes vêm do índice esparso, com o limite por requisição
+        ArgumentCaptor<QueryRequest> captor = ArgumentCaptor.forClass(QueryRequest.class);
+        verify(dynamoDbClient, times(2)).query(captor.capture());
+        assertEquals(DynamoTodoRepository.OPEN_ITEMS_INDEX, captor.getAllValues().get(0).indexName());
+        assertEquals(BulkUpdateItemsHandler.MAX_ITEM_IDS, captor.getAllValues().get(0).limit());
+        // o item e os dois ADD na linha META em cada requisição
+        verify(dynamoDbClient, times(6)).updateItem(any(UpdateItemRequest.class));
+
+        // o cursor do índice não serve para o filtro dos concluídos
+        assertEquals(400, handler.handleRequest(
+                request("{\"filter\": \"completed\", \"completed\": false, \"nextToken\": \"" + nextToken + "\"}"), context)
+                .getStatusCode());
+    }
+
+    @Test
+    void testHandleRequest_RequiresSelectionAndChanges() {
+        APIGatewayProxyResponseEvent semSelecao = handler.handleRequest(request("{\"completed\": true}"), context);
+        APIGatewayProxyResponseEvent semMudanca = handler.handleRequest(request("{\"itemIds\": [\"a\"]}"), context);
+        APIGatewayProxyResponseEvent filtroInvalido = handler.handleRequest(
+                request("{\"filter\": \"todos\", \"completed\": true}"), context);
+
+        assertEquals(400, semSelecao.getStatusCode());
+        assertEquals(400, semMudanca.getStatusCode());
+        assertEquals(400, filtroInvalido.getStatusCode());
+        assertTrue(filtroInvalido.getBody().contains("Filtro"));
+        verify(dynamoDbClient, never()).updateItem(any(UpdateItemRequest.class));
+    }
+}
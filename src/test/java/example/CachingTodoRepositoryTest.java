@@ -0,0 +1,98 @@
+package example;
+
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ExtendWith(MockitoExtension.class)
+public class CachingTodoRepositoryTest {
+
+    @Mock
+    private TodoRepository delegate;
+
+    private final AtomicLong now = new AtomicLong(0);
+
+    private CachingTodoRepository repository() {
+        return new CachingTodoRepository(delegate, 100, Duration.ofSeconds(5), now::get);
+    }
+
+    private static Map<String, AttributeValue> item(String text) {
+        return Map.of("itemId", AttributeValue.builder().s("item1").build(), "text", AttributeValue.builder().s(text).build());
+    }
+
+    @Test
+    void testGetItem_ServedFromCacheUntilTtlExpires() {
+        CachingTodoRepository repository = repository();
+        when(delegate.getItem("list1", "item1")).thenReturn(item("a"), item("b"));
+
+        assertEquals("a", repository.getItem("list1", "item1").get("text").s());
+        now.addAndGet(4_999);
+        assertEquals("a", repository.getItem("list1", "item1").get("text").s());
+        now.addAndGet(2);
+        assertEquals("b", repository.getItem("list1", "item1").get("text").s());
+
+        verify(delegate, times(2)).getItem("list1", "item1");
+        assertEquals(1, repository.hits());
+        assertEquals(2, repository.misses());
+    }
+
+    @Test
+    void testWritesInvalidateTheirKeys() {
+        CachingTodoRepository repository = repository();
+        when(delegate.getItem("list1", "item1")).thenReturn(item("a"), item("b"), item("c"));
+        when(delegate.getList("user1", "list1")).thenReturn(Map.of("name", AttributeValue.builder().s("Mercado").build()));
+
+        repository.getItem("list1", "item1");
+        repository.updateItem("list1", "item1", "b", null);
+        assertEquals("b", repository.getItem("list1", "item1").get("text").s());
+
+        repository.getList("user1", "list1");
+        repository.renameList("user1", "list1", "Feira");
+        repository.getList("user1", "list1");
+        verify(delegate, times(2)).getList("user1", "list1");
+
+        // apagar a lista tira do cache também os itens dela
+        repository.deleteList("user1", "list1");
+        assertEquals("c", repository.getItem("list1", "item1").get("text").s());
+        verify(delegate, times(3)).getItem("list1", "item1");
+    }
+
+    @Test
+    void testMissingRowIsCachedUntilPut() {
+        CachingTodoRepository repository = repository();
+        when(delegate.getItem("list1", "item1")).thenReturn(null, item("a"));
+
+        assertNull(repository.getItem("list1", "item1"));
+        assertNull(repository.getItem("list1", "item1"));
+        repository.putItem("list1", "item1", "a", "2024-01-01T00:00:00Z");
+        assertEquals("a", repository.getItem("list1", "item1").get("text").s());
+
+        verify(delegate, times(2)).getItem("list1", "item1");
+    }
+
+    @Test
+    void testMetricsLineIsEmbeddedMetricFormat() {
+        String line = CachingTodoRepository.metricsLine(1700000000000L, 90, 10);
+
+        assertTrue(line.startsWith("{\"_aws\":{\"Timestamp\":1700000000000,"));
+        assertTrue(line.endsWith("\"ReadCacheHits\":90,\"ReadCacheMisses\":10}"));
+        assertEquals(line, JsonParser.parseString(line).toString());
+    }
+}
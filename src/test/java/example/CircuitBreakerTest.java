@@ -0,0 +1,74 @@
+package example;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final Throttling.Counters counters = new Throttling.Counters();
+    private final CircuitBreaker breaker = new CircuitBreaker("DynamoDB-teste", counters, now::get);
+    private final ExecutionAttributes attributes = new ExecutionAttributes();
+
+    @Test
+    void opensAfterConsecutiveThrottlesAndClosesOnSuccess() {
+        for (int i = 0; i < CircuitBreaker.FAILURE_THRESHOLD - 1; i++) {
+            breaker.onExecutionFailure(throttled(), attributes);
+        }
+        assertFalse(breaker.isOpen());
+
+        breaker.onExecutionFailure(throttled(), attributes);
+        assertTrue(breaker.isOpen());
+        assertEquals(CircuitBreaker.FAILURE_THRESHOLD, counters.exhausted.sum());
+
+        // aberto: falha na hora, sem ir à AWS, e vira 429 com o tempo que falta
+        Throttling.ThrottledException rejected = assertThrows(Throttling.ThrottledException.class,
+                () -> breaker.beforeExecution(mock(Context.BeforeExecution.class), attributes));
+        assertEquals(CircuitBreaker.BASE_COOLDOWN_MILLIS, rejected.retryAfterMillis());
+        assertEquals(1, counters.rejected.sum());
+        assertEquals("1", Throttling.tooManyRequests(rejected).getHeaders().get("Retry-After"));
+
+        // passada a pausa a chamada sai; um novo esgotamento reabre com a pausa dobrada
+        now.addAndGet(CircuitBreaker.BASE_COOLDOWN_MILLIS);
+        breaker.beforeExecution(mock(Context.BeforeExecution.class), attributes);
+        breaker.onExecutionFailure(throttled(), attributes);
+        assertTrue(breaker.isOpen());
+        now.addAndGet(CircuitBreaker.BASE_COOLDOWN_MILLIS);
+        assertTrue(breaker.isOpen());
+
+        // um sucesso zera a sequência
+        now.addAndGet(CircuitBreaker.BASE_COOLDOWN_MILLIS);
+        breaker.afterExecution(mock(Context.AfterExecution.class), attributes);
+        breaker.onExecutionFailure(throttled(), attributes);
+        assertFalse(breaker.isOpen());
+    }
+
+    @Test
+    void metricsLineIsEmbeddedMetricFormat() {
+        String line = Throttling.metricsLine(1_700_000_000_000L, "SQS", 3, 1, 2);
+
+        assertTrue(line.startsWith("{\"_aws\":{\"Timestamp\":1700000000000,\"CloudWatchMetrics\":[{\"Namespace\":\"TodoList\""));
+        assertTrue(line.endsWith("\"Service\":\"SQS\",\"ThrottleRetries\":3,\"ThrottleExhausted\":1,\"CircuitOpenRejections\":2}"));
+    }
+
+    private static Context.FailedExecution throttled() {
+        Context.FailedExecution context = mock(Context.FailedExecution.class);
+        when(context.exception()).thenReturn(ProvisionedThroughputExceededException.builder()
+                .message("Rate exceeded")
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode("ProvisionedThroughputExceededException").build())
+                .build());
+        return context;
+    }
+}
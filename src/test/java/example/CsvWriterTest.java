@@ -0,0 +1,81 @@
+package example;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CsvWriterTest {
+
+    private static String csv(String... fields) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvWriter writer = new CsvWriter(out);
+        for (String field : fields) {
+            writer.field(field);
+        }
+        writer.endRow();
+        writer.flush();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testPlainFieldsAreNotQuoted() throws IOException {
+        assertEquals("item1,Comprar pão,,x\r\n", csv("item1", "Comprar pão", null, "x"));
+    }
+
+    @Test
+    void testSpecialCharactersAreQuotedAndEscaped() throws IOException {
+        assertEquals("\"a,b\",\"diga \"\"oi\"\"\",\"linha1\nlinha2\",\"cr\rlf\",\"\"\"\"\r\n",
+                csv("a,b", "diga \"oi\"", "linha1\nlinha2", "cr\rlf", "\""));
+    }
+
+    @Test
+    void testFormulaLikeAndWhitespaceFieldsAreKeptAsIs() throws IOException {
+        assertEquals("=SUM(A1:A2), espaço ,\t\r\n", csv("=SUM(A1:A2)", " espaço ", "\t"));
+    }
+
+    @Test
+    void testUtf8MatchesJdkEncoder() throws IOException {
+        // acentos, CJK, emoji (par de surrogates) e surrogate solto
+        String text = "ação 漢字 🚀 fim \uD800 x";
+        byte[] expected = (text + "\r\n").getBytes(StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvWriter writer = new CsvWriter(out);
+        writer.field(text).endRow();
+        writer.flush();
+
+        assertEquals(new String(expected, StandardCharsets.UTF_8), out.toString(StandardCharsets.UTF_8));
+        assertEquals(expected.length, out.size());
+    }
+
+    @Test
+    void testFieldsLargerThanBufferAndRandomText() throws IOException {
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder();
+        while (text.length() < CsvWriter.BUFFER_SIZE * 3) {
+            // mistura ASCII, aspas, vírgulas, quebras e caracteres de 2, 3 e 4 bytes
+            switch (random.nextInt(6)) {
+                case 0: text.append('"'); break;
+                case 1: text.append(",\n"); break;
+                case 2: text.append('é'); break;
+                case 3: text.append('中'); break;
+                case 4: text.appendCodePoint(0x1F600); break;
+                default: text.append((char) ('a' + random.nextInt(26)));
+            }
+        }
+        String value = text.toString();
+        String expected = "id,\"" + value.replace("\"", "\"\"") + "\",true\r\n";
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvWriter writer = new CsvWriter(out);
+        writer.field("id").field(value).field(true).endRow();
+        writer.close();
+
+        assertEquals(expected, out.toString(StandardCharsets.UTF_8));
+    }
+}
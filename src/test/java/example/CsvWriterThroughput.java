@@ -0,0 +1,72 @@
+package example;
+
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// comparação rápida de vazão entre o CSV antigo (Writer + String por coluna, sem escape) e o CsvWriter.
+// não é teste do surefire; rodar depois do "mvn test-compile" com:
+//   java -cp target/classes:target/test-classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) example.CsvWriterThroughput
+public class CsvWriterThroughput {
+
+    private static final int ROWS = 100_000;
+    private static final int ROUNDS = 15;
+
+    public static void main(String[] args) throws IOException {
+        List<Map<String, AttributeValue>> items = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            items.add(Map.of(
+                    "itemId", AttributeValue.builder().s("0f8fad5b-d9cb-469f-a165-70867728950e").build(),
+                    "text", AttributeValue.builder().s("Comprar pão, leite e \"café\" número " + i).build(),
+                    "createdAt", AttributeValue.builder().s("2024-01-01T12:00:00.123456Z").build(),
+                    "completed", AttributeValue.builder().bool(i % 2 == 0).build()));
+        }
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            long legacyNanos = time(() -> {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(OutputStream.nullOutputStream(), StandardCharsets.UTF_8));
+                writeLegacy(items, writer);
+                writer.flush();
+            });
+            long csvWriterNanos = time(() -> {
+                CsvWriter csv = new CsvWriter(OutputStream.nullOutputStream());
+                ProcessExportHandler.writeCsvRows(items, csv);
+                csv.flush();
+            });
+            System.out.printf("rodada %2d: antigo %6.1f ms (%,.0f linhas/s) | CsvWriter %6.1f ms (%,.0f linhas/s)%n",
+                    round, legacyNanos / 1e6, ROWS / (legacyNanos / 1e9), csvWriterNanos / 1e6, ROWS / (csvWriterNanos / 1e9));
+        }
+    }
+
+    // mesma lógica do writeCsvRows anterior ao CsvWriter
+    private static void writeLegacy(List<Map<String, AttributeValue>> items, Writer writer) throws IOException {
+        for (Map<String, AttributeValue> item : items) {
+            writer.write(item.get("itemId").s());
+            writer.write(",\"");
+            writer.write(item.get("text").s());
+            writer.write("\",");
+            writer.write(item.get("createdAt").s());
+            writer.write(',');
+            writer.write(String.valueOf(item.get("completed").bool()));
+            writer.write('\n');
+        }
+    }
+
+    private interface Body {
+        void run() throws IOException;
+    }
+
+    private static long time(Body body) throws IOException {
+        long start = System.nanoTime();
+        body.run();
+        return System.nanoTime() - start;
+    }
+}
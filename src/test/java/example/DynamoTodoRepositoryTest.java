@@ -0,0 +1,144 @@
+package example;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.Update;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ExtendWith(MockitoExtension.class)
+public class DynamoTodoRepositoryTest {
+
+    @Mock
+    private DynamoDbClient dynamoDbClient;
+
+    private DynamoTodoRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new DynamoTodoRepository(dynamoDbClient, "FakeTable");
+    }
+
+    // a condição do item falhou; item null = o item não existe
+    private static TransactionCanceledException conditionFailed(Map<String, AttributeValue> item) {
+        CancellationReason.Builder reason = CancellationReason.builder().code("ConditionalCheckFailed");
+        if (item != null) {
+            reason.item(item);
+        }
+        return TransactionCanceledException.builder()
+                .cancellationReasons(reason.build(), CancellationReason.builder().code("None").build())
+                .build();
+    }
+
+    @Test
+    void testUpdateItem_RetriesWithActualCompletedValue() {
+        when(dynamoDbClient.transactWriteItems(any(TransactWriteItemsRequest.class)))
+                .thenThrow(conditionFailed(Map.of("completed", AttributeValue.builder().bool(true).build())))
+                .thenReturn(TransactWriteItemsResponse.builder().build());
+
+        assertTrue(repository.updateItem("list1", "item1", null, true));
+
+        ArgumentCaptor<TransactWriteItemsRequest> captor = ArgumentCaptor.forClass(TransactWriteItemsRequest.class);
+        verify(dynamoDbClient, times(2)).transactWriteItems(captor.capture());
+        // primeiro palpite: pendente -> feito, +1 no completedCount
+        Update firstStats = captor.getAllValues().get(0).transactItems().get(1).update();
+        assertEquals("ADD #ver :one, completedCount :completed", firstStats.updateExpression());
+        assertEquals("1", firstStats.expressionAttributeValues().get(":completed").n());
+        // o item já estava feito: a segunda transação só sobe a versão
+        Update retryItem = captor.getAllValues().get(1).transactItems().get(0).update();
+        assertEquals(true, retryItem.expressionAttributeValues().get(":previous").bool());
+        assertEquals("ADD #ver :one", captor.getAllValues().get(1).transactItems().get(1).update().updateExpression());
+    }
+
+    @Test
+    void testUpdateAndDelete_MissingItemChangeNoCounters() {
+        when(dynamoDbClient.transactWriteItems(any(TransactWriteItemsRequest.class))).thenThrow(conditionFailed(null));
+
+        assertFalse(repository.updateItem("list1", "missing", "texto", null));
+        repository.deleteItem("list1", "missing");
+
+        verify(dynamoDbClient, times(2)).transactWriteItems(any(TransactWriteItemsRequest.class));
+    }
+
+    @Test
+    void testDeleteItem_CompletedItemDecrementsBothCounters() {
+        when(dynamoDbClient.transactWriteItems(any(TransactWriteItemsRequest.class)))
+                .thenThrow(conditionFailed(Map.of("completed", AttributeValue.builder().bool(true).build())))
+                .thenReturn(TransactWriteItemsResponse.builder().build());
+
+        repository.deleteItem("list1", "item1");
+
+        ArgumentCaptor<TransactWriteItemsRequest> captor = ArgumentCaptor.forClass(TransactWriteItemsRequest.class);
+        verify(dynamoDbClient, times(2)).transactWriteItems(captor.capture());
+        List<AttributeValue> deltas = List.of(
+                captor.getValue().transactItems().get(1).update().expressionAttributeValues().get(":items"),
+                captor.getValue().transactItems().get(1).update().expressionAttributeValues().get(":completed"));
+        assertEquals("-1", deltas.get(0).n());
+        assertEquals("-1", deltas.get(1).n());
+    }
+
+    @Test
+    void testQueryOpenItems_BeforeBackfillFiltersTheTable() {
+        DynamoTodoRepository beforeBackfill = new DynamoTodoRepository(dynamoDbClient, "FakeTable", false);
+        when(dynamoDbClient.query(any(QueryRequest.class))).thenReturn(QueryResponse.builder().build());
+
+        beforeBackfill.queryOpenItems("list1", 10, null, null);
+
+        // itens antigos ainda sem openList: a partição com filtro, não o índice
+        ArgumentCaptor<QueryRequest> captor = ArgumentCaptor.forClass(QueryRequest.class);
+        verify(dynamoDbClient).query(captor.capture());
+        assertNull(captor.getValue().indexName());
+        assertEquals("(attribute_not_exists(#comp) OR #comp <> :completedTrue)", captor.getValue().filterExpression());
+        assertTrue(captor.getValue().consistentRead());
+
+        Map<String, AttributeValue> tableCursor = DynamoTodoRepository.key("LIST#list1", "ITEM#a");
+        assertTrue(beforeBackfill.isOpenItemCursorOf("list1", tableCursor));
+        assertFalse(repository.isOpenItemCursorOf("list1", tableCursor));
+    }
+
+    @Test
+    void testQueryItemsByTime_CutoffIgnoresFractionWidth() {
+        when(dynamoDbClient.query(any(QueryRequest.class))).thenReturn(QueryResponse.builder().build());
+
+        repository.queryItemsByTime("list1", false, null, true, 10, null, null);
+
+        // TIME_ORDERED_IDS_SINCE do surefire: 2026-10-17T00:00:00Z
+        ArgumentCaptor<QueryRequest> captor = ArgumentCaptor.forClass(QueryRequest.class);
+        verify(dynamoDbClient).query(captor.capture());
+        String since = captor.getValue().expressionAttributeValues().get(":since").s();
+        assertEquals("2026-10-17T00:00:00", since);
+        // o Instant.toString() grava 0, 3, 6 ou 9 casas; todas ficam do lado certo do corte
+        for (String createdAt : List.of("2026-10-17T00:00:00Z", "2026-10-17T00:00:00.001Z",
+                "2026-10-17T00:00:00.500Z", "2026-10-17T00:00:00.000000001Z", "2026-10-17T00:00:01Z")) {
+            assertTrue(createdAt.compareTo(since) >= 0, createdAt);
+        }
+        for (String createdAt : List.of("2026-10-16T23:59:59Z", "2026-10-16T23:59:59.999999999Z")) {
+            assertTrue(createdAt.compareTo(since) < 0, createdAt);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package example;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ETagsTest {
+
+    @Test
+    void testOfVersion_VariantsWithSameStringHashDoNotCollide() {
+        // "Aa" e "BB" têm o mesmo String.hashCode
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        assertNotEquals(ETags.ofVersion(7, "Aa"), ETags.ofVersion(7, "BB"));
+        assertEquals(ETags.ofVersion(7, "Aa"), ETags.ofVersion(7, "Aa"));
+        assertNotEquals(ETags.ofVersion(7, "Aa"), ETags.ofVersion(8, "Aa"));
+        assertTrue(ETags.ofVersion(7, "Aa").matches("\"v7-[0-9a-f]{32}\""));
+    }
+}
@@ -7,19 +7,30 @@ import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
 
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @MockitoSettings(strictness = Strictness.LENIENT)
@@ -39,6 +50,13 @@ public class GetListHandlerTest {
     void setUp() {
         when(context.getLogger()).thenReturn(logger);
         handler = new GetListHandler(dynamoDbClient, "FakeTable");
+        // linha META sem a marca counted: a partição (vazia) é contada e os totais gravados
+        when(dynamoDbClient.query(any(QueryRequest.class))).thenReturn(QueryResponse.builder().build());
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class))).thenReturn(UpdateItemResponse.builder()
+                .attributes(Map.of(
+                        "itemCount", AttributeValue.builder().n("0").build(),
+                        "completedCount", AttributeValue.builder().n("0").build()))
+                .build());
     }
 
     @Test
@@ -61,6 +79,76 @@ public class GetListHandlerTest {
         assertEquals(200, response.getStatusCode());
     }
 
+    @Test
+    void testHandleRequest_MatchingETagReturns304() {
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withPathParameters(Map.of("userId", "user123", "listId", "list456"));
+        when(dynamoDbClient.getItem(any(GetItemRequest.class))).thenReturn(GetItemResponse.builder().item(Map.of(
+                "pk", AttributeValue.builder().s("USER#user123").build(),
+                "sk", AttributeValue.builder().s("LIST#list456").build(),
+                "name", AttributeValue.builder().s("Lista de Teste").build(),
+                "createdAt", AttributeValue.builder().s("2025-01-01T00:00:00Z").build())).build());
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+        assertEquals(200, response.getStatusCode());
+
+        // mesmo ETag de volta: 304 sem corpo
+        String etag = response.getHeaders().get("ETag");
+        APIGatewayProxyResponseEvent notModified = handler.handleRequest(
+                request.withHeaders(Map.of("If-None-Match", "W/\"outro\", " + etag)), context);
+        assertEquals(304, notModified.getStatusCode());
+        assertNull(notModified.getBody());
+    }
+
+    @Test
+    void testHandleRequest_CountsPartitionWhenMetaIsNotCounted() {
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withPathParameters(Map.of("userId", "user123", "listId", "list456"));
+        Map<String, AttributeValue> list = Map.of(
+                "pk", AttributeValue.builder().s("USER#user123").build(),
+                "sk", AttributeValue.builder().s("LIST#list456").build(),
+                "name", AttributeValue.builder().s("Lista de Teste").build());
+        // linha META de uma lista anterior aos contadores: só as somas das escritas recentes
+        Map<String, AttributeValue> meta = Map.of(
+                "pk", AttributeValue.builder().s("LIST#list456").build(),
+                "sk", AttributeValue.builder().s("META").build(),
+                "version", AttributeValue.builder().n("7").build(),
+                "itemCount", AttributeValue.builder().n("-1").build());
+        when(dynamoDbClient.getItem(any(GetItemRequest.class))).thenAnswer(invocation -> {
+            GetItemRequest get = invocation.getArgument(0);
+            return GetItemResponse.builder().item(get.key().get("sk").s().equals("META") ? meta : list).build();
+        });
+        when(dynamoDbClient.query(any(QueryRequest.class)))
+                .thenReturn(QueryResponse.builder()
+                        .items(Map.of("sk", AttributeValue.builder().s("ITEM#a").build(),
+                                        "completed", AttributeValue.builder().bool(true).build()),
+                                Map.of("sk", AttributeValue.builder().s("ITEM#b").build()))
+                        .lastEvaluatedKey(Map.of("pk", AttributeValue.builder().s("LIST#list456").build(),
+                                "sk", AttributeValue.builder().s("ITEM#b").build()))
+                        .build())
+                .thenReturn(QueryResponse.builder()
+                        .items(Map.of("sk", AttributeValue.builder().s("ITEM#c").build(),
+                                "completed", AttributeValue.builder().bool(false).build()))
+                        .build());
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class))).thenAnswer(invocation -> {
+            UpdateItemRequest update = invocation.getArgument(0);
+            return UpdateItemResponse.builder().attributes(Map.of(
+                    "itemCount", update.expressionAttributeValues().get(":items"),
+                    "completedCount", update.expressionAttributeValues().get(":completed"))).build();
+        });
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+        assertEquals(200, response.getStatusCode());
+        assertTrue(response.getBody().endsWith("\"itemCount\":3,\"completedCount\":1}"));
+        // os totais só entram se nenhuma escrita de item mudou a versão durante a contagem
+        ArgumentCaptor<UpdateItemRequest> captor = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(dynamoDbClient).updateItem(captor.capture());
+        assertEquals("attribute_not_exists(#counted) AND #ver = :ver", captor.getValue().conditionExpression());
+        assertEquals("7", captor.getValue().expressionAttributeValues().get(":ver").n());
+        verify(dynamoDbClient, times(2)).query(any(QueryRequest.class));
+    }
+
     @Test
     void testHandleRequest_NotFound() {
         APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
@@ -73,4 +161,44 @@ public class GetListHandlerTest {
 
         assertEquals(404, response.getStatusCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testHandleRequest_FieldsProjectAndSkipCounters() {
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withPathParameters(Map.of("userId", "user123", "listId", "list456"))
+                .withQueryStringParameters(Map.of("fields", "listId,name"));
+        when(dynamoDbClient.getItem(any(GetItemRequest.class))).thenReturn(GetItemResponse.builder().item(Map.of(
+                "pk", AttributeValue.builder().s("USER#user123").build(),
+                "sk", AttributeValue.builder().s("LIST#list456").build(),
+                "name", AttributeValue.builder().s("Lista de Teste").build())).build());
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+        assertEquals(200, response.getStatusCode());
+        assertEquals("{\"listId\":\"list456\",\"name\":\"Lista de Teste\"}", response.getBody());
+        // só a linha da lista: sem itemCount/completedCount a linha META não é lida
+        ArgumentCaptor<GetItemRequest> captor = ArgumentCaptor.forClass(GetItemRequest.class);
+        verify(dynamoDbClient, times(1)).getItem(captor.capture());
+        assertEquals("#p0, #p1, #p2", captor.getValue().projectionExpression());
+        assertEquals(Map.of("#p0", "sk", "#p1", "name", "#p2", "pk"), captor.getValue().expressionAttributeNames());
+
+        assertEquals(400, handler.handleRequest(request.withQueryStringParameters(Map.of("fields", "listId,dono")), context)
+                .getStatusCode());
+    }
+
+    @Test
+    void testHandleRequest_ThrottledReturns429() {
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withPathParameters(Map.of("userId", "user123", "listId", "list456"));
+        when(dynamoDbClient.getItem(any(GetItemRequest.class))).thenThrow(ProvisionedThroughputExceededException.builder()
+                .message("Rate exceeded").statusCode(400)
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode("ProvisionedThroughputExceededException").build())
+                .build());
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+        // limite de vazão esgotado não é erro do servidor: 429 com Retry-After
+        assertEquals(429, response.getStatusCode());
+        assertEquals(String.valueOf(Throttling.DEFAULT_RETRY_AFTER_SECONDS), response.getHeaders().get("Retry-After"));
+    }
+}
@@ -0,0 +1,55 @@
+package example;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IdGeneratorTest {
+
+    @Test
+    void testIdsSortInCreationOrder() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(IdGenerator.newId());
+        }
+
+        List<String> sorted = new ArrayList<>(ids);
+        sorted.sort(null);
+        assertEquals(ids, sorted);
+        for (String id : ids) {
+            UUID uuid = UUID.fromString(id);
+            assertEquals(7, uuid.version());
+            assertEquals(2, uuid.variant());
+            assertEquals(id, uuid.toString());
+        }
+    }
+
+    @Test
+    void testTimePrefixBoundsIdsOfThatMillisecond() {
+        long before = System.currentTimeMillis();
+        String id = IdGenerator.newId();
+
+        assertEquals("019297c3-2000", IdGenerator.timePrefix(1729123000320L));
+        assertTrue(id.compareTo(IdGenerator.timePrefix(before)) >= 0);
+        assertTrue(id.compareTo(IdGenerator.timePrefix(before + 60_000)) < 0);
+    }
+
+    @Test
+    void testParseTimeOrderedSince_ComesFromConfiguration() {
+        assertEquals(Instant.parse("2026-10-20T13:45:00Z"), IdGenerator.parseTimeOrderedSince("2026-10-20T13:45:00Z"));
+        // o corte fica num segundo inteiro, o seguinte quando vem com fração
+        assertEquals(Instant.parse("2026-10-20T13:45:01Z"), IdGenerator.parseTimeOrderedSince("2026-10-20T13:45:00.250Z"));
+        // sem a variável nenhuma linha é anterior aos IDs ordenados
+        assertEquals(Instant.EPOCH, IdGenerator.parseTimeOrderedSince(null));
+        assertEquals(Instant.EPOCH, IdGenerator.parseTimeOrderedSince(""));
+        assertThrows(DateTimeParseException.class, () -> IdGenerator.parseTimeOrderedSince("17/10/2026"));
+    }
+}
@@ -0,0 +1,192 @@
+package example;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class InMemoryTodoRepositoryTest {
+
+    private final InMemoryTodoRepository repository = new InMemoryTodoRepository();
+
+    private void putItems(String listId, int count) {
+        Map<String, String> textsById = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            textsById.put(String.format("item%03d", i), "texto " + i);
+        }
+        repository.putItems(listId, textsById, "2024-01-01T00:00:00Z");
+    }
+
+    @Test
+    void testQueryPaginatesInSortKeyOrder() {
+        putItems("list1", 5);
+        putItems("other", 3);
+
+        List<String> seen = new ArrayList<>();
+        Map<String, AttributeValue> startKey = null;
+        int pages = 0;
+        do {
+            TodoRepository.Page page = repository.queryItems("list1", 2, startKey, null);
+            page.items.forEach(item -> seen.add(item.get("itemId").s()));
+            startKey = page.lastEvaluatedKey;
+            pages++;
+        } while (startKey != null);
+
+        assertEquals(List.of("item000", "item001", "item002", "item003", "item004"), seen);
+        assertEquals(3, pages);
+        // a linha META da versão fica fora das queries
+        assertEquals(1L, repository.getListVersion("list1"));
+        assertTrue(repository.isItemCursorOf("list1", Map.of("pk", AttributeValue.builder().s("LIST#list1").build())));
+        assertFalse(repository.isItemCursorOf("list1", Map.of("pk", AttributeValue.builder().s("LIST#other").build())));
+    }
+
+    @Test
+    void testOpenItemsFollowCompletedFlag() {
+        putItems("list1", 5);
+        repository.updateItem("list1", "item001", null, true);
+        repository.updateItemWithoutStats("list1", "item003", null, true);
+        repository.updateItem("list1", "item003", null, false);
+
+        List<String> seen = new ArrayList<>();
+        Map<String, AttributeValue> startKey = null;
+        do {
+            TodoRepository.Page page = repository.queryOpenItems("list1", 2, startKey, null);
+            page.items.forEach(item -> seen.add(item.get("itemId").s()));
+            startKey = page.lastEvaluatedKey;
+            if (startKey != null) {
+                assertTrue(repository.isOpenItemCursorOf("list1", startKey));
+                assertFalse(repository.isItemCursorOf("list1", startKey));
+            }
+        } while (startKey != null);
+
+        assertEquals(List.of("item000", "item002", "item003", "item004"), seen);
+    }
+
+    @Test
+    void testTimeRangeQueriesSkipLegacyIds() {
+        String now = Instant.now().toString();
+        // ID antigo (UUID v4) de antes da troca: fica de fora mesmo que caia na faixa
+        repository.putItem("list1", IdGenerator.timePrefix(System.currentTimeMillis()) + "-4000-8000-000000000000", "antigo",
+                "2024-01-01T00:00:00Z");
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            String itemId = IdGenerator.newId();
+            ids.add(itemId);
+            repository.putItem("list1", itemId, "texto " + i, now);
+        }
+        repository.updateItem("list1", ids.get(3), null, true);
+
+        TodoRepository.Page newest = repository.queryItemsByTime("list1", false, null, true, 2, null, null);
+        assertEquals(List.of(ids.get(3), ids.get(2)), newest.items.stream().map(item -> item.get("itemId").s()).toList());
+        TodoRepository.Page rest = repository.queryItemsByTime("list1", false, null, true, 2, newest.lastEvaluatedKey, null);
+        assertEquals(List.of(ids.get(1), ids.get(0)), rest.items.stream().map(item -> item.get("itemId").s()).toList());
+        assertNull(rest.lastEvaluatedKey);
+
+        // pendentes, do mais novo para o mais antigo
+        assertEquals(List.of(ids.get(2), ids.get(1), ids.get(0)), repository.queryItemsByTime("list1", true, null, true, null, null, null)
+                .items.stream().map(item -> item.get("itemId").s()).toList());
+        // depois de um instante bem no passado: todos os novos, em ordem de criação
+        assertEquals(ids, repository.queryItemsByTime("list1", false, Instant.parse("2000-01-01T00:00:00Z"), false, null, null, null)
+                .items.stream().map(item -> item.get("itemId").s()).toList());
+        assertTrue(repository.queryItemsByTime("list1", false, Instant.now().plusSeconds(60), false, null, null, null).items.isEmpty());
+    }
+
+    @Test
+    void testUpdateOnlyTouchesExistingItems() {
+        putItems("list1", 2);
+
+        assertTrue(repository.updateItem("list1", "item001", null, true));
+        assertFalse(repository.updateItem("list1", "missing", "x", null));
+
+        assertNull(repository.getItem("list1", "missing"));
+        assertEquals(true, repository.getItem("list1", "item001").get("completed").bool());
+        assertEquals("texto 1", repository.getItem("list1", "item001").get("text").s());
+        assertEquals(List.of(Map.of("itemId", AttributeValue.builder().s("item001").build())),
+                repository.queryItemIds("list1", true, 10, null).items);
+    }
+
+    @Test
+    void testItemWritesKeepListCounters() {
+        putItems("list1", 3);
+        repository.putItem("list1", "extra", "texto", "2024-01-01T00:00:00Z");
+        repository.updateItem("list1", "item000", null, true);
+        repository.updateItem("list1", "item001", null, true);
+        // já estava marcado: não conta de novo
+        repository.updateItem("list1", "item001", "novo texto", true);
+        repository.deleteItem("list1", "item001");
+        repository.deleteItem("list1", "missing");
+        assertEquals(-1, repository.updateItemWithoutStats("list1", "item000", null, false));
+
+        Map<String, AttributeValue> stats = repository.getListStats("list1");
+        assertEquals("3", stats.get("itemCount").n());
+        assertEquals("1", stats.get("completedCount").n());
+        assertNull(repository.getListStats("other"));
+    }
+
+    @Test
+    void testDeleteItemsPageReturnsContinuationKey() {
+        putItems("list1", 5);
+
+        Map<String, AttributeValue> next = repository.deleteItemsPage("list1", 3, null);
+        assertEquals("ITEM#item002", next.get("sk").s());
+        assertEquals(2, repository.queryItems("list1", null, null, null).items.size());
+
+        assertNull(repository.deleteItemsPage("list1", 3, next));
+        assertTrue(repository.queryItems("list1", null, null, null).items.isEmpty());
+    }
+
+    @Test
+    void testClaimExportHonoursExpiry() {
+        assertTrue(repository.claimExport("list1", "user1", "csv", 100, 220));
+        assertFalse(repository.claimExport("list1", "user1", "csv", 150, 270));
+        assertTrue(repository.claimExport("list1", "user1", "ndjson", 150, 270));
+        // depois de expiresAt o pedido pode ser feito de novo
+        assertTrue(repository.claimExport("list1", "user1", "csv", 221, 341));
+
+        repository.releaseExport("list1", "user1", "csv");
+        assertTrue(repository.claimExport("list1", "user1", "csv", 222, 342));
+    }
+
+    @Test
+    void testHandlersRunAgainstInMemoryRepository() {
+        Context context = mock(Context.class);
+        when(context.getLogger()).thenReturn(mock(LambdaLogger.class));
+
+        APIGatewayProxyResponseEvent created = new CreateItemHandler(repository).handleRequest(new APIGatewayProxyRequestEvent()
+                .withPathParameters(Map.of("listId", "list1"))
+                .withBody("{\"text\": \"Comprar pão\"}"), context);
+        assertEquals(201, created.getStatusCode());
+        String itemId = JsonParser.parseString(created.getBody()).getAsJsonObject().get("itemId").getAsString();
+
+        APIGatewayProxyResponseEvent listed = new ListItemsHandler(repository).handleRequest(new APIGatewayProxyRequestEvent()
+                .withPathParameters(Map.of("listId", "list1")), context);
+        JsonObject item = JsonParser.parseString(listed.getBody()).getAsJsonObject().getAsJsonArray("items").get(0).getAsJsonObject();
+        assertEquals(itemId, item.get("itemId").getAsString());
+        assertEquals("Comprar pão", item.get("text").getAsString());
+
+        UpdateItemHandler updateHandler = new UpdateItemHandler(repository);
+        assertEquals(200, updateHandler.handleRequest(new APIGatewayProxyRequestEvent()
+                .withPathParameters(Map.of("listId", "list1", "itemId", itemId))
+                .withBody("{\"completed\": true}"), context).getStatusCode());
+        assertEquals(404, updateHandler.handleRequest(new APIGatewayProxyRequestEvent()
+                .withPathParameters(Map.of("listId", "list1", "itemId", "missing"))
+                .withBody("{\"completed\": true}"), context).getStatusCode());
+    }
+}
@@ -0,0 +1,262 @@
+package example;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ExtendWith(MockitoExtension.class)
+public class ListItemsHandlerTest {
+
+    @Mock
+    private DynamoDbClient dynamoDbClient;
+    @Mock
+    private Context context;
+    @Mock
+    private LambdaLogger logger;
+
+    private ListItemsHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        when(context.getLogger()).thenReturn(logger);
+        // lista ainda sem linha META
+        when(dynamoDbClient.getItem(any(GetItemRequest.class))).thenReturn(GetItemResponse.builder().build());
+        handler = new ListItemsHandler(dynamoDbClient, "FakeTable");
+    }
+
+    @Test
+    void testHandleRequest_ReturnsNextToken() {
+        Map<String, AttributeValue> fakeItem = Map.of(
+                "pk", AttributeValue.builder().s("LIST#list456").build(),
+                "sk", AttributeValue.builder().s("ITEM#item1").build(),
+                "itemId", AttributeValue.builder().s("item1").build(),
+                "text", AttributeValue.builder().s("Comprar pão").build(),
+                "createdAt", AttributeValue.builder().s("2025-01-01T00:00:00Z").build(),
+                "completed", AttributeValue.builder().bool(false).build()
+        );
+        Map<String, AttributeValue> lastKey = Map.of(
+                "pk", AttributeValue.builder().s("LIST#list456").build(),
+                "sk", AttributeValue.builder().s("ITEM#item1").build()
+        );
+        when(dynamoDbClient.query(any(QueryRequest.class)))
+                .thenReturn(QueryResponse.builder().items(fakeItem).lastEvaluatedKey(lastKey).build());
+
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withPathParameters(Map.of("listId", "list456"))
+                .withQueryStringParameters(Map.of("limit", "1"));
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+        assertEquals(200, response.getStatusCode());
+        JsonObject body = JsonParser.parseString(response.getBody()).getAsJsonObject();
+        assertEquals(1, body.getAsJsonArray("items").size());
+        assertEquals(lastKey, PaginationToken.decode(body.get("nextToken").getAsString()));
+
+        ArgumentCaptor<QueryRequest> captor = ArgumentCaptor.forClass(QueryRequest.class);
+        verify(dynamoDbClient).query(captor.capture());
+        assertEquals(1, captor.getValue().limit());
+    }
+
+    @Test
+    void testHandleRequest_UsesNextTokenAsStartKey() {
+        when(dynamoDbClient.query(any(QueryRequest.class))).thenReturn(QueryResponse.builder().build());
+        Map<String, AttributeValue> startKey = Map.of(
+                "pk", AttributeValue.builder().s("LIST#list456").build(),
+                "sk", AttributeValue.builder().s("ITEM#item1").build()
+        );
+
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withPathParameters(Map.of("listId", "list456"))
+                .withQueryStringParameters(Map.of("nextToken", PaginationToken.encode(startKey)));
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+        assertEquals(200, response.getStatusCode());
+        assertFalse(JsonParser.parseString(response.getBody()).getAsJsonObject().has("nextToken"));
+        ArgumentCaptor<QueryRequest> captor = ArgumentCaptor.forClass(QueryRequest.class);
+        verify(dynamoDbClient).query(captor.capture());
+        assertEquals(startKey, captor.getValue().exclusiveStartKey());
+        assertEquals(ListItemsHandler.DEFAULT_LIMIT, captor.getValue().limit());
+    }
+
+    @Test
+    void testHandleRequest_InvalidLimit() {
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withPathParameters(Map.of("listId", "list456"))
+                .withQueryStringParameters(Map.of("limit", "5000"));
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+        assertEquals(400, response.getStatusCode());
+        verify(dynamoDbClient, never()).query(any(QueryRequest.class));
+    }
+
+    @Test
+    void testHandleRequest_TokenFromAnotherList() {
+        String foreignToken = PaginationToken.encode(Map.of(
+                "pk", AttributeValue.builder().s("LIST#outra").build(),
+                "sk", AttributeValue.builder().s("ITEM#item1").build()
+        ));
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withPathParameters(Map.of("listId", "list456"))
+                .withQueryStringParameters(Map.of("nextToken", foreignToken));
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+        assertEquals(400, response.getStatusCode());
+        verify(dynamoDbClient, never()).query(any(QueryRequest.class));
+    }
+
+    @Test
+    void testHandleRequest_UnchangedVersionSkipsQuery() {
+        when(dynamoDbClient.getItem(any(GetItemRequest.class))).thenReturn(GetItemResponse.builder()
+                .item(Map.of("version", AttributeValue.builder().n("7").build()))
+                .build());
+        when(dynamoDbClient.query(any(QueryRequest.class))).thenReturn(QueryResponse.builder().build());
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withPathParameters(Map.of("listId", "list456"));
+
+        APIGatewayProxyResponseEvent first = handler.handleRequest(request, context);
+        String etag = first.getHeaders().get("ETag");
+        assertEquals(200, first.getStatusCode());
+        assertTrue(etag.startsWith("\"v7-"));
+
+        APIGatewayProxyResponseEvent second = handler.handleRequest(request.withHeaders(Map.of("if-none-match", etag)), context);
+        assertEquals(304, second.getStatusCode());
+        assertNull(second.getBody());
+        assertEquals(etag, second.getHeaders().get("ETag"));
+        // a página é lida com leitura forte, então nunca é mais velha que a versão do ETag
+        ArgumentCaptor<QueryRequest> queryCaptor = ArgumentCaptor.forClass(QueryRequest.class);
+        verify(dynamoDbClient, times(1)).query(queryCaptor.capture());
+        assertTrue(queryCaptor.getValue().consistentRead());
+
+        ArgumentCaptor<GetItemRequest> captor = ArgumentCaptor.forClass(GetItemRequest.class);
+        verify(dynamoDbClient, times(2)).getItem(captor.capture());
+        assertEquals("META", captor.getValue().key().get("sk").s());
+        assertTrue(captor.getValue().consistentRead());
+
+        // outra versão: query de novo
+        when(dynamoDbClient.getItem(any(GetItemRequest.class))).thenReturn(GetItemResponse.builder()
+                .item(Map.of("version", AttributeValue.builder().n("8").build()))
+                .build());
+        assertEquals(200, handler.handleRequest(request, context).getStatusCode());
+        verify(dynamoDbClient, times(2)).query(any(QueryRequest.class));
+    }
+
+    @Test
+    void testHandleRequest_OpenItemsUseSparseIndex() {
+        when(dynamoDbClient.query(any(QueryRequest.class))).thenReturn(QueryResponse.builder().build());
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withPathParameters(Map.of("listId", "list456"))
+                .withQueryStringParameters(Map.of("completed", "false"));
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+        assertEquals(200, response.getStatusCode());
+        // o índice só tem leitura eventual: o ETag vem do corpo, não da versão da lista
+        assertEquals(ETags.ofBody(response.getBody()), response.getHeaders().get("ETag"));
+        verify(dynamoDbClient, never()).getItem(any(GetItemRequest.class));
+
+        ArgumentCaptor<QueryRequest> captor = ArgumentCaptor.forClass(QueryRequest.class);
+        verify(dynamoDbClient).query(captor.capture());
+        assertEquals("OpenItemsIndex", captor.getValue().indexName());
+        assertEquals("#open = :openList", captor.getValue().keyConditionExpression());
+        assertEquals("LIST#list456", captor.getValue().expressionAttributeValues().get(":openList").s());
+
+        // cursor da listagem sem filtro e completed=true não servem para o índice
+        String plainToken = PaginationToken.encode(Map.of(
+                "pk", AttributeValue.builder().s("LIST#list456").build(),
+                "sk", AttributeValue.builder().s("ITEM#item1").build()));
+        assertEquals(400, handler.handleRequest(request.withQueryStringParameters(
+                Map.of("completed", "false", "nextToken", plainToken)), context).getStatusCode());
+        assertEquals(400, handler.handleRequest(request.withQueryStringParameters(
+                Map.of("completed", "true")), context).getStatusCode());
+        verify(dynamoDbClient, times(1)).query(any(QueryRequest.class));
+    }
+
+    @Test
+    void testHandleRequest_NewestFirstReadsTimeRange() {
+        when(dynamoDbClient.query(any(QueryRequest.class))).thenReturn(QueryResponse.builder().build());
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withPathParameters(Map.of("listId", "list456"))
+                .withQueryStringParameters(Map.of("order", "desc", "createdAfter", "2030-01-01T00:00:00Z", "limit", "10"));
+
+        assertEquals(200, handler.handleRequest(request, context).getStatusCode());
+
+        ArgumentCaptor<QueryRequest> captor = ArgumentCaptor.forClass(QueryRequest.class);
+        verify(dynamoDbClient).query(captor.capture());
+        QueryRequest sent = captor.getValue();
+        assertEquals("pk = :pkVal AND sk BETWEEN :from AND :to", sent.keyConditionExpression());
+        assertFalse(sent.scanIndexForward());
+        assertEquals(10, sent.limit());
+        assertEquals("ITEM#" + IdGenerator.timePrefix(Instant.parse("2030-01-01T00:00:00Z").toEpochMilli() + 1),
+                sent.expressionAttributeValues().get(":from").s());
+
+        assertEquals(400, handler.handleRequest(request.withQueryStringParameters(Map.of("order", "novos")), context).getStatusCode());
+        assertEquals(400, handler.handleRequest(request.withQueryStringParameters(Map.of("createdAfter", "ontem")), context).getStatusCode());
+    }
+
+    @Test
+    void testHandleRequest_FieldsBecomeProjection() {
+        when(dynamoDbClient.query(any(QueryRequest.class))).thenReturn(QueryResponse.builder().items(Map.of(
+                "itemId", AttributeValue.builder().s("item1").build(),
+                "completed", AttributeValue.builder().bool(true).build())).build());
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withPathParameters(Map.of("listId", "list456"))
+                .withQueryStringParameters(Map.of("fields", "itemId,completed"));
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+        assertEquals("{\"items\":[{\"itemId\":\"item1\",\"completed\":true}]}", response.getBody());
+        ArgumentCaptor<QueryRequest> captor = ArgumentCaptor.forClass(QueryRequest.class);
+        verify(dynamoDbClient).query(captor.capture());
+        assertEquals("#p0, #p1", captor.getValue().projectionExpression());
+        assertEquals(Map.of("#p0", "itemId", "#p1", "completed"), captor.getValue().expressionAttributeNames());
+    }
+
+    @Test
+    void testHandleRequest_UnknownFieldErrorIsValidJson() {
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withPathParameters(Map.of("listId", "list456"))
+                .withQueryStringParameters(Map.of("fields", "itemId,x\"}{\"admin\":true"));
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+        // o campo desconhecido volta na mensagem, escapado dentro da string
+        assertEquals(400, response.getStatusCode());
+        JsonObject body = JsonParser.parseString(response.getBody()).getAsJsonObject();
+        assertEquals(1, body.size());
+        assertTrue(body.get("error").getAsString().contains("x\"}{\"admin\":true"));
+        verify(dynamoDbClient, never()).query(any(QueryRequest.class));
+    }
+}
@@ -0,0 +1,167 @@
+package example;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ExtendWith(MockitoExtension.class)
+public class ListListsHandlerTest {
+
+    @Mock
+    private DynamoDbClient dynamoDbClient;
+    @Mock
+    private Context context;
+    @Mock
+    private LambdaLogger logger;
+
+    private ListListsHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        when(context.getLogger()).thenReturn(logger);
+        handler = new ListListsHandler(dynamoDbClient, "FakeTable");
+    }
+
+    private static Map<String, AttributeValue> list(String listId, String name) {
+        return Map.of(
+                "userId", AttributeValue.builder().s("user123").build(),
+                "sk", AttributeValue.builder().s("LIST#" + listId).build(),
+                "name", AttributeValue.builder().s(name).build(),
+                "createdAt", AttributeValue.builder().s("2024-01-01T00:00:00Z").build());
+    }
+
+    private static APIGatewayProxyRequestEvent request(Map<String, String> queryParams) {
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent();
+        request.setPathParameters(Map.of("userId", "user123"));
+        request.setQueryStringParameters(queryParams);
+        return request;
+    }
+
+    @Test
+    void testHandleRequest_ProjectsOnlyResponseFields() {
+        when(dynamoDbClient.query(any(QueryRequest.class))).thenReturn(QueryResponse.builder()
+                .items(list("list1", "Mercado"))
+                .lastEvaluatedKey(Map.of(
+                        "pk", AttributeValue.builder().s("USER#user123").build(),
+                        "sk", AttributeValue.builder().s("LIST#list1").build()))
+                .build());
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request(Map.of("limit", "1")), context);
+
+        assertEquals(200, response.getStatusCode());
+        JsonObject body = JsonParser.parseString(response.getBody()).getAsJsonObject();
+        JsonObject first = body.getAsJsonArray("lists").get(0).getAsJsonObject();
+        assertEquals("list1", first.get("listId").getAsString());
+        assertEquals("Mercado", first.get("name").getAsString());
+        assertFalse(first.has("itemCount"));
+        assertTrue(body.has("nextToken"));
+
+        ArgumentCaptor<QueryRequest> captor = ArgumentCaptor.forClass(QueryRequest.class);
+        verify(dynamoDbClient).query(captor.capture());
+        assertEquals("pk = :pkVal AND begins_with(sk, :listPrefix)", captor.getValue().keyConditionExpression());
+        assertEquals("USER#user123", captor.getValue().expressionAttributeValues().get(":pkVal").s());
+        assertEquals("userId, sk, #nm, createdAt", captor.getValue().projectionExpression());
+        assertEquals(1, captor.getValue().limit());
+        verify(dynamoDbClient, never()).batchGetItem(any(BatchGetItemRequest.class));
+    }
+
+    @Test
+    void testHandleRequest_IncludeCountsReadsAllMetaRowsInOneBatch() {
+        when(dynamoDbClient.query(any(QueryRequest.class))).thenAnswer(invocation -> {
+            QueryRequest query = invocation.getArgument(0);
+            // a query na partição da list2 é a contagem dos itens dela (nenhum)
+            return query.expressionAttributeValues().get(":pkVal").s().equals("LIST#list2")
+                    ? QueryResponse.builder().build()
+                    : QueryResponse.builder().items(list("list1", "Mercado"), list("list2", "Feira")).build();
+        });
+        when(dynamoDbClient.getItem(any(GetItemRequest.class))).thenReturn(GetItemResponse.builder().build());
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class))).thenAnswer(invocation -> {
+            UpdateItemRequest update = invocation.getArgument(0);
+            return UpdateItemResponse.builder().attributes(Map.of(
+                    "itemCount", update.expressionAttributeValues().get(":items"),
+                    "completedCount", update.expressionAttributeValues().get(":completed"))).build();
+        });
+        Map<String, AttributeValue> list1Key = DynamoTodoRepository.key("LIST#list1", "META");
+        // primeira chamada devolve só a list1 e deixa a list2 como não processada
+        when(dynamoDbClient.batchGetItem(any(BatchGetItemRequest.class)))
+                .thenReturn(BatchGetItemResponse.builder()
+                        .responses(Map.of("FakeTable", List.of(Map.of(
+                                "pk", AttributeValue.builder().s("LIST#list1").build(),
+                                "itemCount", AttributeValue.builder().n("3").build(),
+                                "completedCount", AttributeValue.builder().n("1").build(),
+                                "counted", AttributeValue.builder().bool(true).build()))))
+                        .unprocessedKeys(Map.of("FakeTable", KeysAndAttributes.builder()
+                                .keys(DynamoTodoRepository.key("LIST#list2", "META")).build()))
+                        .build())
+                .thenReturn(BatchGetItemResponse.builder().responses(Map.of("FakeTable", List.of())).build());
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request(Map.of("includeCounts", "true")), context);
+
+        assertEquals(200, response.getStatusCode());
+        JsonArray lists = JsonParser.parseString(response.getBody()).getAsJsonObject().getAsJsonArray("lists");
+        assertEquals(3, lists.get(0).getAsJsonObject().get("itemCount").getAsLong());
+        assertEquals(1, lists.get(0).getAsJsonObject().get("completedCount").getAsLong());
+        // list2 sem linha META: a partição é contada uma vez e os totais gravados
+        assertEquals(0, lists.get(1).getAsJsonObject().get("itemCount").getAsLong());
+        ArgumentCaptor<UpdateItemRequest> update = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(dynamoDbClient).updateItem(update.capture());
+        assertEquals("LIST#list2", update.getValue().key().get("pk").s());
+
+        ArgumentCaptor<BatchGetItemRequest> captor = ArgumentCaptor.forClass(BatchGetItemRequest.class);
+        verify(dynamoDbClient, times(2)).batchGetItem(captor.capture());
+        KeysAndAttributes first = captor.getAllValues().get(0).requestItems().get("FakeTable");
+        assertEquals(2, first.keys().size());
+        assertTrue(first.keys().contains(list1Key));
+        assertEquals("pk, itemCount, completedCount, counted", first.projectionExpression());
+    }
+
+    @Test
+    void testHandleRequest_RejectsCursorOfAnotherUser() {
+        String token = PaginationToken.encode(Map.of(
+                "pk", AttributeValue.builder().s("USER#other").build(),
+                "sk", AttributeValue.builder().s("LIST#list1").build()));
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request(Map.of("nextToken", token)), context);
+
+        assertEquals(400, response.getStatusCode());
+        assertEquals(400, handler.handleRequest(request(Map.of("includeCounts", "sim")), context).getStatusCode());
+        assertEquals(400, handler.handleRequest(request(Map.of("limit", "101")), context).getStatusCode());
+        verify(dynamoDbClient, never()).query(any(QueryRequest.class));
+    }
+}
@@ -0,0 +1,87 @@
+package example;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageResponse;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LocalServerTest {
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final SqsClient sqsClient = mock(SqsClient.class);
+    private LocalServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(sqsClient.sendMessage(any(SendMessageRequest.class))).thenReturn(SendMessageResponse.builder().build());
+        server = new LocalServer(0, new RouterHandler(RouterHandler.routes(new InMemoryTodoRepository(), sqsClient, "fila")));
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    private HttpResponse<String> send(String method, String path, String body, String userId) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.port() + path))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (userId != null) {
+            request.header(LocalServer.USER_HEADER, userId);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void testServesItemRoutesOverHttp() throws Exception {
+        HttpResponse<String> created = send("POST", "/lists/list1/items", "{\"text\": \"Comprar pão\"}", null);
+        assertEquals(201, created.statusCode());
+        String itemId = JsonParser.parseString(created.body()).getAsJsonObject().get("itemId").getAsString();
+
+        HttpResponse<String> item = send("GET", "/lists/list1/items/" + itemId, null, null);
+        assertEquals(200, item.statusCode());
+        assertEquals("Comprar pão", JsonParser.parseString(item.body()).getAsJsonObject().get("text").getAsString());
+        assertTrue(item.headers().firstValue("Content-Type").orElse("").startsWith("application/json"));
+
+        HttpResponse<String> page = send("GET", "/lists/list1/items?limit=1", null, null);
+        JsonObject body = JsonParser.parseString(page.body()).getAsJsonObject();
+        assertEquals(1, body.getAsJsonArray("items").size());
+
+        assertEquals(404, send("GET", "/lists/list1/items/missing", null, null).statusCode());
+        assertEquals(404, send("GET", "/nada", null, null).statusCode());
+        assertEquals(405, send("PATCH", "/lists/list1/items/" + itemId, "{}", null).statusCode());
+    }
+
+    @Test
+    void testExportUsesUserHeaderAsAuthorizerSub() throws Exception {
+        assertEquals(202, send("POST", "/lists/list1/export?format=ndjson", null, "user42").statusCode());
+
+        verify(sqsClient).sendMessage(argThat((SendMessageRequest request) ->
+                request.messageBody().contains("\"userId\":\"user42\"") && request.messageBody().contains("\"format\":\"ndjson\"")));
+    }
+
+    @Test
+    void testParseQueryDecodesValues() {
+        assertEquals(Map.of("format", "csv gzip", "limit", "10", "flag", ""), LocalServer.parseQuery("format=csv+gzip&limit=10&flag"));
+        assertNull(LocalServer.parseQuery(null));
+    }
+}
@@ -0,0 +1,59 @@
+package example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ExtendWith(MockitoExtension.class)
+public class OpenItemsBackfillTest {
+
+    @Mock
+    private DynamoDbClient dynamoDbClient;
+
+    @Test
+    void testRun_MarksOpenItemsOfEveryScanPage() {
+        when(dynamoDbClient.scan(any(ScanRequest.class)))
+                .thenReturn(ScanResponse.builder()
+                        .items(DynamoTodoRepository.key("LIST#list1", "ITEM#a"), DynamoTodoRepository.key("LIST#list1", "ITEM#b"))
+                        .lastEvaluatedKey(DynamoTodoRepository.key("LIST#list1", "ITEM#b"))
+                        .build())
+                .thenReturn(ScanResponse.builder()
+                        .items(DynamoTodoRepository.key("LIST#list2", "ITEM#c"))
+                        .build());
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class))).thenReturn(UpdateItemResponse.builder().build());
+        // o item b foi concluído entre o Scan e a escrita
+        when(dynamoDbClient.updateItem(argThat((UpdateItemRequest update) -> update.key().get("sk").s().equals("ITEM#b"))))
+                .thenThrow(ConditionalCheckFailedException.builder().message("concluído").build());
+
+        assertEquals(2, OpenItemsBackfill.run(dynamoDbClient, "FakeTable"));
+
+        ArgumentCaptor<UpdateItemRequest> captor = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(dynamoDbClient, times(3)).updateItem(captor.capture());
+        UpdateItemRequest marked = captor.getAllValues().stream()
+                .filter(update -> update.key().get("sk").s().equals("ITEM#c")).findFirst().orElseThrow();
+        assertEquals("SET #open = :openList", marked.updateExpression());
+        assertEquals(AttributeValue.builder().s("LIST#list2").build(), marked.expressionAttributeValues().get(":openList"));
+        assertEquals("begins_with(sk, :itemPrefix) AND attribute_not_exists(#open) AND "
+                + "(attribute_not_exists(#comp) OR #comp <> :completedTrue)", marked.conditionExpression());
+        verify(dynamoDbClient, times(2)).scan(any(ScanRequest.class));
+    }
+}
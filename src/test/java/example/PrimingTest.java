@@ -0,0 +1,81 @@
+package example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesRequest;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ExtendWith(MockitoExtension.class)
+public class PrimingTest {
+
+    @Mock
+    private DynamoDbClient dynamoDbClient;
+    @Mock
+    private SqsClient sqsClient;
+
+    @Test
+    void testPrime_DynamoDbHandlersReadPrimingKey() {
+        when(dynamoDbClient.getItem(any(GetItemRequest.class))).thenReturn(GetItemResponse.builder().build());
+
+        List<Runnable> primers = List.of(
+                new CreateItemHandler(dynamoDbClient, "FakeTable")::prime,
+                new CreateListHandler(dynamoDbClient, "FakeTable")::prime,
+                new DeleteItemHandler(dynamoDbClient, "FakeTable")::prime,
+                new GetItemHandler(dynamoDbClient, "FakeTable")::prime,
+                new GetListHandler(dynamoDbClient, "FakeTable")::prime,
+                new ListItemsHandler(dynamoDbClient, "FakeTable")::prime,
+                new UpdateDeleteListHandler(dynamoDbClient, "FakeTable")::prime,
+                new UpdateItemHandler(dynamoDbClient, "FakeTable")::prime,
+                new ProcessExportHandler(dynamoDbClient, null, null, null, "FakeTable", "bucket", "pool", "a@b.c")::prime
+        );
+        primers.forEach(Runnable::run);
+
+        ArgumentCaptor<GetItemRequest> captor = ArgumentCaptor.forClass(GetItemRequest.class);
+        verify(dynamoDbClient, times(primers.size())).getItem(captor.capture());
+        for (GetItemRequest request : captor.getAllValues()) {
+            assertEquals("FakeTable", request.tableName());
+            assertEquals(Priming.PRIMING_KEY, request.key().get("pk").s());
+        }
+    }
+
+    @Test
+    void testPrime_RequestExportTouchesQueue() {
+        new RequestExportHandler(sqsClient, "https://sqs/fila").prime();
+
+        verify(sqsClient).getQueueAttributes(any(GetQueueAttributesRequest.class));
+    }
+
+    @Test
+    void testIdGenerator_ReseedKeepsIdsUnique() {
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            ids.add(IdGenerator.newId());
+            if (i == 500) {
+                IdGenerator.reseed();
+            }
+        }
+
+        assertEquals(1000, ids.size());
+        assertEquals(7, UUID.fromString(ids.iterator().next()).version());
+    }
+}
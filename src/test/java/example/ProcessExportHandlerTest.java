@@ -0,0 +1,282 @@
+package example;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.cognitoidentityprovider.CognitoIdentityProviderClient;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminGetUserRequest;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AdminGetUserResponse;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.AttributeType;
+import software.amazon.awssdk.services.cognitoidentityprovider.model.UserNotFoundException;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.ses.SesClient;
+import software.amazon.awssdk.services.ses.model.SendEmailRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ExtendWith(MockitoExtension.class)
+public class ProcessExportHandlerTest {
+
+    @Mock
+    private DynamoDbClient dynamoDbClient;
+    @Mock
+    private S3Client s3Client;
+    @Mock
+    private SesClient sesClient;
+    @Mock
+    private CognitoIdentityProviderClient cognitoClient;
+    @Mock
+    private Context context;
+    @Mock
+    private LambdaLogger logger;
+
+    private ProcessExportHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        when(context.getLogger()).thenReturn(logger);
+        when(dynamoDbClient.query(any(QueryRequest.class))).thenReturn(QueryResponse.builder()
+                .items(List.of(Map.of(
+                        "itemId", AttributeValue.builder().s("item1").build(),
+                        "text", AttributeValue.builder().s("Comprar pão").build(),
+                        "createdAt", AttributeValue.builder().s("2024-01-01T00:00:00Z").build(),
+                        "completed", AttributeValue.builder().bool(false).build())))
+                .build());
+        when(dynamoDbClient.getItem(any(GetItemRequest.class))).thenReturn(GetItemResponse.builder().build());
+        when(cognitoClient.adminGetUser(any(AdminGetUserRequest.class))).thenAnswer(invocation -> {
+            AdminGetUserRequest request = invocation.getArgument(0);
+            if (request.username().equals("sumiu")) {
+                throw UserNotFoundException.builder().message("usuário não existe").build();
+            }
+            return AdminGetUserResponse.builder()
+                    .userAttributes(AttributeType.builder().name("email").value(request.username() + "@teste.com").build())
+                    .build();
+        });
+        handler = new ProcessExportHandler(dynamoDbClient, s3Client, sesClient, cognitoClient,
+                "FakeTable", "fake-bucket", "pool-1", "remetente@teste.com");
+    }
+
+    private static SQSEvent.SQSMessage message(String messageId, String userId) {
+        SQSEvent.SQSMessage msg = new SQSEvent.SQSMessage();
+        msg.setMessageId(messageId);
+        msg.setBody("{\"listId\": \"list456\", \"userId\": \"" + userId + "\"}");
+        return msg;
+    }
+
+    private static SQSEvent.SQSMessage message(String messageId, String userId, String format) {
+        SQSEvent.SQSMessage msg = message(messageId, userId);
+        msg.setBody("{\"listId\": \"list456\", \"userId\": \"" + userId + "\", \"format\": \"" + format + "\"}");
+        return msg;
+    }
+
+    private static byte[] uploadedBytes(RequestBody body) throws IOException {
+        try (InputStream in = body.contentStreamProvider().newStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    void testHandleRequest_ReportsOnlyFailedMessages() {
+        SQSEvent event = new SQSEvent();
+        event.setRecords(List.of(message("m1", "user1"), message("m2", "sumiu"), message("m3", "user3")));
+
+        SQSBatchResponse response = handler.handleRequest(event, context);
+
+        assertEquals(1, response.getBatchItemFailures().size());
+        assertEquals("m2", response.getBatchItemFailures().get(0).getItemIdentifier());
+        verify(s3Client, times(3)).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(sesClient, times(2)).sendEmail(any(SendEmailRequest.class));
+    }
+
+    @Test
+    void testHandleRequest_ReleasesPendingMarkerAfterSuccessOrFailure() {
+        SQSEvent event = new SQSEvent();
+        event.setRecords(List.of(message("m1", "user1", "csv"), message("m2", "sumiu", "ndjson")));
+
+        handler.handleRequest(event, context);
+
+        // terminada a exportação, um novo pedido da mesma lista não pode mais ser agrupado com ela
+        ArgumentCaptor<DeleteItemRequest> captor = ArgumentCaptor.forClass(DeleteItemRequest.class);
+        verify(dynamoDbClient, times(2)).deleteItem(captor.capture());
+        assertEquals(Set.of("USER#user1#csv", "USER#sumiu#ndjson"), captor.getAllValues().stream()
+                .peek(request -> assertEquals("EXPORT#list456", request.key().get("pk").s()))
+                .map(request -> request.key().get("sk").s())
+                .collect(Collectors.toSet()));
+    }
+
+    @Test
+    void testHandleRequest_AllSucceed() {
+        SQSEvent event = new SQSEvent();
+        event.setRecords(List.of(message("m1", "user1"), message("m2", "user2")));
+
+        SQSBatchResponse response = handler.handleRequest(event, context);
+
+        assertEquals(0, response.getBatchItemFailures().size());
+        verify(sesClient, times(2)).sendEmail(any(SendEmailRequest.class));
+    }
+
+    @Test
+    void testHandleRequest_CachesUserEmail() {
+        SQSEvent event = new SQSEvent();
+        event.setRecords(List.of(message("m1", "user1")));
+
+        handler.handleRequest(event, context);
+        handler.handleRequest(event, context);
+
+        verify(cognitoClient, times(1)).adminGetUser(any(AdminGetUserRequest.class));
+        verify(sesClient, times(2)).sendEmail(any(SendEmailRequest.class));
+        assertEquals(1, handler.emailCacheHits());
+        assertEquals(1, handler.emailCacheMisses());
+    }
+
+    // linha META com a versão pedida; as demais leituras (último relatório) vêm de latest
+    private void stubVersionAndLatestReport(long version, Map<String, AttributeValue> latest) {
+        when(dynamoDbClient.getItem(any(GetItemRequest.class))).thenAnswer(invocation -> {
+            GetItemRequest request = invocation.getArgument(0);
+            if (request.key().get("sk").s().equals("META")) {
+                return GetItemResponse.builder()
+                        .item(Map.of("version", AttributeValue.builder().n(String.valueOf(version)).build()))
+                        .build();
+            }
+            return latest == null ? GetItemResponse.builder().build() : GetItemResponse.builder().item(latest).build();
+        });
+    }
+
+    @Test
+    void testHandleRequest_ReusesReportWhenListIsUnchanged() {
+        stubVersionAndLatestReport(7, null);
+        SQSEvent event = new SQSEvent();
+        event.setRecords(List.of(message("m1", "user1")));
+
+        handler.handleRequest(event, context);
+
+        // o primeiro relatório grava a versão da lista e a chave; a segunda exportação encontra a
+        // mesma versão e não lê a partição nem envia nada ao S3
+        ArgumentCaptor<PutItemRequest> latestCaptor = ArgumentCaptor.forClass(PutItemRequest.class);
+        verify(dynamoDbClient).putItem(latestCaptor.capture());
+        Map<String, AttributeValue> latest = latestCaptor.getValue().item();
+        assertEquals("LATEST#csv", latest.get("sk").s());
+        assertEquals("7", latest.get("listVersion").n());
+        stubVersionAndLatestReport(7, latest);
+
+        SQSBatchResponse response = handler.handleRequest(event, context);
+
+        assertEquals(0, response.getBatchItemFailures().size());
+        verify(dynamoDbClient, times(1)).query(any(QueryRequest.class));
+        verify(s3Client, times(1)).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(dynamoDbClient, times(1)).putItem(any(PutItemRequest.class));
+        ArgumentCaptor<SendEmailRequest> emailCaptor = ArgumentCaptor.forClass(SendEmailRequest.class);
+        verify(sesClient, times(2)).sendEmail(emailCaptor.capture());
+        assertTrue(emailCaptor.getAllValues().get(1).message().body().html().data().contains(latest.get("s3Key").s()));
+    }
+
+    @Test
+    void testHandleRequest_UploadsWhenListChanged() {
+        stubVersionAndLatestReport(8, Map.of(
+                "listVersion", AttributeValue.builder().n("7").build(),
+                "s3Key", AttributeValue.builder().s("reports/antigo.csv").build()));
+        SQSEvent event = new SQSEvent();
+        event.setRecords(List.of(message("m1", "user1")));
+
+        handler.handleRequest(event, context);
+
+        verify(s3Client).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(dynamoDbClient).putItem(any(PutItemRequest.class));
+    }
+
+    @Test
+    void testHandleRequest_ListChangedDuringExportIsNotReused() {
+        // um lote gravou entre a leitura da versão e o fim do envio: 7 antes, 8 depois
+        AtomicInteger metaReads = new AtomicInteger();
+        when(dynamoDbClient.getItem(any(GetItemRequest.class))).thenAnswer(invocation -> {
+            GetItemRequest request = invocation.getArgument(0);
+            if (request.key().get("sk").s().equals("META")) {
+                String version = metaReads.incrementAndGet() == 1 ? "7" : "8";
+                return GetItemResponse.builder()
+                        .item(Map.of("version", AttributeValue.builder().n(version).build()))
+                        .build();
+            }
+            return GetItemResponse.builder().build();
+        });
+        SQSEvent event = new SQSEvent();
+        event.setRecords(List.of(message("m1", "user1")));
+
+        handler.handleRequest(event, context);
+
+        ArgumentCaptor<PutItemRequest> latestCaptor = ArgumentCaptor.forClass(PutItemRequest.class);
+        verify(dynamoDbClient).putItem(latestCaptor.capture());
+        assertEquals("LATEST#csv", latestCaptor.getValue().item().get("sk").s());
+        assertFalse(latestCaptor.getValue().item().containsKey("listVersion"));
+    }
+
+    @Test
+    void testHandleRequest_GzipCsv() throws IOException {
+        SQSEvent event = new SQSEvent();
+        event.setRecords(List.of(message("m1", "user1", "csv-gzip")));
+
+        handler.handleRequest(event, context);
+
+        ArgumentCaptor<PutObjectRequest> requestCaptor = ArgumentCaptor.forClass(PutObjectRequest.class);
+        ArgumentCaptor<RequestBody> bodyCaptor = ArgumentCaptor.forClass(RequestBody.class);
+        verify(s3Client).putObject(requestCaptor.capture(), bodyCaptor.capture());
+        assertEquals("gzip", requestCaptor.getValue().contentEncoding());
+        assertEquals("text/csv", requestCaptor.getValue().contentType());
+
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(uploadedBytes(bodyCaptor.getValue())))) {
+            String csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertEquals("itemId,text,createdAt,completed\r\nitem1,Comprar pão,2024-01-01T00:00:00Z,false\r\n", csv);
+        }
+    }
+
+    @Test
+    void testHandleRequest_Ndjson() throws IOException {
+        SQSEvent event = new SQSEvent();
+        event.setRecords(List.of(message("m1", "user1", "ndjson")));
+
+        handler.handleRequest(event, context);
+
+        ArgumentCaptor<PutObjectRequest> requestCaptor = ArgumentCaptor.forClass(PutObjectRequest.class);
+        ArgumentCaptor<RequestBody> bodyCaptor = ArgumentCaptor.forClass(RequestBody.class);
+        verify(s3Client).putObject(requestCaptor.capture(), bodyCaptor.capture());
+        assertTrue(requestCaptor.getValue().key().endsWith(".ndjson"));
+        assertEquals("{\"itemId\":\"item1\",\"text\":\"Comprar pão\",\"createdAt\":\"2024-01-01T00:00:00Z\",\"completed\":false}\n",
+                new String(uploadedBytes(bodyCaptor.getValue()), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,93 @@
+package example;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+import software.amazon.awssdk.services.sqs.model.SqsException;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ExtendWith(MockitoExtension.class)
+public class RequestExportHandlerTest {
+
+    @Mock
+    private SqsClient sqsClient;
+    @Mock
+    private DynamoDbClient dynamoDbClient;
+    @Mock
+    private Context context;
+    @Mock
+    private LambdaLogger logger;
+
+    private RequestExportHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        when(context.getLogger()).thenReturn(logger);
+        handler = new RequestExportHandler(sqsClient, dynamoDbClient, "https://sqs.fake/export", "FakeTable");
+    }
+
+    private static APIGatewayProxyRequestEvent request() {
+        APIGatewayProxyRequestEvent.ProxyRequestContext requestContext = new APIGatewayProxyRequestEvent.ProxyRequestContext();
+        requestContext.setAuthorizer(Map.of("sub", "user123"));
+        return new APIGatewayProxyRequestEvent()
+                .withPathParameters(Map.of("listId", "list456"))
+                .withRequestContext(requestContext);
+    }
+
+    @Test
+    void testHandleRequest_QueuesFirstRequest() {
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request(), context);
+
+        assertEquals(202, response.getStatusCode());
+        ArgumentCaptor<PutItemRequest> captor = ArgumentCaptor.forClass(PutItemRequest.class);
+        verify(dynamoDbClient).putItem(captor.capture());
+        assertEquals("EXPORT#list456", captor.getValue().item().get("pk").s());
+        assertEquals("USER#user123#csv", captor.getValue().item().get("sk").s());
+        verify(sqsClient).sendMessage(any(SendMessageRequest.class));
+    }
+
+    @Test
+    void testHandleRequest_CoalescesRepeatedRequest() {
+        when(dynamoDbClient.putItem(any(PutItemRequest.class)))
+                .thenThrow(ConditionalCheckFailedException.builder().message("já existe").build());
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request(), context);
+
+        assertEquals(202, response.getStatusCode());
+        verify(sqsClient, never()).sendMessage(any(SendMessageRequest.class));
+    }
+
+    @Test
+    void testHandleRequest_ReleasesMarkerWhenQueueFails() {
+        when(sqsClient.sendMessage(any(SendMessageRequest.class)))
+                .thenThrow(SqsException.builder().message("fila fora").build());
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request(), context);
+
+        assertEquals(500, response.getStatusCode());
+        verify(dynamoDbClient).deleteItem(any(DeleteItemRequest.class));
+    }
+}
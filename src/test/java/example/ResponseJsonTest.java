@@ -0,0 +1,103 @@
+package example;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResponseJsonTest {
+
+    // mesmas classes que os handlers serializavam com gson.toJson antes
+    private static class ItemResponse {
+        private String itemId;
+        private String text;
+        private String createdAt;
+        private boolean completed;
+    }
+
+    private static class PageResponse {
+        private List<ItemResponse> items;
+        private String nextToken;
+    }
+
+    private static class ListResponse {
+        private String userId;
+        private String listId;
+        private String name;
+        private String createdAt;
+        private long itemCount;
+        private long completedCount;
+    }
+
+    private final Gson gson = new Gson();
+
+    private static Map<String, AttributeValue> item(String itemId, String text, boolean completed) {
+        return Map.of(
+                "pk", AttributeValue.builder().s("LIST#list456").build(),
+                "sk", AttributeValue.builder().s("ITEM#" + itemId).build(),
+                "itemId", AttributeValue.builder().s(itemId).build(),
+                "text", AttributeValue.builder().s(text).build(),
+                "createdAt", AttributeValue.builder().s("2024-01-01T12:00:00Z").build(),
+                "completed", AttributeValue.builder().bool(completed).build());
+    }
+
+    private static ItemResponse itemResponse(String itemId, String text, boolean completed) {
+        ItemResponse response = new ItemResponse();
+        response.itemId = itemId;
+        response.text = text;
+        response.createdAt = "2024-01-01T12:00:00Z";
+        response.completed = completed;
+        return response;
+    }
+
+    @Test
+    void testItemMatchesGsonOutput() {
+        String text = "Comprar <pão> & \"café\" = 'já'\n fim";
+
+        assertEquals(gson.toJson(itemResponse("item1", text, true)), ResponseJson.item(item("item1", text, true)));
+    }
+
+    @Test
+    void testItemPageMatchesGsonOutput() {
+        PageResponse page = new PageResponse();
+        page.items = List.of(itemResponse("item1", "a", false), itemResponse("item2", "b", true));
+        page.nextToken = "abc=";
+
+        assertEquals(gson.toJson(page),
+                ResponseJson.itemPage(List.of(item("item1", "a", false), item("item2", "b", true)), "abc="));
+
+        // sem nextToken o campo some, como no gson
+        page.nextToken = null;
+        page.items = List.of();
+        assertEquals(gson.toJson(page), ResponseJson.itemPage(List.of(), null));
+    }
+
+    @Test
+    void testListMatchesGsonOutput() {
+        ListResponse list = new ListResponse();
+        list.userId = "user123";
+        list.listId = "list456";
+        list.name = "Mercado";
+        list.createdAt = "2024-01-01T12:00:00Z";
+        list.itemCount = 12;
+        list.completedCount = 5;
+
+        assertEquals(gson.toJson(list), ResponseJson.list(Map.of(
+                "pk", AttributeValue.builder().s("USER#user123").build(),
+                "sk", AttributeValue.builder().s("LIST#list456").build(),
+                "userId", AttributeValue.builder().s("user123").build(),
+                "name", AttributeValue.builder().s("Mercado").build(),
+                "createdAt", AttributeValue.builder().s("2024-01-01T12:00:00Z").build()), Map.of(
+                "itemCount", AttributeValue.builder().n("12").build(),
+                "completedCount", AttributeValue.builder().n("5").build())));
+
+        // lista sem linha META: contadores zerados
+        assertTrue(ResponseJson.list(Map.of("name", AttributeValue.builder().s("Mercado").build()), null)
+                .endsWith("\"itemCount\":0,\"completedCount\":0}"));
+    }
+}
@@ -0,0 +1,95 @@
+package example;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ExtendWith(MockitoExtension.class)
+public class RouterHandlerTest {
+
+    @Mock
+    private RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> listItemsHandler;
+    @Mock
+    private RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> getItemHandler;
+    @Mock
+    private Context context;
+    @Mock
+    private LambdaLogger logger;
+
+    private RouterHandler router;
+
+    @BeforeEach
+    void setUp() {
+        when(context.getLogger()).thenReturn(logger);
+        when(listItemsHandler.handleRequest(any(), any())).thenReturn(new APIGatewayProxyResponseEvent().withStatusCode(200));
+        when(getItemHandler.handleRequest(any(), any())).thenReturn(new APIGatewayProxyResponseEvent().withStatusCode(200));
+        router = new RouterHandler(Map.of(
+                "GET /lists/{listId}/items", listItemsHandler,
+                "GET /lists/{listId}/items/{itemId}", getItemHandler));
+    }
+
+    @Test
+    void testHandleRequest_DispatchesOnResource() {
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withHttpMethod("GET")
+                .withResource("/lists/{listId}/items/{itemId}")
+                .withPath("/lists/list456/items/item1")
+                .withPathParameters(Map.of("listId", "list456", "itemId", "item1"));
+
+        APIGatewayProxyResponseEvent response = router.handleRequest(request, context);
+
+        assertEquals(200, response.getStatusCode());
+        verify(getItemHandler).handleRequest(request, context);
+        verify(listItemsHandler, never()).handleRequest(any(), any());
+    }
+
+    @Test
+    void testHandleRequest_MatchesPathAndFillsParameters() {
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withHttpMethod("GET")
+                .withPath("/lists/list456/items");
+
+        router.handleRequest(request, context);
+
+        ArgumentCaptor<APIGatewayProxyRequestEvent> captor = ArgumentCaptor.forClass(APIGatewayProxyRequestEvent.class);
+        verify(listItemsHandler).handleRequest(captor.capture(), any());
+        assertEquals(Map.of("listId", "list456"), captor.getValue().getPathParameters());
+    }
+
+    @Test
+    void testHandleRequest_WrongMethod() {
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withHttpMethod("PATCH")
+                .withPath("/lists/list456/items");
+
+        assertEquals(405, router.handleRequest(request, context).getStatusCode());
+    }
+
+    @Test
+    void testHandleRequest_UnknownRoute() {
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withHttpMethod("GET")
+                .withPath("/nada/aqui");
+
+        assertEquals(404, router.handleRequest(request, context).getStatusCode());
+    }
+}
@@ -0,0 +1,94 @@
+package example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@MockitoSettings(strictness = Strictness.LENIENT)
+@ExtendWith(MockitoExtension.class)
+public class S3MultipartOutputStreamTest {
+
+    private static final int PART_SIZE = S3MultipartOutputStream.MIN_PART_SIZE;
+
+    @Mock
+    private S3Client s3Client;
+
+    @Test
+    void testSmallContent_UsesSinglePutObject() throws IOException {
+        S3MultipartOutputStream out = new S3MultipartOutputStream(s3Client, "bucket", "reports/a.csv", "text/csv", PART_SIZE);
+
+        out.write("itemId,text\n".getBytes());
+        out.close();
+
+        verify(s3Client).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
+
+    @Test
+    void testLargeContent_UploadsPartsAndCompletes() throws IOException {
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenReturn(UploadPartResponse.builder().eTag("etag").build());
+
+        S3MultipartOutputStream out = new S3MultipartOutputStream(s3Client, "bucket", "reports/a.csv", "text/csv", PART_SIZE);
+        byte[] chunk = new byte[1024 * 1024];
+        for (int i = 0; i < 12; i++) {
+            out.write(chunk);
+        }
+        out.close();
+
+        // 12 MB com partes de 5 MB: duas partes cheias e uma final de 2 MB
+        verify(s3Client, times(3)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+        verify(s3Client).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+
+    @Test
+    void testPartFailure_AbortsUpload() {
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenThrow(S3Exception.builder().message("falhou").build());
+
+        S3MultipartOutputStream out = new S3MultipartOutputStream(s3Client, "bucket", "reports/a.csv", "text/csv", PART_SIZE);
+
+        assertThrows(S3Exception.class, () -> out.write(new byte[PART_SIZE + 1]));
+        verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        assertThrows(IOException.class, () -> out.write(1));
+    }
+
+    @Test
+    void testAbort_DiscardsWithoutCreatingObject() throws IOException {
+        S3MultipartOutputStream out = new S3MultipartOutputStream(s3Client, "bucket", "reports/a.csv", "text/csv", PART_SIZE);
+
+        out.write(new byte[10]);
+        out.abort();
+        out.close();
+
+        verifyNoInteractions(s3Client);
+    }
+}
@@ -0,0 +1,99 @@
+package example;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TtlCacheTest {
+
+    private final AtomicLong now = new AtomicLong(0);
+
+    @Test
+    void testGet_CachesUntilTtlExpires() {
+        TtlCache<String, String> cache = new TtlCache<>(10, Duration.ofMinutes(1), now::get);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("a@teste.com", cache.get("a", key -> key + "@teste.com" + (loads.incrementAndGet() > 1 ? "!" : "")));
+        now.addAndGet(59_000);
+        assertEquals("a@teste.com", cache.get("a", key -> key + "@teste.com" + (loads.incrementAndGet() > 1 ? "!" : "")));
+        now.addAndGet(2_000);
+        assertEquals("a@teste.com!", cache.get("a", key -> key + "@teste.com" + (loads.incrementAndGet() > 1 ? "!" : "")));
+
+        assertEquals(1, cache.hits());
+        assertEquals(2, cache.misses());
+    }
+
+    @Test
+    void testGet_EvictsLeastRecentlyUsed() {
+        TtlCache<String, String> cache = new TtlCache<>(2, Duration.ofMinutes(1), now::get);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("a", key -> { loads.incrementAndGet(); return key; });
+        cache.get("b", key -> { loads.incrementAndGet(); return key; });
+        cache.get("a", key -> { loads.incrementAndGet(); return key; });
+        // "b" é o menos usado e sai quando "c" entra
+        cache.get("c", key -> { loads.incrementAndGet(); return key; });
+        cache.get("a", key -> { loads.incrementAndGet(); return key; });
+        cache.get("b", key -> { loads.incrementAndGet(); return key; });
+
+        assertEquals(2, cache.size());
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void testGet_FailureIsNotCached() {
+        TtlCache<String, String> cache = new TtlCache<>(10, Duration.ofMinutes(1), now::get);
+
+        assertThrows(IllegalStateException.class, () -> cache.get("a", key -> { throw new IllegalStateException("falhou"); }));
+        assertEquals("ok", cache.get("a", key -> "ok"));
+        assertEquals(2, cache.misses());
+    }
+
+    @Test
+    void testGet_ConcurrentLookupsShareOneLoad() throws Exception {
+        TtlCache<String, String> cache = new TtlCache<>(10, Duration.ofMinutes(1), now::get);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> first = pool.submit(() -> cache.get("a", key -> {
+                loads.incrementAndGet();
+                loaderStarted.countDown();
+                try {
+                    releaseLoader.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "a@teste.com";
+            }));
+            loaderStarted.await(5, TimeUnit.SECONDS);
+
+            Future<String> second = pool.submit(() -> cache.get("a", key -> { loads.incrementAndGet(); return "outro"; }));
+            Future<String> third = pool.submit(() -> cache.get("a", key -> { loads.incrementAndGet(); return "outro"; }));
+            // as duas buscas já estão esperando o carregamento em andamento
+            while (cache.hits() < 2) {
+                Thread.sleep(1);
+            }
+            releaseLoader.countDown();
+
+            assertEquals("a@teste.com", first.get(5, TimeUnit.SECONDS));
+            assertEquals("a@teste.com", second.get(5, TimeUnit.SECONDS));
+            assertEquals("a@teste.com", third.get(5, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -8,18 +8,35 @@ import com.google.gson.Gson;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
 import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
 import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageResponse;
+import software.amazon.awssdk.services.sqs.model.SqsException;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -30,6 +47,8 @@ public class UpdateDeleteListHandlerTest {
     @Mock
     private DynamoDbClient dynamoDbClient;
     @Mock
+    private SqsClient sqsClient;
+    @Mock
     private Context context;
     @Mock
     private LambdaLogger logger;
@@ -39,9 +58,32 @@ public class UpdateDeleteListHandlerTest {
     @BeforeEach
     void setUp() {
         when(context.getLogger()).thenReturn(logger);
+        when(dynamoDbClient.query(any(QueryRequest.class))).thenReturn(QueryResponse.builder().build());
+        when(dynamoDbClient.batchWriteItem(any(BatchWriteItemRequest.class))).thenReturn(BatchWriteItemResponse.builder().build());
         handler = new UpdateDeleteListHandler(dynamoDbClient, "FakeTable");
     }
 
+    private static Map<String, AttributeValue> itemKey(int i) {
+        return Map.of("pk", AttributeValue.builder().s("LIST#list456").build(),
+                "sk", AttributeValue.builder().s("ITEM#item" + i).build());
+    }
+
+    // primeira página cheia com continuação, segunda página com o resto
+    private void stubTwoPages() {
+        when(dynamoDbClient.query(any(QueryRequest.class))).thenAnswer(invocation -> {
+            QueryRequest request = invocation.getArgument(0);
+            List<Map<String, AttributeValue>> keys = new ArrayList<>();
+            if (request.exclusiveStartKey() == null || request.exclusiveStartKey().isEmpty()) {
+                for (int i = 0; i < 30; i++) {
+                    keys.add(itemKey(i));
+                }
+                return QueryResponse.builder().items(keys).lastEvaluatedKey(itemKey(29)).build();
+            }
+            keys.add(itemKey(30));
+            return QueryResponse.builder().items(keys).build();
+        });
+    }
+
     @Test
     void testHandleRequest_Put_Success() {
         String requestBody = new Gson().toJson(Map.of("name", "Nome Atualizado"));
@@ -68,6 +110,48 @@ public class UpdateDeleteListHandlerTest {
         verify(dynamoDbClient).deleteItem(any(DeleteItemRequest.class));
     }
 
+    @Test
+    void testHandleRequest_Delete_OtherUsersListIsNotFound() {
+        when(dynamoDbClient.updateItem(any(UpdateItemRequest.class)))
+                .thenThrow(ConditionalCheckFailedException.builder().message("The conditional request failed").build());
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withHttpMethod("DELETE")
+                .withPathParameters(Map.of("userId", "intruso", "listId", "list456"));
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+        assertEquals(404, response.getStatusCode());
+        ArgumentCaptor<UpdateItemRequest> markCaptor = ArgumentCaptor.forClass(UpdateItemRequest.class);
+        verify(dynamoDbClient).updateItem(markCaptor.capture());
+        assertEquals("attribute_exists(pk)", markCaptor.getValue().conditionExpression());
+        assertEquals("USER#intruso", markCaptor.getValue().key().get("pk").s());
+        // sem a lista, os itens da partição LIST#list456 não são tocados
+        verify(dynamoDbClient, never()).query(any(QueryRequest.class));
+        verify(dynamoDbClient, never()).batchWriteItem(any(BatchWriteItemRequest.class));
+        verify(dynamoDbClient, never()).deleteItem(any(DeleteItemRequest.class));
+    }
+
+    @Test
+    void testHandleRequest_Delete_ListRowGoesLastSoRetriesCanFinish() {
+        stubTwoPages();
+        handler = new UpdateDeleteListHandler(dynamoDbClient, sqsClient, "FakeTable", "https://sqs.fake/purge");
+        when(sqsClient.sendMessage(any(SendMessageRequest.class)))
+                .thenThrow(SqsException.builder().message("fila fora do ar").statusCode(500).build())
+                .thenReturn(SendMessageResponse.builder().build());
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withHttpMethod("DELETE")
+                .withPathParameters(Map.of("userId", "user123", "listId", "list456"));
+
+        // o envio falhou: a lista continua lá para a repetição
+        assertEquals(500, handler.handleRequest(request, context).getStatusCode());
+        verify(dynamoDbClient, never()).deleteItem(any(DeleteItemRequest.class));
+
+        assertEquals(202, handler.handleRequest(request, context).getStatusCode());
+        InOrder order = inOrder(sqsClient, dynamoDbClient);
+        order.verify(sqsClient, times(2)).sendMessage(any(SendMessageRequest.class));
+        order.verify(dynamoDbClient).deleteItem(any(DeleteItemRequest.class));
+    }
+
     @Test
     void testHandleRequest_InvalidMethod() {
         APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
@@ -78,4 +162,51 @@ public class UpdateDeleteListHandlerTest {
 
         assertEquals(405, response.getStatusCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testHandleRequest_Delete_RemovesItemsWithKeyOnlyQuery() {
+        stubTwoPages();
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withHttpMethod("DELETE")
+                .withPathParameters(Map.of("userId", "user123", "listId", "list456"));
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+        assertEquals(200, response.getStatusCode());
+        ArgumentCaptor<QueryRequest> queryCaptor = ArgumentCaptor.forClass(QueryRequest.class);
+        verify(dynamoDbClient, times(2)).query(queryCaptor.capture());
+        assertEquals("pk, sk", queryCaptor.getValue().projectionExpression());
+        // 30 itens na primeira página (2 lotes) e 1 na segunda
+        verify(dynamoDbClient, times(3)).batchWriteItem(any(BatchWriteItemRequest.class));
+    }
+
+    @Test
+    void testHandleRequest_Delete_LargeListGoesToPurgeQueue() {
+        stubTwoPages();
+        handler = new UpdateDeleteListHandler(dynamoDbClient, sqsClient, "FakeTable", "https://sqs.fake/purge");
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withHttpMethod("DELETE")
+                .withPathParameters(Map.of("userId", "user123", "listId", "list456"));
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+        assertEquals(202, response.getStatusCode());
+        verify(dynamoDbClient, times(1)).query(any(QueryRequest.class));
+        ArgumentCaptor<SendMessageRequest> sqsCaptor = ArgumentCaptor.forClass(SendMessageRequest.class);
+        verify(sqsClient).sendMessage(sqsCaptor.capture());
+        assertEquals("{\"listId\":\"list456\"}", sqsCaptor.getValue().messageBody());
+    }
+
+    @Test
+    void testHandleRequest_Delete_SmallListSkipsQueue() {
+        handler = new UpdateDeleteListHandler(dynamoDbClient, sqsClient, "FakeTable", "https://sqs.fake/purge");
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withHttpMethod("DELETE")
+                .withPathParameters(Map.of("userId", "user123", "listId", "list456"));
+
+        APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+        assertEquals(200, response.getStatusCode());
+        verify(sqsClient, never()).sendMessage(any(SendMessageRequest.class));
+    }
+}